@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics;
+
+import org.opendaylight.yangtools.concepts.Registration;
+
+/**
+ * Gauge metric, which is an instantaneous value, such as a queue depth.
+ *
+ * <p>Gauges are pull based: their value is obtained from a supplier given when the Gauge is created, only whenever
+ * it is read or reported; application code never pushes values into a Gauge.
+ */
+public interface Gauge extends Registration {
+
+    /**
+     * Gets the current value of this Gauge, from its supplier.
+     */
+    long get();
+}
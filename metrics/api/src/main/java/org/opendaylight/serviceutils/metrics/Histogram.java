@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics;
+
+import org.opendaylight.yangtools.concepts.Registration;
+
+/**
+ * Histogram metric, which measures the statistical distribution of values, such as batch or payload sizes.
+ *
+ * <p>Note that for durations you typically want to use a {@link Timer} instead of this.
+ */
+public interface Histogram extends Registration {
+
+    /**
+     * Record a value.
+     *
+     * @param value the value to record; negative values are ignored
+     */
+    void update(long value);
+
+    /**
+     * Gets the number of values recorded so far.
+     * This is typically used in unit tests of metrics, more than to expose the metrics in production
+     * (because exposing metrics is really the role of the infrautils metrics implementation of this API).
+     */
+    long count();
+}
@@ -10,6 +10,11 @@ package org.opendaylight.serviceutils.metrics;
 /**
  * Labeled wrapper which "tags" T objects.
  *
+ * <p>Implementations may be configured to evict labeled children which have not been updated for some idle time,
+ * so that series of e.g. ports which disappeared are no longer reported.  Callers should therefore resolve the child
+ * with {@link #label(String)} when updating it, instead of holding on to it for longer than that: updates of an
+ * evicted child are silently dropped, unlike those of a child which was closed explicitly, which throw.
+ *
  * @see MetricProvider
  *
  * @author Michael Vorburger.ch
@@ -7,6 +7,8 @@
  */
 package org.opendaylight.serviceutils.metrics;
 
+import java.util.Optional;
+import java.util.OptionalInt;
 import org.immutables.value.Value;
 import org.immutables.value.Value.Default;
 
@@ -66,6 +68,33 @@ public abstract class MetricDescriptor {
         return id();
     }
 
+    /**
+     * How the values of this metric are sampled, if it is a {@link Timer} or {@link Histogram}.  Defaults to the
+     * reservoir configured globally in the metrics implementation; only set this to override that for a particular
+     * metric.
+     */
+    public abstract Optional<ReservoirType> reservoir();
+
+    /**
+     * Maximum number of distinct label value combinations (children) of this metric, if it is labeled.  Once that is
+     * reached, new label values are all recorded in a single child with the label value <code>__overflow__</code>,
+     * and a meter with the ID of this metric suffixed by <code>_label_overflow</code> counts how often that happened.
+     * Defaults to the maximum configured globally in the metrics implementation; 0 means no limit.
+     */
+    public abstract OptionalInt maxCardinality();
+
+    /**
+     * Whether a {@link Meter} accumulates its marks in striped cells, which are only folded into the underlying meter
+     * when it is read, and at least every second.  This avoids the clock read and the shared CAS of each mark, and is
+     * meant for meters which are marked from many threads at very high rates.  The count read through the API or by
+     * reporters is always exact, but rates may attribute marks up to one second later than they happened, and
+     * scrapes may lag by up to one second.  {@link Counter}s are always striped, so this has no effect on them.
+     * Defaults to false.
+     */
+    @Default public boolean batched() {
+        return false;
+    }
+
     // TODO unit(Unit unit) @see https://prometheus.io/docs/practices/naming/#base-units
     // automatically add to name https://prometheus.io/docs/practices/naming/#metric-names
 
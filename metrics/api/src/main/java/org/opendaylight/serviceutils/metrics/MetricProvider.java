@@ -7,6 +7,10 @@
  */
 package org.opendaylight.serviceutils.metrics;
 
+import java.util.function.LongSupplier;
+import java.util.function.ToLongBiFunction;
+import java.util.function.ToLongFunction;
+
 /**
  * Factory to obtain a new metric for use by application code.
  *
@@ -30,6 +34,9 @@ package org.opendaylight.serviceutils.metrics;
  * <i>odl.&lt;projectName&gt;.&lt;moduleName&gt;.&lt;metricName&gt;</i>,
  * so e.g. {@code odl.infrautils.jobcoordinator.jobsPending}.
  *
+ * <p>Meters which are marked from many threads at very high rates can opt into a batched mode, which trades a
+ * bounded staleness of rates for cheaper marks, with {@link MetricDescriptor#batched()}.
+ *
  * <p>Implementations of this interface are required to be thread-safe.
  *
  * @author Michael Vorburger.ch
@@ -215,10 +222,64 @@ public interface MetricProvider {
      */
     Labeled<Labeled<Timer>> newTimer(MetricDescriptor descriptor, String firstLabelName, String secondLabelName);
 
-    // TODO Histogram newHistogram(Object anchor, String id);
+    /**
+     * Create new Histogram metric without labels.
+     * @param descriptor a MetricDescriptor, typically created via <code>MetricDescriptor.builder().anchor(this)
+     *           .project("&lt;projectName&gt;").module("&lt;moduleName&gt;").id("&lt;metricName&gt;").build()</code>
+     * @return the Histogram
+     */
+    Histogram newHistogram(MetricDescriptor descriptor);
+
+    /**
+     * Create new Histogram metric with 1 label.
+     * @param descriptor a MetricDescriptor, typically created via <code>MetricDescriptor.builder().anchor(this)
+     *           .project("&lt;projectName&gt;").module("&lt;moduleName&gt;").id("&lt;metricName&gt;").build()</code>
+     * @param labelName name of the (only) label of this metric
+     * @return an object from which a Histogram can be obtained, given 1 label value
+     */
+    Labeled<Histogram> newHistogram(MetricDescriptor descriptor, String labelName);
 
-    // @SuppressWarnings("rawtypes")
-    // TODO Gauge newGauge(Object anchor, String id, MetricSupplier<Gauge> supplier);
-    // TODO write a test to clarify how to use this with a MetricSupplier; what's that for?
+    /**
+     * Create new Histogram metric with 2 labels.
+     * @param descriptor a MetricDescriptor, typically created via <code>MetricDescriptor.builder().anchor(this)
+     *           .project("&lt;projectName&gt;").module("&lt;moduleName&gt;").id("&lt;metricName&gt;").build()</code>
+     * @param firstLabelName name of the 1st label of this metric
+     * @param secondLabelName name of the 2nd label of this metric
+     * @return an object from which a Histogram can be obtained, given 2 label values
+     */
+    Labeled<Labeled<Histogram>> newHistogram(MetricDescriptor descriptor, String firstLabelName,
+            String secondLabelName);
 
+    /**
+     * Create new Gauge metric without labels.
+     * @param descriptor a MetricDescriptor, typically created via <code>MetricDescriptor.builder().anchor(this)
+     *           .project("&lt;projectName&gt;").module("&lt;moduleName&gt;").id("&lt;metricName&gt;").build()</code>
+     * @param supplier supplier of the current value of the Gauge, invoked whenever it is read or reported
+     * @return the Gauge
+     */
+    Gauge newGauge(MetricDescriptor descriptor, LongSupplier supplier);
+
+    /**
+     * Create new Gauge metric with 1 label.
+     * @param descriptor a MetricDescriptor, typically created via <code>MetricDescriptor.builder().anchor(this)
+     *           .project("&lt;projectName&gt;").module("&lt;moduleName&gt;").id("&lt;metricName&gt;").build()</code>
+     * @param supplier supplier of the current value of the Gauge for a given label value, invoked whenever it is
+     *           read or reported
+     * @param labelName name of the (only) label of this metric
+     * @return an object from which a Gauge can be obtained, given 1 label value
+     */
+    Labeled<Gauge> newGauge(MetricDescriptor descriptor, ToLongFunction<String> supplier, String labelName);
+
+    /**
+     * Create new Gauge metric with 2 labels.
+     * @param descriptor a MetricDescriptor, typically created via <code>MetricDescriptor.builder().anchor(this)
+     *           .project("&lt;projectName&gt;").module("&lt;moduleName&gt;").id("&lt;metricName&gt;").build()</code>
+     * @param supplier supplier of the current value of the Gauge for given label values, invoked whenever it is
+     *           read or reported
+     * @param firstLabelName name of the 1st label of this metric
+     * @param secondLabelName name of the 2nd label of this metric
+     * @return an object from which a Gauge can be obtained, given 2 label values
+     */
+    Labeled<Labeled<Gauge>> newGauge(MetricDescriptor descriptor, ToLongBiFunction<String, String> supplier,
+            String firstLabelName, String secondLabelName);
 }
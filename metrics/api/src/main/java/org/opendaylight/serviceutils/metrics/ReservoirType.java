@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics;
+
+/**
+ * How the values recorded by a {@link Timer} or {@link Histogram} are sampled, to compute their percentiles.
+ *
+ * <p>The default is configured globally in the metrics implementation, and can be overridden for a particular
+ * metric using {@link MetricDescriptor#reservoir()}. Implementations which have only a single way of sampling
+ * ignore this.
+ */
+public enum ReservoirType {
+    /**
+     * Wait-free <a href="http://hdrhistogram.org">HdrHistogram</a> interval recorder; percentiles cover the values
+     * recorded during the last one to two configured windows. Updates are cheaper than those of
+     * {@link #EXPONENTIALLY_DECAYING}, but each metric takes a few KiB more memory.
+     */
+    HDR_HISTOGRAM,
+
+    /**
+     * All values recorded during the configured window; memory grows with the rate of updates.
+     */
+    SLIDING_TIME_WINDOW,
+
+    /**
+     * Uniform random sample of a fixed number of values, over the entire lifetime of the metric.
+     */
+    UNIFORM,
+
+    /**
+     * Random sample of a fixed number of values, biased towards the last 5 minutes. This takes a lock on every
+     * update. This is the default.
+     */
+    EXPONENTIALLY_DECAYING
+}
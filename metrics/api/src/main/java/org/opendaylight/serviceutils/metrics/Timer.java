@@ -7,23 +7,84 @@
  */
 package org.opendaylight.serviceutils.metrics;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import org.opendaylight.serviceutils.metrics.function.CheckedCallable;
 import org.opendaylight.serviceutils.metrics.function.CheckedRunnable;
 import org.opendaylight.yangtools.concepts.Registration;
 
 /**
  * A timer metric which aggregates timing durations.
+ *
+ * <p>Besides the {@code time()} methods which wrap an event, durations can also be measured explicitly using
+ * {@code long startTime = timer.start(); ... timer.stop(startTime);}, which does not allocate any handle object,
+ * and also works if the event ends on another thread than the one it started on.
  */
 public interface Timer extends Registration {
 
     /**
      * Times and records the duration of event which returns a value.
      */
-    <T, E extends Exception> T time(CheckedCallable<T, E> event) throws E;
+    default <T, E extends Exception> T time(CheckedCallable<T, E> event) throws E {
+        long startTime = start();
+        try {
+            return event.call();
+        } finally {
+            stop(startTime);
+        }
+    }
 
     /**
      * Times and records the duration of event.
      */
-    <E extends Exception> void time(CheckedRunnable<E> event) throws E;
+    default <E extends Exception> void time(CheckedRunnable<E> event) throws E {
+        long startTime = start();
+        try {
+            event.run();
+        } finally {
+            stop(startTime);
+        }
+    }
+
+    /**
+     * Times and records the duration from now until the given future completes, successfully or not.
+     *
+     * @param future the future representing an asynchronous event
+     * @return the same future, for convenience
+     */
+    @CanIgnoreReturnValue
+    default <V> ListenableFuture<V> time(ListenableFuture<V> future) {
+        long startTime = start();
+        future.addListener(() -> stop(startTime), MoreExecutors.directExecutor());
+        return future;
+    }
+
+    /**
+     * Starts timing an event.
+     *
+     * @return the start time, in {@link System#nanoTime()} units, to pass to {@link #stop(long)}
+     */
+    default long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Stops timing an event, and records its duration.
+     *
+     * @param startTime the value previously returned by {@link #start()}
+     * @return the recorded duration, in nanoseconds
+     */
+    default long stop(long startTime) {
+        long nanos = System.nanoTime() - startTime;
+        record(nanos);
+        return nanos;
+    }
 
+    /**
+     * Records the duration of an event which was measured by the caller.
+     *
+     * @param nanos the duration of the event, in nanoseconds; negative values are ignored
+     */
+    void record(long nanos);
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.benchmarks;
+
+import java.util.Arrays;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this module with 1, 8 and 64 threads, with the GC profiler for the allocation rate, and
+ * writes the results of each to <code>jmh-result-&lt;threads&gt;-threads.json</code> in the current directory; these
+ * can be compared across versions e.g. with <a href="https://jmh.morethan.io">JMH Visualizer</a>.
+ *
+ * <p>Run with <code>java -cp metrics/benchmarks/target/benchmarks.jar
+ * org.opendaylight.serviceutils.metrics.benchmarks.BenchmarkMain [benchmark regexp...]</code>; without any regexp, all
+ * benchmarks are run, which takes a long time.  Use <code>-Dthreads=1,4</code> to run with other thread counts.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+        // Hidden on purpose
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int[] threadCounts = Arrays.stream(System.getProperty("threads", "1,8,64").split(","))
+            .mapToInt(threads -> Integer.parseInt(threads.trim())).toArray();
+        for (int threads : threadCounts) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                .threads(threads)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-" + threads + "-threads.json");
+            if (args.length == 0) {
+                options.include(BenchmarkMain.class.getPackageName() + ".*Benchmark");
+            }
+            for (String include : args) {
+                options.include(include);
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
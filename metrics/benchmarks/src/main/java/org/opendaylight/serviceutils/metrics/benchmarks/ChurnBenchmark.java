@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opendaylight.serviceutils.metrics.Labeled;
+import org.opendaylight.serviceutils.metrics.Meter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.MetricProvider;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the churn of short-lived labeled metrics, e.g. per flow or per connection: each operation creates a
+ * labeled Meter child, marks it, and closes it again.  Each thread uses its own label values, either cycling through
+ * a fixed set of them, or always new ones (as e.g. flow IDs are).
+ *
+ * <p>The heap used after a full GC at the end of each iteration is reported as <code>heapUsedKb</code> (summed over
+ * the threads, which all see the same heap).  It stays flat as long as closed children, and metrics whose children
+ * are all closed, do not leak.
+ *
+ * <p>Run with <code>java -jar metrics/benchmarks/target/benchmarks.jar ChurnBenchmark -prof gc -t 8</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChurnBenchmark {
+    private static final int LABEL_VALUES_PER_THREAD = 1024;
+
+    @Param
+    public Implementation implementation;
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private MetricProvider metricProvider;
+    private Labeled<Meter> meter;
+
+    @Setup
+    public void setUp() {
+        metricProvider = implementation.newMetricProvider();
+        meter = metricProvider.newMeter(MetricDescriptor.builder().anchor(this)
+            .project("serviceutils").module("benchmarks").id("churn").build(), "flow");
+    }
+
+    @TearDown
+    public void tearDown() {
+        implementation.close(metricProvider);
+    }
+
+    @State(Scope.Thread)
+    public static class LabelValues {
+        String[] labelValues;
+        int next;
+
+        @Setup
+        public void setUp(ChurnBenchmark benchmark) {
+            int thread = benchmark.threads.getAndIncrement();
+            labelValues = new String[LABEL_VALUES_PER_THREAD];
+            for (int i = 0; i < labelValues.length; i++) {
+                labelValues[i] = thread + "_" + i;
+            }
+        }
+
+        String next() {
+            String labelValue = labelValues[next];
+            next = (next + 1) % labelValues.length;
+            return labelValue;
+        }
+
+        String nextNew() {
+            return labelValues[next++ % labelValues.length] + "_" + next;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        public long heapUsedKb;
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            System.gc();
+            heapUsedKb = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / 1024;
+        }
+    }
+
+    @Benchmark
+    public void createMarkClose(LabelValues labelValues, Heap heap) {
+        try (Meter child = meter.label(labelValues.next())) {
+            child.mark();
+        }
+    }
+
+    @Benchmark
+    public void createMarkCloseNew(LabelValues labelValues, Heap heap) {
+        try (Meter child = meter.label(labelValues.nextNew())) {
+            child.mark();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.opendaylight.serviceutils.metrics.internal.FileReporterFormat;
+import org.opendaylight.serviceutils.metrics.internal.MetricsFileReporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of one report of the {@link MetricsFileReporter} of 50k metrics into its files, in each
+ * {@link FileReporterFormat}: 20k Counters, which all change between reports, and 20k Meters, 5k Timers and 5k
+ * Histograms, which stay idle, as most metrics do, and are thus only reported in the first report of each hour.
+ * {@link #report()} is the latency of the reporting thread, which only takes the snapshot, while
+ * {@link #reportAndWrite()} also waits for the writer thread.  The size of the files per report is logged at the end
+ * of each trial.
+ *
+ * <p>Run with <code>java -jar metrics/benchmarks/target/benchmarks.jar FileReporterBenchmark -prof gc</code>.  The
+ * files are written to a temporary directory, which is deleted afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(1)
+public class FileReporterBenchmark {
+    private static final Logger LOG = LoggerFactory.getLogger(FileReporterBenchmark.class);
+    private static final int COUNTERS = 20_000;
+    private static final int METERS = 20_000;
+    private static final int SAMPLED = 5_000;
+
+    @Param
+    public FileReporterFormat format;
+
+    private final List<Counter> counters = new ArrayList<>();
+    private final MetricRegistry registry = new MetricRegistry();
+    private MetricsFileReporter reporter;
+    private Path directory;
+    private long reports;
+
+    @Setup
+    public void setUp() throws IOException {
+        for (int i = 0; i < COUNTERS; i++) {
+            counters.add(registry.counter("odl.serviceutils.benchmarks.counter." + i));
+        }
+        for (int i = 0; i < METERS; i++) {
+            registry.meter("odl.serviceutils.benchmarks.meter." + i).mark(i);
+        }
+        for (int i = 0; i < SAMPLED; i++) {
+            registry.timer("odl.serviceutils.benchmarks.timer." + i).update(Duration.ofMillis(i));
+            registry.histogram("odl.serviceutils.benchmarks.histogram." + i).update(i);
+        }
+        directory = Files.createTempDirectory("metrics-file-reporter");
+        // Large enough for all reports of a run
+        reporter = new MetricsFileReporter(registry, Duration.ofHours(1), directory.toFile(), format,
+            1024 * 1024 * 1024);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reporter.flush();
+        long bytes;
+        try (Stream<Path> files = Files.list(directory)) {
+            // The segments are sparse, so this is what their end says; the text files are just their size
+            bytes = files.mapToLong(FileReporterBenchmark::usedBytes).sum();
+        }
+        LOG.info("{}: {} reports, {} bytes per report", format, reports, reports > 0 ? bytes / reports : 0);
+        reporter.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void updateCounters() {
+        for (Counter counter : counters) {
+            counter.inc();
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void awaitWriter() {
+        // So that no report is dropped for the writer falling behind
+        reporter.flush();
+    }
+
+    @Benchmark
+    public void report() {
+        reporter.report(registry.getGauges(), registry.getCounters(), registry.getHistograms(),
+            registry.getMeters(), registry.getTimers());
+        reports++;
+    }
+
+    @Benchmark
+    public void reportAndWrite() {
+        report();
+        reporter.flush();
+    }
+
+    private static long usedBytes(Path file) {
+        try {
+            if (file.toString().endsWith(".bin")) {
+                // The end of the last complete record, see the header of the segment format
+                try (FileChannel channel = FileChannel.open(file)) {
+                    ByteBuffer header = ByteBuffer.allocate(16);
+                    channel.read(header, 0);
+                    return header.getInt(12);
+                }
+            }
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + file, e);
+        }
+    }
+}
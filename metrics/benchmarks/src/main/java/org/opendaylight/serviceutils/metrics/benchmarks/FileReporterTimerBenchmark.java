@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.codahale.metrics.MetricRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.ReservoirType;
+import org.opendaylight.serviceutils.metrics.Timer;
+import org.opendaylight.serviceutils.metrics.internal.FileReporterFormat;
+import org.opendaylight.serviceutils.metrics.internal.FileReporterRetention;
+import org.opendaylight.serviceutils.metrics.internal.MetricProviderImpl;
+import org.opendaylight.serviceutils.metrics.internal.MetricsFileReporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of one report of the {@link MetricsFileReporter} of 10k Timers of the HDR_HISTOGRAM reservoir, which all
+ * change between reports, with none or the default 4 percentiles (0.5, 0.9, 0.99 and 0.999), i.e. the overhead of
+ * reporting the percentiles.  {@link #report()} is the latency of the reporting thread, which takes one snapshot per
+ * Timer.
+ *
+ * <p>Run with <code>java -jar metrics/benchmarks/target/benchmarks.jar FileReporterTimerBenchmark -prof gc</code>.
+ * The files are written to a temporary directory, which is deleted afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(1)
+public class FileReporterTimerBenchmark {
+    private static final int TIMERS = 10_000;
+    private static final double[] DEFAULT_PERCENTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    @Param
+    public FileReporterFormat format;
+
+    @Param({ "0", "4" })
+    public int percentiles;
+
+    private final List<Timer> timers = new ArrayList<>();
+    private MetricProviderImpl metricProvider;
+    private MetricRegistry registry;
+    private MetricsFileReporter reporter;
+    private Path directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        metricProvider = new MetricProviderImpl();
+        registry = metricProvider.getRegistry();
+        for (int i = 0; i < TIMERS; i++) {
+            timers.add(metricProvider.newTimer(MetricDescriptor.builder().anchor(this)
+                .project("serviceutils").module("benchmarks").id("timer_" + i).reservoir(ReservoirType.HDR_HISTOGRAM)
+                .build()));
+        }
+        directory = Files.createTempDirectory("metrics-file-reporter");
+        // Large enough for all reports of a run
+        reporter = new MetricsFileReporter(registry, Duration.ofHours(1), directory.toFile(), format,
+            1024 * 1024 * 1024, FileReporterRetention.DEFAULT, Arrays.copyOf(DEFAULT_PERCENTILES, percentiles));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reporter.close();
+        metricProvider.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void updateTimers() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (Timer timer : timers) {
+            // Durations between 1 µs and 1 s, so that values are spread over the histogram buckets
+            timer.record(random.nextLong(1_000, 1_000_000_000));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void awaitWriter() {
+        // So that no report is dropped for the writer falling behind
+        reporter.flush();
+    }
+
+    @Benchmark
+    public void report() {
+        reporter.report(registry.getGauges(), registry.getCounters(), registry.getHistograms(),
+            registry.getMeters(), registry.getTimers());
+    }
+}
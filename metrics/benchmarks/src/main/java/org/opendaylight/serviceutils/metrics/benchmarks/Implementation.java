@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.benchmarks;
+
+import org.opendaylight.serviceutils.metrics.MetricProvider;
+import org.opendaylight.serviceutils.metrics.internal.MetricProviderImpl;
+import org.opendaylight.serviceutils.metrics.prometheus.impl.PrometheusMetricProvider;
+import org.opendaylight.serviceutils.metrics.testimpl.TestMetricProviderImpl;
+
+/**
+ * The {@link MetricProvider} implementations which are benchmarked, for use as a JMH <code>@Param</code>.
+ */
+public enum Implementation {
+    DROPWIZARD {
+        @Override
+        MetricProvider newMetricProvider() {
+            return new MetricProviderImpl();
+        }
+
+        @Override
+        void close(MetricProvider metricProvider) {
+            ((MetricProviderImpl) metricProvider).close();
+        }
+    },
+    PROMETHEUS {
+        @Override
+        MetricProvider newMetricProvider() {
+            return new PrometheusMetricProvider();
+        }
+
+        @Override
+        void close(MetricProvider metricProvider) {
+            ((PrometheusMetricProvider) metricProvider).close();
+        }
+    },
+    TEST {
+        @Override
+        MetricProvider newMetricProvider() {
+            return new TestMetricProviderImpl();
+        }
+
+        @Override
+        void close(MetricProvider metricProvider) {
+            // Nothing to close
+        }
+    };
+
+    /**
+     * Create a new MetricProvider. Note that this does not start any reporter, so for {@link #DROPWIZARD} there is
+     * no JMX overhead.
+     */
+    abstract MetricProvider newMetricProvider();
+
+    abstract void close(MetricProvider metricProvider);
+}
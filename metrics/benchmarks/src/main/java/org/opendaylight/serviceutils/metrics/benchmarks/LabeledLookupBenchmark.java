@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.errorprone.annotations.Var;
+import java.util.Arrays;
+import java.util.Collection;
+import org.opendaylight.serviceutils.metrics.Labeled;
+import org.opendaylight.serviceutils.metrics.Meter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.MetricProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of resolving an already existing labeled Meter with 1, 3 or 5 labels, as in
+ * <code>meter.port(p).mac(m).mark()</code> of the MetricsAdvancedExample.
+ *
+ * <p>Run with <code>java -jar metrics/benchmarks/target/benchmarks.jar LabeledLookupBenchmark -prof gc</code>;
+ * the <code>gc.alloc.rate.norm</code> of {@link #lookupHit()} is expected to be 0 B/op for {@code DROPWIZARD} and
+ * {@code PROMETHEUS}.  Running this class' {@link #main(String[])} does the same, and fails if that is not the case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LabeledLookupBenchmark {
+    private static final String[] LABEL_VALUES = { "456", "1A:0B:F2:25:1C:68", "table0", "flow42", "in" };
+
+    @Param
+    public Implementation implementation;
+
+    @Param({ "1", "3", "5" })
+    public int labels;
+
+    private MetricProvider metricProvider;
+    private Object meter;
+    private String[] labelValues;
+
+    @Setup
+    public void setUp() {
+        metricProvider = implementation.newMetricProvider();
+        MetricDescriptor descriptor = MetricDescriptor.builder().anchor(this)
+            .project("serviceutils").module("benchmarks").id("labeled_lookup").build();
+        meter = switch (labels) {
+            case 1 -> metricProvider.newMeter(descriptor, "port");
+            case 3 -> metricProvider.newMeter(descriptor, "port", "mac", "table");
+            case 5 -> metricProvider.newMeter(descriptor, "port", "mac", "table", "flow", "direction");
+            default -> throw new IllegalArgumentException("Unsupported number of labels: " + labels);
+        };
+        labelValues = Arrays.copyOf(LABEL_VALUES, labels);
+        lookupHit().mark();
+    }
+
+    @TearDown
+    public void tearDown() {
+        implementation.close(metricProvider);
+    }
+
+    @Benchmark
+    public Meter lookupHit() {
+        @Var Object current = meter;
+        for (String labelValue : labelValues) {
+            current = ((Labeled<?>) current).label(labelValue);
+        }
+        return (Meter) current;
+    }
+
+    @Benchmark
+    public void lookupHitAndMark() {
+        lookupHit().mark();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+            .include(LabeledLookupBenchmark.class.getSimpleName() + ".lookupHit$")
+            .param("implementation", Implementation.DROPWIZARD.name(), Implementation.PROMETHEUS.name())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+        for (RunResult result : results) {
+            Result<?> allocated = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            if (allocated == null || allocated.getScore() >= 1.0) {
+                throw new IllegalStateException("Labeled lookup hit path allocates: " + allocated);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import org.opendaylight.serviceutils.metrics.Meter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.MetricProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link Meter#mark()}, with all threads marking the same Meter, plain or
+ * {@link MetricDescriptor#batched()}.
+ *
+ * <p>Run with <code>java -jar metrics/benchmarks/target/benchmarks.jar MeterBenchmark -prof gc -t 8</code>, or see
+ * {@link BenchmarkMain}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeterBenchmark {
+    @Param
+    public Implementation implementation;
+
+    @Param({ "false", "true" })
+    public boolean batched;
+
+    private MetricProvider metricProvider;
+    private Meter meter;
+
+    @Setup
+    public void setUp() {
+        metricProvider = implementation.newMetricProvider();
+        meter = metricProvider.newMeter(MetricDescriptor.builder().anchor(this)
+            .project("serviceutils").module("benchmarks").id("meter").batched(batched).build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        implementation.close(metricProvider);
+    }
+
+    @Benchmark
+    public void mark() {
+        meter.mark();
+    }
+
+    @Benchmark
+    public void markMany() {
+        meter.mark(3);
+    }
+}
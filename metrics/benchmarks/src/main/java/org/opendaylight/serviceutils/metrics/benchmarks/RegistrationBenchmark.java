@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.MetricProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of bundle start-up which registers many uniquely named metrics in a loop, which used to be quadratic
+ * because of the duplicate ID check.  With several threads, each registers its own metrics concurrently.
+ *
+ * <p>Run with <code>java -jar metrics/benchmarks/target/benchmarks.jar RegistrationBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RegistrationBenchmark {
+    @Param
+    public Implementation implementation;
+
+    @Param("100000")
+    public int metrics;
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private MetricProvider metricProvider;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        metricProvider = implementation.newMetricProvider();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        implementation.close(metricProvider);
+    }
+
+    @State(Scope.Thread)
+    public static class Descriptors {
+        MetricDescriptor[] descriptors;
+
+        @Setup(Level.Trial)
+        public void setUp(RegistrationBenchmark benchmark) {
+            int thread = benchmark.threads.getAndIncrement();
+            descriptors = new MetricDescriptor[benchmark.metrics];
+            for (int i = 0; i < descriptors.length; i++) {
+                descriptors[i] = MetricDescriptor.builder().anchor(benchmark).project("serviceutils")
+                    .module("benchmarks").id("meter_" + thread + "_" + i).build();
+            }
+        }
+    }
+
+    @Benchmark
+    public MetricProvider registerMeters(Descriptors descriptors) {
+        for (MetricDescriptor descriptor : descriptors.descriptors) {
+            metricProvider.newMeter(descriptor);
+        }
+        return metricProvider;
+    }
+}
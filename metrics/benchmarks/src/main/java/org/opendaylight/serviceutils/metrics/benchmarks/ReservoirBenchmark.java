@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.ReservoirType;
+import org.opendaylight.serviceutils.metrics.Timer;
+import org.opendaylight.serviceutils.metrics.internal.MetricProviderImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the cost of {@link Timer#record(long)} with each {@link ReservoirType}, with 32 threads updating the
+ * same Timer.
+ *
+ * <p>Run with <code>java -jar metrics/benchmarks/target/benchmarks.jar ReservoirBenchmark -prof gc</code>.  Use
+ * <code>-t 1</code> to compare with the uncontended cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+public class ReservoirBenchmark {
+    @Param
+    public ReservoirType reservoir;
+
+    private MetricProviderImpl metricProvider;
+    private Timer timer;
+
+    @Setup
+    public void setUp() {
+        metricProvider = new MetricProviderImpl();
+        timer = metricProvider.newTimer(MetricDescriptor.builder().anchor(this)
+            .project("serviceutils").module("benchmarks").id("reservoir").reservoir(reservoir).build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        metricProvider.close();
+    }
+
+    @Benchmark
+    public void record() {
+        // Durations between 1 µs and 1 s, so that values are spread over the histogram buckets
+        timer.record(ThreadLocalRandom.current().nextLong(1_000, 1_000_000_000));
+    }
+}
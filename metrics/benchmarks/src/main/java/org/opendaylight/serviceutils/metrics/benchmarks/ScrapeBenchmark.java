@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import io.prometheus.client.exporter.common.TextFormat;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.Set;
+import org.opendaylight.serviceutils.metrics.Counter;
+import org.opendaylight.serviceutils.metrics.Labeled;
+import org.opendaylight.serviceutils.metrics.Meter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.MetricProvider;
+import org.opendaylight.serviceutils.metrics.internal.MetricProviderImpl;
+import org.opendaylight.serviceutils.metrics.internal.MetricsFileReporter;
+import org.opendaylight.serviceutils.metrics.prometheus.impl.PrometheusMetricProvider;
+import org.opendaylight.serviceutils.metrics.prometheus.impl.ScrapeWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of exporting many series: the {@link MetricsFileReporter} of {@code DROPWIZARD}, and the text format
+ * scrape of {@code PROMETHEUS} by its {@link ScrapeWriter}, both writing to a null Writer.  The series are the children
+ * of a Meter or a Counter with 2 labels.
+ *
+ * <p>Run with <code>java -jar metrics/benchmarks/target/benchmarks.jar ScrapeBenchmark -prof gc</code>.  Note that 1M
+ * series with many concurrent scrapers need a large heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ScrapeBenchmark {
+    private static final int PORTS = 1000;
+
+    @Param({ "DROPWIZARD", "PROMETHEUS" })
+    public Implementation implementation;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int series;
+
+    @Param({ "METER", "COUNTER" })
+    public String metric;
+
+    private MetricProvider metricProvider;
+
+    @Setup
+    public void setUp() {
+        metricProvider = implementation.newMetricProvider();
+        MetricDescriptor descriptor = MetricDescriptor.builder().anchor(this)
+            .project("serviceutils").module("benchmarks").id("scrape").maxCardinality(series).build();
+        if ("METER".equals(metric)) {
+            Labeled<Labeled<Meter>> meter = metricProvider.newMeter(descriptor, "port", "flow");
+            for (int i = 0; i < series; i++) {
+                meter.label(Integer.toString(i % PORTS)).label(Integer.toString(i / PORTS)).mark(i);
+            }
+        } else {
+            Labeled<Labeled<Counter>> counter = metricProvider.newCounter(descriptor, "port", "flow");
+            for (int i = 0; i < series; i++) {
+                counter.label(Integer.toString(i % PORTS)).label(Integer.toString(i / PORTS)).increment(i);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        implementation.close(metricProvider);
+    }
+
+    /**
+     * The MetricsFileReporter keeps state about the previous report, so each thread needs its own.  It is never
+     * started, and not closed either, because closing would write a final report into data/metrics.
+     */
+    @State(Scope.Thread)
+    public static class Reporter {
+        MetricsFileReporter reporter;
+
+        @Setup
+        public void setUp(ScrapeBenchmark benchmark) {
+            if (benchmark.metricProvider instanceof MetricProviderImpl dropwizard) {
+                reporter = new MetricsFileReporter(dropwizard.getRegistry(), Duration.ofHours(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public void scrape(Reporter reporter) throws IOException {
+        switch (implementation) {
+            case DROPWIZARD -> reporter.reporter.report(new PrintWriter(Writer.nullWriter()));
+            case PROMETHEUS -> new ScrapeWriter(Writer.nullWriter(), TextFormat.CONTENT_TYPE_004, Set.of())
+                .write(((PrometheusMetricProvider) metricProvider).registry());
+            default -> throw new IllegalStateException("No exporter for " + implementation);
+        }
+    }
+}
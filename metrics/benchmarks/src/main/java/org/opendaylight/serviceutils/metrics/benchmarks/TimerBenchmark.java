@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.MetricProvider;
+import org.opendaylight.serviceutils.metrics.ReservoirType;
+import org.opendaylight.serviceutils.metrics.Timer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the different ways of recording a duration with a {@link Timer}.
+ *
+ * <p>Run with <code>java -jar metrics/benchmarks/target/benchmarks.jar TimerBenchmark -prof gc</code>.  The Timer API
+ * itself does not allocate, and neither does the HDR_HISTOGRAM reservoir it uses; see {@link ReservoirBenchmark} for
+ * the other reservoirs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerBenchmark {
+    @Param
+    public Implementation implementation;
+
+    private MetricProvider metricProvider;
+    private Timer timer;
+
+    @Setup
+    public void setUp() {
+        metricProvider = implementation.newMetricProvider();
+        timer = metricProvider.newTimer(MetricDescriptor.builder().anchor(this)
+            .project("serviceutils").module("benchmarks").id("timer").reservoir(ReservoirType.HDR_HISTOGRAM)
+            .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        implementation.close(metricProvider);
+    }
+
+    @Benchmark
+    public long startStop() {
+        return timer.stop(timer.start());
+    }
+
+    @Benchmark
+    public void record() {
+        timer.record(1000);
+    }
+
+    @Benchmark
+    public void timeRunnable() {
+        timer.time(TimerBenchmark::event);
+    }
+
+    private static void event() {
+        // an empty event, only the Timer overhead is measured
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.otlp.impl;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.opendaylight.serviceutils.metrics.Counter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricChild;
+
+/**
+ * Package private OTel instrument of {@link Counter}s, which can be decremented, so they are exported as a
+ * non-monotonic integer Sum, i.e. an OTel UpDownCounter.
+ *
+ * <p>These are always exported with cumulative temporality, as the OTel SDKs do for UpDownCounters even when they
+ * prefer delta temporality otherwise: the current value is what matters for them, and backends could not restore it
+ * from deltas which were lost on the way.
+ */
+final class CounterInstrument extends OtlpInstrument<CounterInstrument.CounterChild> {
+    // NumberDataPoint
+    private static final int AS_INT = 6;
+
+    CounterInstrument(MetricDescriptor descriptor, List<String> labelNames, int maxCardinality, Runnable onOverflow) {
+        super(descriptor, labelNames, maxCardinality, onOverflow);
+    }
+
+    Counter unlabeled() {
+        return child(LabelValues.EMPTY, CounterChild::new);
+    }
+
+    Object labeled() {
+        return labeled(CounterChild::new);
+    }
+
+    @Override
+    RequestEncoder.Kind kind() {
+        return RequestEncoder.Kind.SUM;
+    }
+
+    @Override
+    int temporality(boolean delta) {
+        return RequestEncoder.TEMPORALITY_CUMULATIVE;
+    }
+
+    @Override
+    void exportChild(RequestEncoder encoder, LabelValues labelValues, CounterChild child, long nowNanos,
+            boolean delta) {
+        encoder.beginDataPoint(labelNames, labelValues, child.createdNanos, nowNanos).writeFixed64(AS_INT,
+            child.get());
+        encoder.endDataPoint(null);
+    }
+
+    final class CounterChild extends MetricChild implements Counter {
+        private final LongAdder value = new LongAdder();
+        private final long createdNanos = epochNanos();
+
+        CounterChild(LabelValues labelValues) {
+            super(labelValues);
+        }
+
+        @Override
+        public void increment(long howMany) {
+            touch();
+            value.add(howMany);
+        }
+
+        @Override
+        public void decrement(long howMany) {
+            touch();
+            value.add(-howMany);
+        }
+
+        @Override
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        protected void removeRegistration() {
+            removeChild(labelValues(), this);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.otlp.impl;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+import org.opendaylight.serviceutils.metrics.Gauge;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricChild;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Package private OTel instrument of pull based {@link Gauge}s, i.e. an OTel asynchronous Gauge, which reads their
+ * suppliers on each export.  Gauges whose supplier fails are skipped.
+ */
+final class GaugeInstrument extends OtlpInstrument<GaugeInstrument.GaugeChild> {
+    private static final Logger LOG = LoggerFactory.getLogger(GaugeInstrument.class);
+    // NumberDataPoint
+    private static final int AS_INT = 6;
+
+    GaugeInstrument(MetricDescriptor descriptor, List<String> labelNames, int maxCardinality, Runnable onOverflow) {
+        super(descriptor, labelNames, maxCardinality, onOverflow);
+    }
+
+    Gauge child(LabelValues labelValues, LongSupplier supplier) {
+        return child(labelValues, newLabelValues -> new GaugeChild(newLabelValues, supplier));
+    }
+
+    @Override
+    RequestEncoder.Kind kind() {
+        return RequestEncoder.Kind.GAUGE;
+    }
+
+    @Override
+    int temporality(boolean delta) {
+        return RequestEncoder.TEMPORALITY_NONE;
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    void exportChild(RequestEncoder encoder, LabelValues labelValues, GaugeChild child, long nowNanos,
+            boolean delta) {
+        long value;
+        try {
+            value = child.get();
+        } catch (RuntimeException e) {
+            LOG.debug("Failed to read gauge {} {}", name, labelValues, e);
+            return;
+        }
+        encoder.beginDataPoint(labelNames, labelValues, 0, nowNanos).writeFixed64(AS_INT, value);
+        encoder.endDataPoint(null);
+    }
+
+    final class GaugeChild extends MetricChild implements Gauge {
+        private final LongSupplier supplier;
+
+        GaugeChild(LabelValues labelValues, LongSupplier supplier) {
+            super(labelValues);
+            this.supplier = supplier;
+        }
+
+        @Override
+        public long get() {
+            return supplier.getAsLong();
+        }
+
+        @Override
+        protected void removeRegistration() {
+            removeChild(labelValues(), this);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.otlp.impl;
+
+import com.google.errorprone.annotations.Var;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.opendaylight.serviceutils.metrics.Histogram;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.Timer;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricChild;
+
+/**
+ * Package private OTel instrument of {@link Timer}s and {@link Histogram}s, exported as explicit bucket Histograms;
+ * the durations of Timers in seconds.
+ *
+ * <p>Each child counts the recorded values per bucket in {@link LongAdder}s, and sums them up exactly in another one.
+ * The count of a data point is the sum of its bucket counts, so that the two always match.  With delta temporality,
+ * each child remembers its bucket counts and sum of its last successful export, and exports the differences to
+ * those; children which recorded nothing since are not exported at all.
+ */
+final class HistogramInstrument extends OtlpInstrument<HistogramInstrument.HistogramChild> {
+    /**
+     * The default buckets of Histograms, the same as those of the OTel SDKs' explicit bucket histogram aggregation.
+     */
+    static final List<Long> DEFAULT_BUCKETS =
+        List.of(0L, 5L, 10L, 25L, 50L, 75L, 100L, 250L, 500L, 750L, 1000L, 2500L, 5000L, 7500L, 10000L);
+
+    private static final double NANOS_TO_SECONDS = 1.0 / Duration.ofSeconds(1).toNanos();
+    // HistogramDataPoint
+    private static final int COUNT = 4;
+    private static final int SUM = 5;
+    private static final int BUCKET_COUNTS = 6;
+    private static final int EXPLICIT_BOUNDS = 7;
+
+    // Inclusive upper bounds of the buckets (without the last, unbounded one), in recorded units
+    private final long[] upperBounds;
+    // The same, in exported units
+    private final double[] explicitBounds;
+    private final double scale;
+    private final String unit;
+
+    private HistogramInstrument(MetricDescriptor descriptor, List<String> labelNames, int maxCardinality,
+            Runnable onOverflow, long[] upperBounds, double scale, String unit) {
+        super(descriptor, labelNames, maxCardinality, onOverflow);
+        this.upperBounds = upperBounds;
+        explicitBounds = Arrays.stream(upperBounds).mapToDouble(bound -> bound * scale).toArray();
+        this.scale = scale;
+        this.unit = unit;
+    }
+
+    /**
+     * Return a new instrument of Timers.
+     *
+     * @param buckets strictly increasing upper bounds of the buckets; if empty, only the count and sum are exported
+     */
+    static HistogramInstrument ofTimers(MetricDescriptor descriptor, List<String> labelNames, int maxCardinality,
+            Runnable onOverflow, List<Duration> buckets) {
+        return new HistogramInstrument(descriptor, labelNames, maxCardinality, onOverflow,
+            buckets.stream().mapToLong(Duration::toNanos).toArray(), NANOS_TO_SECONDS, "s");
+    }
+
+    /**
+     * Return a new instrument of Histograms, with the {@link #DEFAULT_BUCKETS}.
+     */
+    static HistogramInstrument ofHistograms(MetricDescriptor descriptor, List<String> labelNames,
+            int maxCardinality, Runnable onOverflow) {
+        return new HistogramInstrument(descriptor, labelNames, maxCardinality, onOverflow,
+            DEFAULT_BUCKETS.stream().mapToLong(Long::longValue).toArray(), 1, "");
+    }
+
+    HistogramChild unlabeled() {
+        return child(LabelValues.EMPTY, HistogramChild::new);
+    }
+
+    Object labeled() {
+        return labeled(HistogramChild::new);
+    }
+
+    @Override
+    String unit() {
+        return unit;
+    }
+
+    @Override
+    RequestEncoder.Kind kind() {
+        return RequestEncoder.Kind.HISTOGRAM;
+    }
+
+    @Override
+    int temporality(boolean delta) {
+        return delta ? RequestEncoder.TEMPORALITY_DELTA : RequestEncoder.TEMPORALITY_CUMULATIVE;
+    }
+
+    @Override
+    boolean hasDelta(HistogramChild child) {
+        return child.count() != Arrays.stream(child.exportedBuckets).sum();
+    }
+
+    @Override
+    void exportChild(RequestEncoder encoder, LabelValues labelValues, HistogramChild child, long nowNanos,
+            boolean delta) {
+        long[] totals = new long[child.buckets.length];
+        long[] counts = new long[totals.length];
+        @Var long count = 0;
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = child.buckets[i].sum();
+            counts[i] = delta ? totals[i] - child.exportedBuckets[i] : totals[i];
+            count += counts[i];
+        }
+        long sumTotal = child.sum.sum();
+        if (delta && count == 0) {
+            return;
+        }
+
+        ProtoWriter writer = encoder.beginDataPoint(labelNames, labelValues,
+            delta ? child.exportedNanos : child.createdNanos, nowNanos);
+        writer.writeFixed64(COUNT, count);
+        writer.writeDouble(SUM, (delta ? sumTotal - child.exportedSum : sumTotal) * scale);
+        writer.writePackedFixed64(BUCKET_COUNTS, counts);
+        writer.writePackedDouble(EXPLICIT_BOUNDS, explicitBounds);
+        encoder.endDataPoint(delta ? () -> {
+            System.arraycopy(totals, 0, child.exportedBuckets, 0, totals.length);
+            child.exportedSum = sumTotal;
+            child.exportedNanos = nowNanos;
+        } : null);
+    }
+
+    final class HistogramChild extends MetricChild implements Timer, Histogram {
+        private final LongAdder[] buckets = new LongAdder[upperBounds.length + 1];
+        private final LongAdder sum = new LongAdder();
+        private final long createdNanos = epochNanos();
+        // Only accessed by the exporting thread
+        private final long[] exportedBuckets = new long[buckets.length];
+        private long exportedSum;
+        private long exportedNanos = createdNanos;
+
+        HistogramChild(LabelValues labelValues) {
+            super(labelValues);
+            Arrays.setAll(buckets, i -> new LongAdder());
+        }
+
+        @Override
+        public void record(long nanos) {
+            update(nanos);
+        }
+
+        @Override
+        public void update(long value) {
+            if (value < 0) {
+                return;
+            }
+            touch();
+            int index = Arrays.binarySearch(upperBounds, value);
+            buckets[index >= 0 ? index : -index - 1].increment();
+            sum.add(value);
+        }
+
+        @Override
+        public long count() {
+            @Var long count = 0;
+            for (LongAdder bucket : buckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        @Override
+        protected void removeRegistration() {
+            removeChild(labelValues(), this);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.otlp.impl;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.opendaylight.serviceutils.metrics.Meter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricChild;
+
+/**
+ * Package private OTel instrument of {@link Meter}s, exported as a monotonic integer Sum, i.e. an OTel Counter.
+ *
+ * <p>The value of each child is a {@link LongAdder}.  With delta temporality, each child remembers the value of its
+ * last successful export, and exports the difference to that, starting at the time of that export; children which
+ * were not marked since are not exported at all.
+ */
+final class MeterInstrument extends OtlpInstrument<MeterInstrument.MeterChild> {
+    // NumberDataPoint
+    private static final int AS_INT = 6;
+
+    MeterInstrument(MetricDescriptor descriptor, List<String> labelNames, int maxCardinality, Runnable onOverflow) {
+        super(descriptor, labelNames, maxCardinality, onOverflow);
+    }
+
+    Meter unlabeled() {
+        return child(LabelValues.EMPTY, MeterChild::new);
+    }
+
+    Object labeled() {
+        return labeled(MeterChild::new);
+    }
+
+    @Override
+    RequestEncoder.Kind kind() {
+        return RequestEncoder.Kind.SUM;
+    }
+
+    @Override
+    int temporality(boolean delta) {
+        return delta ? RequestEncoder.TEMPORALITY_DELTA : RequestEncoder.TEMPORALITY_CUMULATIVE;
+    }
+
+    @Override
+    boolean isMonotonic() {
+        return true;
+    }
+
+    @Override
+    boolean hasDelta(MeterChild child) {
+        return child.get() != child.exportedTotal;
+    }
+
+    @Override
+    void exportChild(RequestEncoder encoder, LabelValues labelValues, MeterChild child, long nowNanos,
+            boolean delta) {
+        long total = child.get();
+        if (!delta) {
+            encoder.beginDataPoint(labelNames, labelValues, child.createdNanos, nowNanos).writeFixed64(AS_INT, total);
+            encoder.endDataPoint(null);
+        } else if (total != child.exportedTotal) {
+            encoder.beginDataPoint(labelNames, labelValues, child.exportedNanos, nowNanos)
+                .writeFixed64(AS_INT, total - child.exportedTotal);
+            encoder.endDataPoint(() -> {
+                child.exportedTotal = total;
+                child.exportedNanos = nowNanos;
+            });
+        }
+    }
+
+    final class MeterChild extends MetricChild implements Meter {
+        private final LongAdder value = new LongAdder();
+        private final long createdNanos = epochNanos();
+        // Only accessed by the exporting thread
+        private long exportedTotal;
+        private long exportedNanos = createdNanos;
+
+        MeterChild(LabelValues labelValues) {
+            super(labelValues);
+        }
+
+        @Override
+        public void mark(long howMany) {
+            // Exported as a monotonic sum, which must never decrease
+            if (howMany >= 0) {
+                touch();
+                value.add(howMany);
+            }
+        }
+
+        @Override
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        protected void removeRegistration() {
+            removeChild(labelValues(), this);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.otlp.impl;
+
+import com.google.errorprone.annotations.Var;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Package private sender of OTLP/HTTP requests in the binary protobuf encoding, see the OTLP specification.
+ *
+ * <p>Requests are retried with an exponential backoff on the responses which the specification declares retryable
+ * (429, 502, 503 and 504), and on I/O errors, up to a maximum number of attempts; other responses are not.
+ */
+final class OtlpHttpSender implements RequestEncoder.Sender {
+    private static final Logger LOG = LoggerFactory.getLogger(OtlpHttpSender.class);
+    private static final String CONTENT_TYPE = "application/x-protobuf";
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private final URI endpoint;
+    private final boolean gzip;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final int timeoutMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param endpoint the URL of the metrics of the collector, usually ending with <code>/v1/metrics</code>
+     * @param gzip whether requests are gzipped
+     * @param maxAttempts maximum number of attempts of each request
+     * @param retryBackoff time before the first retry of a failed request; it doubles with each further retry
+     * @param timeout connect and read timeout of each attempt
+     */
+    OtlpHttpSender(URI endpoint, boolean gzip, int maxAttempts, Duration retryBackoff, Duration timeout) {
+        this.endpoint = endpoint;
+        this.gzip = gzip;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        timeoutMillis = (int) timeout.toMillis();
+    }
+
+    URI endpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public boolean send(byte[] request) {
+        byte[] body;
+        try {
+            body = gzip ? gzip(request) : request;
+        } catch (IOException e) {
+            LOG.error("Failed to compress the metrics to export", e);
+            return false;
+        }
+
+        @Var long backoffNanos = retryBackoff.toNanos();
+        for (int attempt = 1; ; attempt++) {
+            @Var String failure;
+            try {
+                int status = post(body);
+                if (status / 100 == 2) {
+                    return true;
+                }
+                failure = "HTTP status " + status;
+                if (!isRetryable(status)) {
+                    LOG.warn("Export of metrics to {} rejected with {}", endpoint, failure);
+                    return false;
+                }
+            } catch (IOException e) {
+                failure = e.toString();
+            }
+
+            if (attempt >= maxAttempts) {
+                LOG.warn("Export of metrics to {} failed after {} attempt(s), last with {}", endpoint, attempt,
+                    failure);
+                return false;
+            }
+            LOG.debug("Export of metrics to {} failed with {}, retrying in {} ns", endpoint, failure, backoffNanos);
+            try {
+                TimeUnit.NANOSECONDS.sleep(backoffNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            backoffNanos *= 2;
+        }
+    }
+
+    private int post(byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) endpoint.toURL().openConnection();
+        connection.setRequestMethod("POST");
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", CONTENT_TYPE);
+        if (gzip) {
+            connection.setRequestProperty("Content-Encoding", "gzip");
+        }
+        connection.setFixedLengthStreamingMode((long) body.length);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+
+        int status = connection.getResponseCode();
+        // Read the response fully, so that the connection can be kept alive for the next request
+        try (InputStream in = status < HttpURLConnection.HTTP_BAD_REQUEST ? connection.getInputStream()
+                : connection.getErrorStream()) {
+            if (in != null) {
+                in.readAllBytes();
+            }
+        }
+        return status;
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == HTTP_TOO_MANY_REQUESTS || status == HttpURLConnection.HTTP_BAD_GATEWAY
+            || status == HttpURLConnection.HTTP_UNAVAILABLE || status == HttpURLConnection.HTTP_GATEWAY_TIMEOUT;
+    }
+
+    private static byte[] gzip(byte[] request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(request.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(request);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.otlp.impl;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.spi.ChildCache;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricChild;
+
+/**
+ * Package private base class of the OTel instruments of one metric.  Holds the children per label values of the
+ * metric, in a {@link ChildCache}; the label names and values of each child are the attributes of its data points.
+ *
+ * <p>The name of the instrument is <code>opendaylight.&lt;project&gt;.&lt;module&gt;.&lt;id&gt;</code>, which a
+ * collector exporting to Prometheus turns into the same name as the Prometheus based implementation uses.
+ *
+ * <p>Closed children are removed from the {@link ChildCache} right away, so that their label values get a new child,
+ * but are kept until the next export.  With delta temporality, that export still includes what they recorded since
+ * the last successful one, until that was exported as well.
+ *
+ * @param <C> type of the children
+ */
+abstract class OtlpInstrument<C extends MetricChild> {
+    // The instrument name syntax of the OpenTelemetry specification
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z][a-zA-Z0-9_.\\-/]{0,254}");
+
+    final String name;
+    final String description;
+    final List<String> labelNames;
+
+    private final ChildCache<C> children;
+    // Closed children, which are exported until their last delta was
+    private final Set<C> closedChildren = ConcurrentHashMap.newKeySet();
+
+    OtlpInstrument(MetricDescriptor descriptor, List<String> labelNames, int maxCardinality, Runnable onOverflow) {
+        name = "opendaylight." + descriptor.project() + "." + descriptor.module() + "." + descriptor.id();
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        description = descriptor.description();
+        this.labelNames = List.copyOf(labelNames);
+        children = new ChildCache<>(labelNames.size(), maxCardinality, onOverflow);
+    }
+
+    final C child(LabelValues labelValues, Function<LabelValues, C> factory) {
+        return children.child(labelValues, factory);
+    }
+
+    final Object labeled(Function<LabelValues, C> factory) {
+        return children.labeled(factory);
+    }
+
+    final void removeChild(LabelValues labelValues, C child) {
+        if (children.remove(labelValues, child)) {
+            closedChildren.add(child);
+        }
+    }
+
+    /**
+     * Encode the data points of all children.  This must only be invoked by a single thread at a time.
+     *
+     * @param encoder the encoder of the current export
+     * @param nowNanos the time of the export, in nanoseconds since the epoch
+     * @param delta whether monotonic sums and histograms are exported with delta temporality
+     */
+    final void export(RequestEncoder encoder, long nowNanos, boolean delta) {
+        encoder.metric(name, description, unit(), kind(), temporality(delta), isMonotonic());
+        children.forEach((labelValues, child) -> exportChild(encoder, labelValues, child, nowNanos, delta));
+        closedChildren.forEach(child -> {
+            if (delta && hasDelta(child)) {
+                exportChild(encoder, child.labelValues(), child, nowNanos, true);
+            } else {
+                closedChildren.remove(child);
+            }
+        });
+    }
+
+    String unit() {
+        return "";
+    }
+
+    abstract RequestEncoder.Kind kind();
+
+    abstract int temporality(boolean delta);
+
+    boolean isMonotonic() {
+        return false;
+    }
+
+    abstract void exportChild(RequestEncoder encoder, LabelValues labelValues, C child, long nowNanos,
+        boolean delta);
+
+    /**
+     * Check whether a child recorded anything since its last successful export with delta temporality.  This must
+     * only be invoked by the exporting thread.
+     *
+     * @param child the child
+     * @return true if the next delta export of the child would export a data point
+     */
+    boolean hasDelta(C child) {
+        return false;
+    }
+
+    /**
+     * Return the current time, in nanoseconds since the epoch, as OTLP expects it.
+     */
+    static long epochNanos() {
+        Instant now = Instant.now();
+        return TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+    }
+}
@@ -0,0 +1,586 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.otlp.impl;
+
+import static org.opendaylight.infrautils.utils.concurrent.Executors.shutdownAndAwaitTermination;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.errorprone.annotations.Var;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongBiFunction;
+import java.util.function.ToLongFunction;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.serviceutils.metrics.Counter;
+import org.opendaylight.serviceutils.metrics.Gauge;
+import org.opendaylight.serviceutils.metrics.Histogram;
+import org.opendaylight.serviceutils.metrics.Labeled;
+import org.opendaylight.serviceutils.metrics.Meter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.MetricProvider;
+import org.opendaylight.serviceutils.metrics.Timer;
+import org.opendaylight.serviceutils.metrics.spi.ChildCache;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricFamilies;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of {@link MetricProvider} which exports the metrics to an
+ * <a href="https://opentelemetry.io/docs/specs/otlp/">OTLP</a> collector, over HTTP in the binary protobuf encoding.
+ *
+ * <p>Meters are OTel Counters (monotonic Sums), Counters are UpDownCounters (non-monotonic Sums), Timers and
+ * Histograms are explicit bucket Histograms, and Gauges are asynchronous Gauges; the labels of the metrics are the
+ * attributes of their data points.  Meters, Timers and Histograms are exported with delta temporality by default,
+ * so that the collector does not need to keep state per series to convert them; their series which did not change
+ * since the last export are not exported at all.
+ *
+ * <p>All metrics are exported periodically, by one thread of its own, in requests of at most a maximum number of
+ * data points each.  Requests are encoded directly from the children of the metrics, without building any
+ * intermediate objects per data point; updates of the metrics never wait for an export.  Deltas only move on once
+ * their request was accepted, so that what a failed export missed is included in the next one; this also holds for
+ * the last delta of metrics which were closed since.  The metrics are exported once more when this is deactivated,
+ * which waits for that export to complete.
+ *
+ * <p>In OSGi this reads the <code>otlp*</code>, <code>maxLabelCardinality</code> and <code>timerBuckets</code>
+ * properties of the same <code>org.opendaylight.serviceutils.metrics</code> configuration as the other
+ * implementations.  Changes of these are applied by restarting the exports only, without re-creating this and thus
+ * any of its metrics; new Timer buckets and a new maximum cardinality only apply to metrics created afterwards.  Other
+ * changes of that configuration do not affect this at all.
+ */
+@Singleton
+@Component(immediate = true, service = MetricProvider.class,
+    configurationPid = "org.opendaylight.serviceutils.metrics")
+public final class OtlpMetricProvider implements MetricProvider, AutoCloseable {
+    /**
+     * The configuration properties used by this implementation.
+     */
+    public @interface Configuration {
+        /**
+         * URL of the metrics of the OTLP/HTTP collector.
+         */
+        String otlpEndpoint() default DEFAULT_ENDPOINT;
+
+        /**
+         * Time (in seconds) between two exports.
+         */
+        int otlpExportIntervalSecs() default 60;
+
+        /**
+         * Aggregation temporality of Meters, Timers and Histograms, either <code>delta</code> or
+         * <code>cumulative</code>.
+         */
+        String otlpTemporality() default "delta";
+
+        /**
+         * Maximum number of data points per export request.
+         */
+        int otlpMaxBatchSize() default DEFAULT_MAX_BATCH_SIZE;
+
+        /**
+         * Whether export requests are gzipped.
+         */
+        boolean otlpGzip() default true;
+
+        /**
+         * Value of the <code>service.name</code> resource attribute of all metrics.
+         */
+        String otlpServiceName() default DEFAULT_SERVICE_NAME;
+
+        /**
+         * Maximum number of children of each labeled metric, unless its descriptor sets one; 0 means no limit.
+         */
+        int maxLabelCardinality() default MetricFamilies.DEFAULT_MAX_CARDINALITY;
+
+        /**
+         * Comma separated upper bounds (in seconds) of the histogram buckets of Timers; if empty, Timers only export
+         * their count and sum.
+         */
+        String timerBuckets() default DEFAULT_TIMER_BUCKETS;
+    }
+
+    /**
+     * The aggregation temporality of Meters, Timers and Histograms.  Counters are always cumulative, and Gauges have
+     * none.
+     */
+    public enum Temporality {
+        DELTA,
+        CUMULATIVE
+    }
+
+    /**
+     * The default URL of the metrics of the collector, the same as that of the OTel SDKs.
+     */
+    public static final String DEFAULT_ENDPOINT = "http://localhost:4318/v1/metrics";
+
+    /**
+     * The default buckets of Timers, the same as those of the Prometheus based implementation.
+     */
+    public static final String DEFAULT_TIMER_BUCKETS = "0.005,0.01,0.025,0.05,0.075,0.1,0.25,0.5,0.75,1,2.5,5,7.5,10";
+
+    /**
+     * The default maximum number of data points per export request.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    /**
+     * The default value of the <code>service.name</code> resource attribute.
+     */
+    public static final String DEFAULT_SERVICE_NAME = "opendaylight";
+
+    private static final Logger LOG = LoggerFactory.getLogger(OtlpMetricProvider.class);
+
+    /**
+     * Label value of the child which all new label values go into, once a metric reached its maximum cardinality.
+     */
+    static final String OVERFLOW = ChildCache.OVERFLOW;
+    private static final String SCOPE_NAME = "org.opendaylight.serviceutils.metrics";
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The properties of the configuration used by this implementation, as applied.
+     */
+    private record Settings(URI endpoint, Duration exportInterval, Temporality temporality, int maxBatchSize,
+        boolean gzip, String serviceName, List<Duration> timerBuckets, int maxLabelCardinality) {
+        Settings(Configuration configuration) {
+            this(URI.create(configuration.otlpEndpoint()),
+                Duration.ofSeconds(Math.max(1, configuration.otlpExportIntervalSecs())),
+                Temporality.valueOf(configuration.otlpTemporality().trim().toUpperCase(Locale.ROOT)),
+                configuration.otlpMaxBatchSize(), configuration.otlpGzip(), configuration.otlpServiceName(),
+                parseBuckets(configuration.timerBuckets()), configuration.maxLabelCardinality());
+        }
+
+        RequestEncoder.Sender sender() {
+            return newSender(endpoint, gzip, exportInterval);
+        }
+    }
+
+    // Each instrument holds its own children
+    private final MetricFamilies<MeterInstrument> meters = new MetricFamilies<>();
+    private final MetricFamilies<CounterInstrument> counters = new MetricFamilies<>();
+    private final MetricFamilies<HistogramInstrument> timers = new MetricFamilies<>();
+    private final MetricFamilies<HistogramInstrument> histograms = new MetricFamilies<>();
+    private final MetricFamilies<GaugeInstrument> gauges = new MetricFamilies<>();
+    private volatile List<Duration> timerBuckets = List.of();
+    private volatile int maxLabelCardinality;
+    // Guarded by this
+    private boolean delta;
+    private RequestEncoder encoder;
+    private @Nullable ScheduledExecutorService executor;
+    private @Nullable Settings settings;
+
+    /**
+     * Constructor, with the default configuration.
+     */
+    @Inject
+    public OtlpMetricProvider() {
+        this(URI.create(DEFAULT_ENDPOINT), Duration.ofSeconds(60), Temporality.DELTA, DEFAULT_MAX_BATCH_SIZE, true,
+            DEFAULT_SERVICE_NAME, parseBuckets(DEFAULT_TIMER_BUCKETS));
+    }
+
+    @Activate
+    public OtlpMetricProvider(Configuration configuration) {
+        this(new Settings(configuration));
+    }
+
+    private OtlpMetricProvider(Settings settings) {
+        this(settings.sender(), settings.exportInterval(), settings.temporality(), settings.maxBatchSize(),
+            settings.serviceName(), settings.timerBuckets(), settings.maxLabelCardinality());
+        this.settings = settings;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param endpoint URL of the metrics of the OTLP/HTTP collector
+     * @param exportInterval time between two exports
+     * @param temporality aggregation temporality of Meters, Timers and Histograms
+     * @param maxBatchSize maximum number of data points per export request
+     * @param gzip whether export requests are gzipped
+     * @param serviceName value of the <code>service.name</code> resource attribute
+     * @param timerBuckets strictly increasing upper bounds of the histogram buckets of Timers
+     */
+    public OtlpMetricProvider(URI endpoint, Duration exportInterval, Temporality temporality, int maxBatchSize,
+            boolean gzip, String serviceName, List<Duration> timerBuckets) {
+        this(endpoint, exportInterval, temporality, maxBatchSize, gzip, serviceName, timerBuckets,
+            MetricFamilies.DEFAULT_MAX_CARDINALITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param endpoint URL of the metrics of the OTLP/HTTP collector
+     * @param exportInterval time between two exports
+     * @param temporality aggregation temporality of Meters, Timers and Histograms
+     * @param maxBatchSize maximum number of data points per export request
+     * @param gzip whether export requests are gzipped
+     * @param serviceName value of the <code>service.name</code> resource attribute
+     * @param timerBuckets strictly increasing upper bounds of the histogram buckets of Timers
+     * @param maxLabelCardinality maximum number of children of each labeled metric whose descriptor does not set one,
+     *                            or 0 for no limit
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public OtlpMetricProvider(URI endpoint, Duration exportInterval, Temporality temporality, int maxBatchSize,
+            boolean gzip, String serviceName, List<Duration> timerBuckets, int maxLabelCardinality) {
+        this(newSender(endpoint, gzip, exportInterval), exportInterval, temporality, maxBatchSize, serviceName,
+            timerBuckets, maxLabelCardinality);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sender sends the export requests
+     * @param exportInterval time between two exports, or zero to never export by itself
+     */
+    OtlpMetricProvider(RequestEncoder.Sender sender, Duration exportInterval, Temporality temporality,
+            int maxBatchSize, String serviceName, List<Duration> timerBuckets, int maxLabelCardinality) {
+        update(sender, exportInterval, temporality, maxBatchSize, serviceName, timerBuckets, maxLabelCardinality);
+    }
+
+    @Modified
+    void modified(Configuration configuration) {
+        Settings newSettings = new Settings(configuration);
+        synchronized (this) {
+            if (newSettings.equals(settings)) {
+                return;
+            }
+            settings = newSettings;
+        }
+        update(newSettings.sender(), newSettings.exportInterval(), newSettings.temporality(),
+            newSettings.maxBatchSize(), newSettings.serviceName(), newSettings.timerBuckets(),
+            newSettings.maxLabelCardinality());
+    }
+
+    /**
+     * Apply a changed configuration, as in the constructor, restarting the exports.  Deltas which were not exported
+     * yet are included in the next export, to the new collector if it changed.
+     */
+    @SuppressWarnings("FutureReturnValueIgnored")
+    private void update(RequestEncoder.Sender sender, Duration exportInterval, Temporality temporality,
+            int maxBatchSize, String serviceName, List<Duration> newTimerBuckets, int newMaxLabelCardinality) {
+        @Var Duration previous = Duration.ZERO;
+        for (Duration bucket : newTimerBuckets) {
+            if (bucket.compareTo(previous) <= 0) {
+                throw new IllegalArgumentException("Timer buckets must be positive and strictly increasing: "
+                    + newTimerBuckets);
+            }
+            previous = bucket;
+        }
+        RequestEncoder newEncoder = new RequestEncoder(Map.of("service.name", serviceName, "host.name", hostName()),
+            SCOPE_NAME, maxBatchSize, sender);
+
+        ScheduledExecutorService oldExecutor;
+        synchronized (this) {
+            timerBuckets = List.copyOf(newTimerBuckets);
+            maxLabelCardinality = Math.max(0, newMaxLabelCardinality);
+            delta = temporality == Temporality.DELTA;
+            encoder = newEncoder;
+            oldExecutor = executor;
+            executor = null;
+        }
+        if (oldExecutor != null) {
+            // Outside of the lock, which a running export holds
+            shutdownAndAwaitTermination(oldExecutor);
+        }
+
+        long periodNanos = exportInterval.toNanos();
+        if (periodNanos > 0) {
+            ScheduledExecutorService newExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("serviceutils.metrics.otlp.Exporter").setDaemon(true)
+                    .build());
+            newExecutor.scheduleWithFixedDelay(this::export, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+            synchronized (this) {
+                executor = newExecutor;
+            }
+            LOG.info("Metrics now exported to {} every {}", sender instanceof OtlpHttpSender http
+                ? http.endpoint() : sender, exportInterval);
+        }
+    }
+
+    private static RequestEncoder.Sender newSender(URI endpoint, boolean gzip, Duration exportInterval) {
+        return new OtlpHttpSender(endpoint, gzip, MAX_ATTEMPTS, RETRY_BACKOFF,
+            exportInterval.compareTo(MAX_TIMEOUT) < 0 ? exportInterval : MAX_TIMEOUT);
+    }
+
+    private static List<Duration> parseBuckets(String buckets) {
+        List<Duration> durations = new ArrayList<>();
+        for (String bucket : Splitter.on(',').trimResults().omitEmptyStrings().split(buckets)) {
+            durations.add(Duration.ofNanos(Math.round(Double.parseDouble(bucket) * TimeUnit.SECONDS.toNanos(1))));
+        }
+        return durations;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            LOG.warn("Failed to determine the host name, exporting metrics with an empty host.name", e);
+            return "";
+        }
+    }
+
+    @PreDestroy
+    @Deactivate
+    @Override
+    public void close() {
+        ScheduledExecutorService oldExecutor;
+        synchronized (this) {
+            oldExecutor = executor;
+            executor = null;
+        }
+        if (oldExecutor != null) {
+            // Periodic exports are cancelled by the shutdown, but this last one still runs
+            oldExecutor.execute(this::export);
+            shutdownAndAwaitTermination(oldExecutor);
+        }
+    }
+
+    /**
+     * Export all metrics.
+     *
+     * @return true if all requests were accepted by the collector
+     */
+    @VisibleForTesting
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    synchronized boolean export() {
+        long nowNanos = OtlpInstrument.epochNanos();
+        try {
+            meters.values().forEach(instrument -> instrument.export(encoder, nowNanos, delta));
+            counters.values().forEach(instrument -> instrument.export(encoder, nowNanos, delta));
+            timers.values().forEach(instrument -> instrument.export(encoder, nowNanos, delta));
+            histograms.values().forEach(instrument -> instrument.export(encoder, nowNanos, delta));
+            gauges.values().forEach(instrument -> instrument.export(encoder, nowNanos, delta));
+        } catch (RuntimeException e) {
+            // Otherwise the ScheduledExecutorService would silently stop exporting
+            LOG.error("Failed to export the metrics", e);
+            encoder.abort();
+            return false;
+        }
+        return encoder.finish();
+    }
+
+    private int maxCardinality(MetricDescriptor descriptor) {
+        return MetricFamilies.maxCardinality(descriptor, maxLabelCardinality);
+    }
+
+    private void markOverflow(MetricDescriptor descriptor) {
+        newMeter(MetricFamilies.overflowDescriptor(descriptor)).mark();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <L> L labeled(Object firstLevel) {
+        return (L) firstLevel;
+    }
+
+    private MeterInstrument meter(MetricDescriptor descriptor, List<String> labelNames) {
+        return meters.get(descriptor, labelNames, key -> {
+            LOG.debug("New Meter instrument: {}", key);
+            return new MeterInstrument(descriptor, labelNames, maxCardinality(descriptor),
+                () -> markOverflow(descriptor));
+        });
+    }
+
+    @Override
+    @Deprecated(forRemoval = true)
+    public Meter newMeter(Object anchor, String id) {
+        return newMeter(MetricFamilies.legacyDescriptor(anchor, id));
+    }
+
+    @Override
+    public Meter newMeter(MetricDescriptor descriptor) {
+        return meter(descriptor, List.of()).unlabeled();
+    }
+
+    @Override
+    public Labeled<Meter> newMeter(MetricDescriptor descriptor, String labelName) {
+        return labeled(meter(descriptor, List.of(labelName)).labeled());
+    }
+
+    @Override
+    public Labeled<Labeled<Meter>> newMeter(MetricDescriptor descriptor, String firstLabelName,
+            String secondLabelName) {
+        return labeled(meter(descriptor, List.of(firstLabelName, secondLabelName)).labeled());
+    }
+
+    @Override
+    public Labeled<Labeled<Labeled<Meter>>> newMeter(MetricDescriptor descriptor, String firstLabelName,
+            String secondLabelName, String thirdLabelName) {
+        return labeled(meter(descriptor, List.of(firstLabelName, secondLabelName, thirdLabelName)).labeled());
+    }
+
+    @Override
+    public Labeled<Labeled<Labeled<Labeled<Meter>>>> newMeter(MetricDescriptor descriptor, String firstLabelName,
+            String secondLabelName, String thirdLabelName, String fourthLabelName) {
+        return labeled(meter(descriptor,
+            List.of(firstLabelName, secondLabelName, thirdLabelName, fourthLabelName)).labeled());
+    }
+
+    @Override
+    public Labeled<Labeled<Labeled<Labeled<Labeled<Meter>>>>> newMeter(MetricDescriptor descriptor,
+            String firstLabelName, String secondLabelName, String thirdLabelName, String fourthLabelName,
+            String fifthLabelName) {
+        return labeled(meter(descriptor,
+            List.of(firstLabelName, secondLabelName, thirdLabelName, fourthLabelName, fifthLabelName)).labeled());
+    }
+
+    private CounterInstrument counter(MetricDescriptor descriptor, List<String> labelNames) {
+        return counters.get(descriptor, labelNames, key -> {
+            LOG.debug("New Counter instrument: {}", key);
+            return new CounterInstrument(descriptor, labelNames, maxCardinality(descriptor),
+                () -> markOverflow(descriptor));
+        });
+    }
+
+    @Override
+    @Deprecated(forRemoval = true)
+    public Counter newCounter(Object anchor, String id) {
+        return newCounter(MetricFamilies.legacyDescriptor(anchor, id));
+    }
+
+    @Override
+    public Counter newCounter(MetricDescriptor descriptor) {
+        return counter(descriptor, List.of()).unlabeled();
+    }
+
+    @Override
+    public Labeled<Counter> newCounter(MetricDescriptor descriptor, String labelName) {
+        return labeled(counter(descriptor, List.of(labelName)).labeled());
+    }
+
+    @Override
+    public Labeled<Labeled<Counter>> newCounter(MetricDescriptor descriptor, String firstLabelName,
+            String secondLabelName) {
+        return labeled(counter(descriptor, List.of(firstLabelName, secondLabelName)).labeled());
+    }
+
+    @Override
+    public Labeled<Labeled<Labeled<Counter>>> newCounter(MetricDescriptor descriptor, String firstLabelName,
+            String secondLabelName, String thirdLabelName) {
+        return labeled(counter(descriptor, List.of(firstLabelName, secondLabelName, thirdLabelName)).labeled());
+    }
+
+    @Override
+    public Labeled<Labeled<Labeled<Labeled<Counter>>>> newCounter(MetricDescriptor descriptor, String firstLabelName,
+            String secondLabelName, String thirdLabelName, String fourthLabelName) {
+        return labeled(counter(descriptor,
+            List.of(firstLabelName, secondLabelName, thirdLabelName, fourthLabelName)).labeled());
+    }
+
+    @Override
+    public Labeled<Labeled<Labeled<Labeled<Labeled<Counter>>>>> newCounter(MetricDescriptor descriptor,
+            String firstLabelName, String secondLabelName, String thirdLabelName, String fourthLabelName,
+            String fifthLabelName) {
+        return labeled(counter(descriptor,
+            List.of(firstLabelName, secondLabelName, thirdLabelName, fourthLabelName, fifthLabelName)).labeled());
+    }
+
+    private HistogramInstrument timer(MetricDescriptor descriptor, List<String> labelNames) {
+        return timers.get(descriptor, labelNames, key -> {
+            LOG.debug("New Timer instrument: {}", key);
+            return HistogramInstrument.ofTimers(descriptor, labelNames, maxCardinality(descriptor),
+                () -> markOverflow(descriptor), timerBuckets);
+        });
+    }
+
+    @Override
+    @Deprecated(forRemoval = true)
+    public Timer newTimer(Object anchor, String id) {
+        return newTimer(MetricFamilies.legacyDescriptor(anchor, id));
+    }
+
+    @Override
+    public Timer newTimer(MetricDescriptor descriptor) {
+        return timer(descriptor, List.of()).unlabeled();
+    }
+
+    @Override
+    public Labeled<Timer> newTimer(MetricDescriptor descriptor, String labelName) {
+        return labeled(timer(descriptor, List.of(labelName)).labeled());
+    }
+
+    @Override
+    public Labeled<Labeled<Timer>> newTimer(MetricDescriptor descriptor, String firstLabelName,
+            String secondLabelName) {
+        return labeled(timer(descriptor, List.of(firstLabelName, secondLabelName)).labeled());
+    }
+
+    private HistogramInstrument histogram(MetricDescriptor descriptor, List<String> labelNames) {
+        return histograms.get(descriptor, labelNames, key -> {
+            LOG.debug("New Histogram instrument: {}", key);
+            return HistogramInstrument.ofHistograms(descriptor, labelNames, maxCardinality(descriptor),
+                () -> markOverflow(descriptor));
+        });
+    }
+
+    @Override
+    public Histogram newHistogram(MetricDescriptor descriptor) {
+        return histogram(descriptor, List.of()).unlabeled();
+    }
+
+    @Override
+    public Labeled<Histogram> newHistogram(MetricDescriptor descriptor, String labelName) {
+        return labeled(histogram(descriptor, List.of(labelName)).labeled());
+    }
+
+    @Override
+    public Labeled<Labeled<Histogram>> newHistogram(MetricDescriptor descriptor, String firstLabelName,
+            String secondLabelName) {
+        return labeled(histogram(descriptor, List.of(firstLabelName, secondLabelName)).labeled());
+    }
+
+    private GaugeInstrument gauge(MetricDescriptor descriptor, List<String> labelNames) {
+        return gauges.get(descriptor, labelNames, key -> {
+            LOG.debug("New Gauge instrument: {}", key);
+            return new GaugeInstrument(descriptor, labelNames, maxCardinality(descriptor),
+                () -> markOverflow(descriptor));
+        });
+    }
+
+    @Override
+    public Gauge newGauge(MetricDescriptor descriptor, LongSupplier supplier) {
+        return gauge(descriptor, List.of()).child(LabelValues.EMPTY, supplier);
+    }
+
+    @Override
+    public Labeled<Gauge> newGauge(MetricDescriptor descriptor, ToLongFunction<String> supplier, String labelName) {
+        // Gauges are not looked up on a hot path, so these just resolve their children by the LabelValues
+        GaugeInstrument instrument = gauge(descriptor, List.of(labelName));
+        return labelValue -> instrument.child(LabelValues.of(List.of(labelValue)),
+            () -> supplier.applyAsLong(labelValue));
+    }
+
+    @Override
+    public Labeled<Labeled<Gauge>> newGauge(MetricDescriptor descriptor, ToLongBiFunction<String, String> supplier,
+            String firstLabelName, String secondLabelName) {
+        GaugeInstrument instrument = gauge(descriptor, List.of(firstLabelName, secondLabelName));
+        return firstLabelValue -> secondLabelValue -> instrument.child(
+            LabelValues.of(List.of(firstLabelValue, secondLabelValue)),
+            () -> supplier.applyAsLong(firstLabelValue, secondLabelValue));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.otlp.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.errorprone.annotations.Var;
+import java.util.Arrays;
+
+/**
+ * Package private writer of the protocol buffers wire format, for exactly what the OTLP messages need: varints,
+ * 64-bit fixed width numbers, strings, and nested messages.
+ *
+ * <p>Nested messages are written in place: {@link #beginMessage(int)} reserves one byte for their length, and
+ * {@link #endMessage(int)} moves their body up if the length needs more than that, which only the few outer
+ * messages of a request do.  The buffer is reused by all requests of one export.
+ *
+ * <p>Instances are not thread safe.
+ */
+final class ProtoWriter {
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private byte[] buffer = new byte[64 * 1024];
+    private int position;
+
+    int size() {
+        return position;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    void reset() {
+        position = 0;
+    }
+
+    void writeVarint(int field, long value) {
+        writeTag(field, WIRE_VARINT);
+        writeRawVarint(value);
+    }
+
+    void writeBool(int field, boolean value) {
+        writeVarint(field, value ? 1 : 0);
+    }
+
+    void writeFixed64(int field, long value) {
+        writeTag(field, WIRE_FIXED64);
+        writeRawFixed64(value);
+    }
+
+    void writeDouble(int field, double value) {
+        writeFixed64(field, Double.doubleToRawLongBits(value));
+    }
+
+    void writeString(int field, String value) {
+        byte[] bytes = value.getBytes(UTF_8);
+        writeTag(field, WIRE_LENGTH_DELIMITED);
+        writeRawVarint(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Write a packed repeated fixed64 field, unless it is empty.
+     */
+    void writePackedFixed64(int field, long[] values) {
+        if (values.length > 0) {
+            writeTag(field, WIRE_LENGTH_DELIMITED);
+            writeRawVarint((long) values.length * Long.BYTES);
+            for (long value : values) {
+                writeRawFixed64(value);
+            }
+        }
+    }
+
+    /**
+     * Write a packed repeated double field, unless it is empty.
+     */
+    void writePackedDouble(int field, double[] values) {
+        if (values.length > 0) {
+            writeTag(field, WIRE_LENGTH_DELIMITED);
+            writeRawVarint((long) values.length * Double.BYTES);
+            for (double value : values) {
+                writeRawFixed64(Double.doubleToRawLongBits(value));
+            }
+        }
+    }
+
+    /**
+     * Start a nested message.
+     *
+     * @return the mark to pass to {@link #endMessage(int)}
+     */
+    int beginMessage(int field) {
+        writeTag(field, WIRE_LENGTH_DELIMITED);
+        ensureCapacity(1);
+        position++;
+        return position;
+    }
+
+    /**
+     * End a nested message, writing its length before it.
+     *
+     * @param mark as returned by {@link #beginMessage(int)}
+     */
+    void endMessage(int mark) {
+        int length = position - mark;
+        int extra = varintSize(length) - 1;
+        if (extra > 0) {
+            ensureCapacity(extra);
+            System.arraycopy(buffer, mark, buffer, mark + extra, length);
+            position += extra;
+        }
+        @Var int offset = mark - 1;
+        @Var long value = length;
+        while ((value & ~0x7FL) != 0) {
+            buffer[offset++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset] = (byte) value;
+    }
+
+    private void writeTag(int field, int wireType) {
+        writeRawVarint(field << 3 | wireType);
+    }
+
+    private void writeRawVarint(long value) {
+        ensureCapacity(10);
+        @Var long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer[position++] = (byte) (remaining & 0x7F | 0x80);
+            remaining >>>= 7;
+        }
+        buffer[position++] = (byte) remaining;
+    }
+
+    private void writeRawFixed64(long value) {
+        ensureCapacity(Long.BYTES);
+        for (int i = 0; i < Long.BYTES; i++) {
+            buffer[position++] = (byte) (value >>> i * 8);
+        }
+    }
+
+    private void ensureCapacity(int more) {
+        if (position + more > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + more));
+        }
+    }
+
+    private static int varintSize(int value) {
+        @Var int size = 1;
+        @Var int remaining = value >>> 7;
+        while (remaining != 0) {
+            size++;
+            remaining >>>= 7;
+        }
+        return size;
+    }
+}
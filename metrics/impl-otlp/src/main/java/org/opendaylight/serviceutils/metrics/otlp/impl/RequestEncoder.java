@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.otlp.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+
+/**
+ * Package private encoder of the data points of all instruments into OTLP <code>ExportMetricsServiceRequest</code>s
+ * (see opentelemetry-proto's <code>metrics_service.proto</code> and <code>metrics.proto</code>), each with at most a
+ * maximum number of data points.  Each request is handed to a {@link Sender} as soon as it is full, so that only one
+ * request is ever held in memory; a metric with more data points than fit into one request is split across several.
+ *
+ * <p>Data points may come with an {@link Exported} callback, which is invoked once their request was sent
+ * successfully; delta data points use this to only move their start on then.  Once a request failed, the remaining
+ * ones of the same export are not sent at all, as the collector is unlikely to accept them either; their deltas are
+ * thus included in the next export.
+ *
+ * <p>Instances are not thread safe; an export must {@link #finish()} before the next one starts.
+ */
+final class RequestEncoder {
+    /**
+     * The kinds of metric data, with the field numbers of their messages in <code>Metric</code> and of the
+     * attributes in their data points.
+     */
+    enum Kind {
+        GAUGE(5, 7),
+        SUM(7, 7),
+        HISTOGRAM(9, 9);
+
+        final int dataField;
+        final int attributesField;
+
+        Kind(int dataField, int attributesField) {
+            this.dataField = dataField;
+            this.attributesField = attributesField;
+        }
+    }
+
+    /**
+     * Callback of a data point, once it was exported.
+     */
+    @FunctionalInterface
+    interface Exported {
+        void exported();
+    }
+
+    /**
+     * Sends one encoded request.
+     */
+    @FunctionalInterface
+    interface Sender {
+        /**
+         * Send a request.
+         *
+         * @return true if the collector accepted it
+         */
+        boolean send(byte[] request);
+    }
+
+    // AggregationTemporality
+    static final int TEMPORALITY_NONE = 0;
+    static final int TEMPORALITY_DELTA = 1;
+    static final int TEMPORALITY_CUMULATIVE = 2;
+
+    // ExportMetricsServiceRequest
+    private static final int REQUEST_RESOURCE_METRICS = 1;
+    // ResourceMetrics
+    private static final int RESOURCE_METRICS_RESOURCE = 1;
+    private static final int RESOURCE_METRICS_SCOPE_METRICS = 2;
+    // Resource
+    private static final int RESOURCE_ATTRIBUTES = 1;
+    // ScopeMetrics
+    private static final int SCOPE_METRICS_SCOPE = 1;
+    private static final int SCOPE_METRICS_METRICS = 2;
+    // InstrumentationScope
+    private static final int SCOPE_NAME = 1;
+    // Metric
+    private static final int METRIC_NAME = 1;
+    private static final int METRIC_DESCRIPTION = 2;
+    private static final int METRIC_UNIT = 3;
+    // Gauge, Sum and Histogram
+    private static final int DATA_DATA_POINTS = 1;
+    private static final int DATA_AGGREGATION_TEMPORALITY = 2;
+    private static final int SUM_IS_MONOTONIC = 3;
+    // NumberDataPoint and HistogramDataPoint
+    private static final int POINT_START_TIME_UNIX_NANO = 2;
+    private static final int POINT_TIME_UNIX_NANO = 3;
+    // KeyValue
+    private static final int KEY_VALUE_KEY = 1;
+    private static final int KEY_VALUE_VALUE = 2;
+    // AnyValue
+    private static final int ANY_VALUE_STRING_VALUE = 1;
+
+    private final ProtoWriter writer = new ProtoWriter();
+    private final List<Exported> pending = new ArrayList<>();
+    private final Map<String, String> resourceAttributes;
+    private final String scopeName;
+    private final int maxDataPoints;
+    private final Sender sender;
+
+    // The current metric
+    private String name = "";
+    private String description = "";
+    private String unit = "";
+    private Kind kind = Kind.GAUGE;
+    private int temporality;
+    private boolean monotonic;
+
+    // Marks of the open messages, or -1 if they are not open
+    private int resourceMetricsMark = -1;
+    private int scopeMetricsMark;
+    private int metricMark = -1;
+    private int dataMark;
+    private int pointMark;
+    private int dataPoints;
+    private boolean failed;
+
+    /**
+     * Constructor.
+     *
+     * @param resourceAttributes the attributes of the resource of all metrics
+     * @param scopeName the name of the instrumentation scope of all metrics
+     * @param maxDataPoints maximum number of data points per request
+     * @param sender sends the requests
+     */
+    RequestEncoder(Map<String, String> resourceAttributes, String scopeName, int maxDataPoints, Sender sender) {
+        this.resourceAttributes = Map.copyOf(resourceAttributes);
+        this.scopeName = scopeName;
+        this.maxDataPoints = Math.max(1, maxDataPoints);
+        this.sender = sender;
+    }
+
+    /**
+     * Start a metric.  Nothing is encoded until its first data point.
+     *
+     * @param newName the name of the metric
+     * @param newDescription the description of the metric
+     * @param newUnit the unit of the metric
+     * @param newKind the kind of the data points of the metric
+     * @param newTemporality the aggregation temporality of Sums and Histograms, or {@link #TEMPORALITY_NONE}
+     * @param newMonotonic whether a Sum is monotonic
+     */
+    void metric(String newName, String newDescription, String newUnit, Kind newKind, int newTemporality,
+            boolean newMonotonic) {
+        endMetric();
+        name = newName;
+        description = newDescription;
+        unit = newUnit;
+        kind = newKind;
+        temporality = newTemporality;
+        monotonic = newMonotonic;
+    }
+
+    /**
+     * Start a data point of the current metric, with its attributes and times.  The caller then writes its value
+     * fields, and ends it with {@link #endDataPoint(Exported)}.
+     *
+     * @param labelNames the label names of the metric
+     * @param labelValues the label values of the data point, in the order of {@code labelNames}
+     * @param startNanos the start time in nanoseconds since the epoch, or 0 for none
+     * @param timeNanos the time in nanoseconds since the epoch
+     * @return the writer of the value fields
+     */
+    ProtoWriter beginDataPoint(List<String> labelNames, LabelValues labelValues, long startNanos, long timeNanos) {
+        if (resourceMetricsMark < 0) {
+            beginRequest();
+        }
+        if (metricMark < 0) {
+            beginMetric();
+        }
+        pointMark = writer.beginMessage(DATA_DATA_POINTS);
+        for (int i = 0; i < labelNames.size(); i++) {
+            writeAttribute(kind.attributesField, labelNames.get(i), labelValues.get(i));
+        }
+        if (startNanos != 0) {
+            writer.writeFixed64(POINT_START_TIME_UNIX_NANO, startNanos);
+        }
+        writer.writeFixed64(POINT_TIME_UNIX_NANO, timeNanos);
+        return writer;
+    }
+
+    /**
+     * End the current data point, sending the request if it is full.
+     *
+     * @param exported invoked once the data point was exported, if not null
+     */
+    void endDataPoint(@Nullable Exported exported) {
+        writer.endMessage(pointMark);
+        if (exported != null) {
+            pending.add(exported);
+        }
+        if (++dataPoints >= maxDataPoints) {
+            sendRequest();
+        }
+    }
+
+    /**
+     * Send the last request, if any.
+     *
+     * @return true if all requests of this export were sent successfully
+     */
+    boolean finish() {
+        if (resourceMetricsMark >= 0) {
+            sendRequest();
+        }
+        boolean succeeded = !failed;
+        failed = false;
+        return succeeded;
+    }
+
+    /**
+     * Discard the current request, if any, e.g. after its encoding failed half way.
+     */
+    void abort() {
+        resourceMetricsMark = -1;
+        metricMark = -1;
+        dataPoints = 0;
+        failed = false;
+        pending.clear();
+        writer.reset();
+    }
+
+    private void beginRequest() {
+        writer.reset();
+        resourceMetricsMark = writer.beginMessage(REQUEST_RESOURCE_METRICS);
+        int resourceMark = writer.beginMessage(RESOURCE_METRICS_RESOURCE);
+        resourceAttributes.forEach((key, value) -> writeAttribute(RESOURCE_ATTRIBUTES, key, value));
+        writer.endMessage(resourceMark);
+        scopeMetricsMark = writer.beginMessage(RESOURCE_METRICS_SCOPE_METRICS);
+        int scopeMark = writer.beginMessage(SCOPE_METRICS_SCOPE);
+        writer.writeString(SCOPE_NAME, scopeName);
+        writer.endMessage(scopeMark);
+    }
+
+    private void beginMetric() {
+        metricMark = writer.beginMessage(SCOPE_METRICS_METRICS);
+        writer.writeString(METRIC_NAME, name);
+        if (!description.isEmpty()) {
+            writer.writeString(METRIC_DESCRIPTION, description);
+        }
+        if (!unit.isEmpty()) {
+            writer.writeString(METRIC_UNIT, unit);
+        }
+        dataMark = writer.beginMessage(kind.dataField);
+    }
+
+    private void endMetric() {
+        if (metricMark >= 0) {
+            if (temporality != TEMPORALITY_NONE) {
+                writer.writeVarint(DATA_AGGREGATION_TEMPORALITY, temporality);
+            }
+            if (monotonic) {
+                writer.writeBool(SUM_IS_MONOTONIC, true);
+            }
+            writer.endMessage(dataMark);
+            writer.endMessage(metricMark);
+            metricMark = -1;
+        }
+    }
+
+    private void sendRequest() {
+        // The current metric continues in the next request, if it has further data points
+        endMetric();
+        writer.endMessage(scopeMetricsMark);
+        writer.endMessage(resourceMetricsMark);
+        resourceMetricsMark = -1;
+        dataPoints = 0;
+
+        if (!failed && sender.send(writer.toByteArray())) {
+            pending.forEach(Exported::exported);
+        } else {
+            failed = true;
+        }
+        pending.clear();
+        writer.reset();
+    }
+
+    private void writeAttribute(int field, String key, String value) {
+        int keyValueMark = writer.beginMessage(field);
+        writer.writeString(KEY_VALUE_KEY, key);
+        int anyValueMark = writer.beginMessage(KEY_VALUE_VALUE);
+        writer.writeString(ANY_VALUE_STRING_VALUE, value);
+        writer.endMessage(anyValueMark);
+        writer.endMessage(keyValueMark);
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.otlp.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.errorprone.annotations.Var;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.GZIPInputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.serviceutils.metrics.Counter;
+import org.opendaylight.serviceutils.metrics.Labeled;
+import org.opendaylight.serviceutils.metrics.Meter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.Timer;
+import org.opendaylight.serviceutils.metrics.spi.MetricFamilies;
+
+/**
+ * Unit test for {@link OtlpMetricProvider}, against a stub OTLP/HTTP collector, which decodes the requests itself.
+ */
+public class OtlpMetricProviderTest {
+    private static final String PREFIX = "opendaylight.infrautils.metrics.";
+
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private final Queue<ProtoMessage> requests = new ConcurrentLinkedQueue<>();
+    private final List<OtlpMetricProvider> providers = new ArrayList<>();
+    private HttpServer server;
+
+    @Before
+    public void before() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v1/metrics", this::handle);
+        server.start();
+    }
+
+    @After
+    public void after() {
+        providers.forEach(OtlpMetricProvider::close);
+        server.stop(0);
+    }
+
+    @Test
+    public void testDeltaMeter() {
+        OtlpMetricProvider provider = provider(OtlpMetricProvider.Temporality.DELTA, 100);
+        Labeled<Meter> meter = provider.newMeter(descriptor("test_meter"), "port");
+        meter.label("1").mark(3);
+        meter.label("2");
+
+        assertTrue(provider.export());
+        ProtoMessage sum = metric(requests.poll(), "test_meter").message(7);
+        assertEquals(1, sum.number(2));
+        assertEquals(1, sum.number(3));
+        List<ProtoMessage> points = sum.messages(1);
+        // The child which was never marked has no delta
+        assertEquals(1, points.size());
+        assertEquals(3, points.get(0).number(6));
+        assertEquals(Map.of("port", "1"), attributes(points.get(0), 7));
+        long firstTime = points.get(0).number(3);
+        assertTrue(points.get(0).number(2) <= firstTime);
+
+        meter.label("1").mark(2);
+        // Ignored, as the sum is monotonic
+        meter.label("1").mark(-1);
+        assertTrue(provider.export());
+        ProtoMessage point = metric(requests.poll(), "test_meter").message(7).message(1);
+        assertEquals(2, point.number(6));
+        assertEquals(firstTime, point.number(2));
+
+        assertTrue(provider.export());
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void testClosedChildExportsLastDelta() {
+        OtlpMetricProvider provider = provider(OtlpMetricProvider.Temporality.DELTA, 100);
+        Labeled<Meter> meter = provider.newMeter(descriptor("test_meter"), "port");
+        Meter child = meter.label("1");
+        child.mark(3);
+        assertTrue(provider.export());
+        requests.clear();
+
+        child.mark(2);
+        child.close();
+        statuses.addAll(List.of(503, 503, 503));
+        assertFalse(provider.export());
+        requests.clear();
+
+        // Still exported after a failed export, but only until it succeeded
+        assertTrue(provider.export());
+        ProtoMessage point = metric(requests.poll(), "test_meter").message(7).message(1);
+        assertEquals(2, point.number(6));
+        assertEquals(Map.of("port", "1"), attributes(point, 7));
+        assertTrue(provider.export());
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void testCumulativeInstruments() {
+        OtlpMetricProvider provider = provider(OtlpMetricProvider.Temporality.CUMULATIVE, 100);
+        provider.newMeter(descriptor("test_meter")).mark(7);
+        Counter counter = provider.newCounter(descriptor("test_counter"));
+        counter.increment(5);
+        counter.decrement(2);
+        Timer timer = provider.newTimer(descriptor("test_timer"));
+        timer.record(Duration.ofMillis(20).toNanos());
+        timer.record(Duration.ofSeconds(20).toNanos());
+        provider.newGauge(descriptor("test_gauge"), () -> 42);
+
+        assertTrue(provider.export());
+        ProtoMessage request = requests.poll();
+        Map<String, String> resource = attributes(request.message(1).message(1), 1);
+        assertEquals("test", resource.get("service.name"));
+        assertTrue(resource.containsKey("host.name"));
+        assertEquals("org.opendaylight.serviceutils.metrics", request.message(1).message(2).message(1).string(1));
+
+        ProtoMessage meter = metric(request, "test_meter").message(7);
+        assertEquals(2, meter.number(2));
+        assertEquals(7, meter.message(1).number(6));
+
+        ProtoMessage counterSum = metric(request, "test_counter").message(7);
+        assertEquals(2, counterSum.number(2));
+        assertFalse(counterSum.has(3));
+        assertEquals(3, counterSum.message(1).number(6));
+
+        ProtoMessage timerMetric = metric(request, "test_timer");
+        assertEquals("s", timerMetric.string(3));
+        ProtoMessage histogram = timerMetric.message(9);
+        assertEquals(2, histogram.number(2));
+        ProtoMessage point = histogram.message(1);
+        assertEquals(2, point.number(4));
+        assertEquals(20.02, Double.longBitsToDouble(point.number(5)), 1e-9);
+        long[] buckets = new long[15];
+        buckets[2] = 1;
+        buckets[14] = 1;
+        assertArrayEquals(buckets, point.packedFixed64(6));
+        assertEquals(14, point.packedFixed64(7).length);
+        assertEquals(0.025, Double.longBitsToDouble(point.packedFixed64(7)[2]), 0);
+
+        ProtoMessage gauge = metric(request, "test_gauge").message(5);
+        assertFalse(gauge.has(2));
+        assertEquals(42, gauge.message(1).number(6));
+        assertFalse(gauge.message(1).has(2));
+    }
+
+    @Test
+    public void testBatched() {
+        OtlpMetricProvider provider = provider(OtlpMetricProvider.Temporality.DELTA, 2);
+        Labeled<Meter> meter = provider.newMeter(descriptor("test_meter"), "port");
+        for (int i = 0; i < 5; i++) {
+            meter.label(Integer.toString(i)).mark(i + 1);
+        }
+
+        assertTrue(provider.export());
+        assertEquals(3, requests.size());
+        Map<String, Long> values = new HashMap<>();
+        for (ProtoMessage request : requests) {
+            for (ProtoMessage point : metric(request, "test_meter").message(7).messages(1)) {
+                values.put(attributes(point, 7).get("port"), point.number(6));
+            }
+        }
+        assertEquals(Map.of("0", 1L, "1", 2L, "2", 3L, "3", 4L, "4", 5L), values);
+    }
+
+    @Test
+    public void testFailedExportKeepsDeltas() {
+        OtlpMetricProvider provider = provider(OtlpMetricProvider.Temporality.DELTA, 1);
+        Meter first = provider.newMeter(descriptor("test_first"));
+        first.mark(3);
+        provider.newMeter(descriptor("test_second")).mark(1);
+
+        statuses.addAll(List.of(503, 429, 503));
+        assertFalse(provider.export());
+        // Retried, but the second request was not even attempted
+        assertEquals(3, requests.size());
+        requests.clear();
+
+        first.mark();
+        assertTrue(provider.export());
+        assertEquals(2, requests.size());
+        Map<String, Long> values = new HashMap<>();
+        for (ProtoMessage request : requests) {
+            ProtoMessage metric = request.message(1).message(2).message(2);
+            values.put(metric.string(1), metric.message(7).message(1).number(6));
+        }
+        assertEquals(Map.of(PREFIX + "test_first", 4L, PREFIX + "test_second", 1L), values);
+    }
+
+    @Test
+    public void testBadRequestIsNotRetried() {
+        OtlpMetricProvider provider = provider(OtlpMetricProvider.Temporality.DELTA, 100);
+        provider.newMeter(descriptor("test_meter")).mark();
+        statuses.add(400);
+        assertFalse(provider.export());
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void testConfiguredLabelCardinality() {
+        OtlpMetricProvider provider = provider(OtlpMetricProvider.Temporality.CUMULATIVE, 100, 1);
+        Labeled<Meter> meter = provider.newMeter(descriptor("test_meter"), "port");
+        meter.label("1").mark();
+        meter.label("2").mark(2);
+        assertEquals(2, meter.label(OtlpMetricProvider.OVERFLOW).get());
+    }
+
+    @Test
+    public void testUseClosedCounter() {
+        OtlpMetricProvider provider = provider(OtlpMetricProvider.Temporality.CUMULATIVE, 100);
+        Labeled<Counter> counter = provider.newCounter(descriptor("test_counter"), "port");
+        Counter child = counter.label("1");
+        child.close();
+        assertThrows(IllegalStateException.class, child::increment);
+        // The same labels resolve to a new child
+        counter.label("1").increment();
+        assertEquals(1, counter.label("1").get());
+    }
+
+    @Test
+    public void testCloseAwaitsLastExport() {
+        // Never exports by itself within the test
+        OtlpMetricProvider provider = new OtlpMetricProvider(
+            URI.create("http://localhost:" + server.getAddress().getPort() + "/v1/metrics"), Duration.ofHours(1),
+            OtlpMetricProvider.Temporality.DELTA, 100, false, "test", List.of());
+        provider.newMeter(descriptor("test_meter")).mark();
+        provider.close();
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    @SuppressWarnings("removal")
+    public void testLegacyId() {
+        OtlpMetricProvider provider = provider(OtlpMetricProvider.Temporality.CUMULATIVE, 100);
+        provider.newCounter(this, "infrautils.metrics.test.counter").increment(2);
+        assertTrue(provider.export());
+        assertEquals(2, metric(requests.poll(), "test_counter").message(7).message(1).number(6));
+    }
+
+    @Test
+    public void testInvalidName() {
+        OtlpMetricProvider provider = provider(OtlpMetricProvider.Temporality.DELTA, 100);
+        assertThrows(IllegalArgumentException.class, () -> provider.newMeter(descriptor("test meter")));
+    }
+
+    private OtlpMetricProvider provider(OtlpMetricProvider.Temporality temporality, int maxBatchSize) {
+        return provider(temporality, maxBatchSize, MetricFamilies.DEFAULT_MAX_CARDINALITY);
+    }
+
+    private OtlpMetricProvider provider(OtlpMetricProvider.Temporality temporality, int maxBatchSize,
+            int maxLabelCardinality) {
+        OtlpHttpSender sender = new OtlpHttpSender(
+            URI.create("http://localhost:" + server.getAddress().getPort() + "/v1/metrics"), true, 3,
+            Duration.ofMillis(1), Duration.ofSeconds(10));
+        OtlpMetricProvider provider = new OtlpMetricProvider(sender, Duration.ZERO, temporality, maxBatchSize,
+            "test", List.of(Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+                Duration.ofMillis(75), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+                Duration.ofMillis(750), Duration.ofSeconds(1), Duration.ofMillis(2500), Duration.ofSeconds(5),
+                Duration.ofMillis(7500), Duration.ofSeconds(10)), maxLabelCardinality);
+        providers.add(provider);
+        return provider;
+    }
+
+    private MetricDescriptor descriptor(String id) {
+        return MetricDescriptor.builder().anchor(this).project("infrautils").module("metrics").id(id).build();
+    }
+
+    private static ProtoMessage metric(ProtoMessage request, String id) {
+        for (ProtoMessage metric : request.message(1).message(2).messages(2)) {
+            if ((PREFIX + id).equals(metric.string(1))) {
+                return metric;
+            }
+        }
+        throw new AssertionError("No metric " + id);
+    }
+
+    private static Map<String, String> attributes(ProtoMessage message, int field) {
+        Map<String, String> attributes = new HashMap<>();
+        for (ProtoMessage keyValue : message.messages(field)) {
+            attributes.put(keyValue.string(1), keyValue.message(2).string(1));
+        }
+        return attributes;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        assertEquals("POST", exchange.getRequestMethod());
+        assertEquals("application/x-protobuf", exchange.getRequestHeaders().getFirst("Content-Type"));
+        boolean gzip = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+        try (InputStream in = gzip ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+            requests.add(ProtoMessage.parse(in.readAllBytes()));
+        }
+
+        Integer status = statuses.poll();
+        exchange.sendResponseHeaders(status != null ? status : 200, -1);
+        exchange.close();
+    }
+
+    /**
+     * Just enough of a protobuf decoder to check what we encode: each field is either a number, or the bytes of a
+     * string, nested message, or packed repeated field.
+     */
+    private static final class ProtoMessage {
+        private final Map<Integer, List<Object>> fields = new HashMap<>();
+
+        static ProtoMessage parse(byte[] bytes) {
+            ProtoMessage message = new ProtoMessage();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                long tag = varint(buffer);
+                Object value = switch ((int) (tag & 7)) {
+                    case 0 -> varint(buffer);
+                    case 1 -> buffer.getLong();
+                    case 2 -> {
+                        byte[] nested = new byte[(int) varint(buffer)];
+                        buffer.get(nested);
+                        yield nested;
+                    }
+                    default -> throw new AssertionError("Unexpected wire type in tag " + tag);
+                };
+                message.fields.computeIfAbsent((int) (tag >>> 3), field -> new ArrayList<>()).add(value);
+            }
+            return message;
+        }
+
+        private static long varint(ByteBuffer buffer) {
+            @Var long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte next = buffer.get();
+                value |= (long) (next & 0x7F) << shift;
+                if (next >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        boolean has(int field) {
+            return fields.containsKey(field);
+        }
+
+        long number(int field) {
+            List<Object> values = fields.get(field);
+            assertNotNull("No field " + field, values);
+            return (Long) values.get(0);
+        }
+
+        String string(int field) {
+            return new String((byte[]) fields.get(field).get(0), UTF_8);
+        }
+
+        ProtoMessage message(int field) {
+            assertTrue("No field " + field, has(field));
+            return messages(field).get(0);
+        }
+
+        List<ProtoMessage> messages(int field) {
+            List<ProtoMessage> messages = new ArrayList<>();
+            for (Object value : fields.getOrDefault(field, List.of())) {
+                messages.add(parse((byte[]) value));
+            }
+            return messages;
+        }
+
+        long[] packedFixed64(int field) {
+            ByteBuffer buffer = ByteBuffer.wrap((byte[]) fields.get(field).get(0)).order(ByteOrder.LITTLE_ENDIAN);
+            long[] values = new long[buffer.remaining() / Long.BYTES];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = buffer.getLong();
+            }
+            return values;
+        }
+    }
+}
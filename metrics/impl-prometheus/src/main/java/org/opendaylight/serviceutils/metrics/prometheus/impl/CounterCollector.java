@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.opendaylight.serviceutils.metrics.Counter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricChild;
+
+/**
+ * Package private Prometheus collector of {@link Counter}s.  These can be decremented, so they are exposed as gauges
+ * (and not as Prometheus counters, which must never decrease).
+ *
+ * <p>This does not use the Prometheus simpleclient's Gauge, because that holds a double; the value of each child is
+ * instead a {@link LongAdder}, so that {@link Counter#get()} is exact, and concurrent updates do not contend.
+ */
+final class CounterCollector extends LabeledCollector<CounterCollector.CounterAdapter> {
+
+    CounterCollector(MetricDescriptor descriptor, List<String> labelNames, int maxCardinality, Runnable onOverflow) {
+        super(descriptor, labelNames, maxCardinality, onOverflow);
+    }
+
+    Counter unlabeled() {
+        return child(LabelValues.EMPTY, CounterAdapter::new);
+    }
+
+    Object labeled() {
+        return labeled(CounterAdapter::new);
+    }
+
+    @Override
+    Type type() {
+        return Type.GAUGE;
+    }
+
+    @Override
+    void writeSamples(SampleSink sink, LabelValues labelValues, CounterAdapter child) {
+        sink.sample(name, "", labelNames, labelValues, null, child.get());
+    }
+
+    final class CounterAdapter extends MetricChild implements Counter {
+        private final LongAdder value = new LongAdder();
+
+        CounterAdapter(LabelValues labelValues) {
+            super(labelValues);
+        }
+
+        @Override
+        public void increment(long howMany) {
+            touch();
+            value.add(howMany);
+        }
+
+        @Override
+        public void decrement(long howMany) {
+            touch();
+            value.add(-howMany);
+        }
+
+        @Override
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        protected void removeRegistration() {
+            removeChild(labelValues(), this);
+        }
+    }
+}
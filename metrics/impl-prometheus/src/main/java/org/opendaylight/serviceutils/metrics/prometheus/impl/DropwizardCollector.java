@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import io.prometheus.client.Collector;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Package private Prometheus collector which exposes the metrics of a Dropwizard {@link MetricRegistry}, reading
+ * them on each scrape, instead of keeping a copy of them (as the Prometheus simpleclient_dropwizard does).  Metrics
+ * which are added to or removed from the registry later are thus exposed, or not, as well.
+ *
+ * <p>The names of the metrics are sanitized, and prefixed.  Counters (which can be decremented) are exposed as gauges,
+ * Meters as counters, and Histograms and Timers as summaries with quantiles, the latter in seconds.  Gauges whose value
+ * is not a number nor a boolean are skipped.
+ */
+final class DropwizardCollector extends Collector implements Collector.Describable, StreamingCollector {
+    private static final Logger LOG = LoggerFactory.getLogger(DropwizardCollector.class);
+    private static final double NANOS_TO_SECONDS = 1.0 / Duration.ofSeconds(1).toNanos();
+    private static final List<String> QUANTILE_LABEL_NAMES = HdrSummary.quantileLabelNames(List.of());
+
+    private final MetricRegistry registry;
+    private final String prefix;
+    // Sanitized names and help texts per name in the registry, so that scrapes do not need to compute them again
+    private final Map<String, String[]> names = new ConcurrentHashMap<>();
+
+    DropwizardCollector(MetricRegistry registry, String prefix) {
+        this.registry = registry;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        List<MetricFamilySamples> families = new ArrayList<>();
+        forEachMetric((name, help, metric) -> {
+            List<MetricFamilySamples.Sample> samples = new ArrayList<>();
+            // The family is only created afterwards, as the simpleclient copies the samples of counters
+            Type type = writeMetric(name, metric, unused -> SampleSink.toList(samples));
+            if (type != null) {
+                families.add(new MetricFamilySamples(name, type, help, samples));
+            }
+        });
+        return families;
+    }
+
+    /**
+     * Describe this collector as having no metrics: they change over time, and their names are never registered.
+     */
+    @Override
+    public List<MetricFamilySamples> describe() {
+        return List.of();
+    }
+
+    @Override
+    public void write(ScrapeWriter writer) {
+        forEachMetric((name, help, metric) -> {
+            if (writer.includes(name)) {
+                writeMetric(name, metric, type -> writer.family(name, type, help));
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface MetricConsumer {
+        void accept(String name, String help, Metric metric);
+    }
+
+    private void forEachMetric(MetricConsumer consumer) {
+        Map<String, Metric> metrics = registry.getMetrics();
+        if (names.size() > metrics.size() * 2) {
+            // Forget the names of removed metrics
+            names.clear();
+        }
+        metrics.forEach((dropwizardName, metric) -> {
+            String[] nameAndHelp = names.computeIfAbsent(dropwizardName, key -> new String[] {
+                sanitizeMetricName(prefix + key), "Dropwizard metric " + key });
+            consumer.accept(nameAndHelp[0], nameAndHelp[1], metric);
+        });
+    }
+
+    /**
+     * Write the samples of a metric.
+     *
+     * @param family starts the family of the metric, of the given type, and returns the sink of its samples
+     * @return the type of the metric, or null if it was skipped
+     */
+    private static @Nullable Type writeMetric(String name, Metric metric, Function<Type, SampleSink> family) {
+        if (metric instanceof Gauge<?> gauge) {
+            Object value = gaugeValue(name, gauge);
+            if (value instanceof Number number) {
+                family.apply(Type.GAUGE).sample(name, "", List.of(), LabelValues.EMPTY, null, number.doubleValue());
+            } else if (value instanceof Boolean bool) {
+                family.apply(Type.GAUGE).sample(name, "", List.of(), LabelValues.EMPTY, null, bool ? 1 : 0);
+            } else {
+                return null;
+            }
+            return Type.GAUGE;
+        } else if (metric instanceof Counter counter) {
+            family.apply(Type.GAUGE).sample(name, "", List.of(), LabelValues.EMPTY, null, counter.getCount());
+            return Type.GAUGE;
+        } else if (metric instanceof Meter meter) {
+            family.apply(Type.COUNTER).sample(name, "_total", List.of(), LabelValues.EMPTY, null, meter.getCount());
+            return Type.COUNTER;
+        } else if (metric instanceof Timer timer) {
+            writeSummary(family.apply(Type.SUMMARY), name, timer.getSnapshot(), timer.getCount(), NANOS_TO_SECONDS);
+            return Type.SUMMARY;
+        } else if (metric instanceof Histogram histogram) {
+            writeSummary(family.apply(Type.SUMMARY), name, histogram.getSnapshot(), histogram.getCount(), 1);
+            return Type.SUMMARY;
+        } else {
+            return null;
+        }
+    }
+
+    private static void writeSummary(SampleSink sink, String name, Snapshot snapshot, long count, double unit) {
+        for (int i = 0; i < HdrSummary.QUANTILES.length; i++) {
+            sink.sample(name, "", QUANTILE_LABEL_NAMES, LabelValues.EMPTY, HdrSummary.QUANTILE_LABEL_VALUES[i],
+                snapshot.getValue(HdrSummary.QUANTILES[i]) * unit);
+        }
+        sink.sample(name, "_count", List.of(), LabelValues.EMPTY, null, count);
+        // Dropwizard keeps no sum, and the mean is that of the values in the reservoir only, so this is an estimate
+        sink.sample(name, "_sum", List.of(), LabelValues.EMPTY, null, snapshot.getMean() * count * unit);
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private static @Nullable Object gaugeValue(String name, Gauge<?> gauge) {
+        try {
+            return gauge.getValue();
+        } catch (RuntimeException e) {
+            LOG.debug("Failed to read gauge {}", name, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+import org.opendaylight.serviceutils.metrics.Gauge;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricChild;
+
+/**
+ * Package private Prometheus collector of pull based {@link Gauge}s, which reads their suppliers on each scrape.
+ */
+final class GaugeCollector extends LabeledCollector<GaugeCollector.GaugeAdapter> {
+
+    GaugeCollector(MetricDescriptor descriptor, List<String> labelNames, int maxCardinality, Runnable onOverflow) {
+        super(descriptor, labelNames, maxCardinality, onOverflow);
+    }
+
+    Gauge child(LabelValues labelValues, LongSupplier supplier) {
+        return child(labelValues, newLabelValues -> new GaugeAdapter(newLabelValues, supplier));
+    }
+
+    @Override
+    Type type() {
+        return Type.GAUGE;
+    }
+
+    @Override
+    void writeSamples(SampleSink sink, LabelValues labelValues, GaugeAdapter child) {
+        sink.sample(name, "", labelNames, labelValues, null, child.get());
+    }
+
+    final class GaugeAdapter extends MetricChild implements Gauge {
+        private final LongSupplier supplier;
+
+        GaugeAdapter(LabelValues labelValues, LongSupplier supplier) {
+            super(labelValues);
+            this.supplier = supplier;
+        }
+
+        @Override
+        public long get() {
+            return supplier.getAsLong();
+        }
+
+        @Override
+        protected boolean isIdle(long timeoutNanos, long nowNanos) {
+            // Gauges are read, not updated
+            return false;
+        }
+
+        @Override
+        protected void removeRegistration() {
+            removeChild(labelValues(), this);
+        }
+    }
+}
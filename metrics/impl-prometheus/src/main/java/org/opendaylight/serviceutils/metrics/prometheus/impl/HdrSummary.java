@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import io.prometheus.client.Collector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+
+/**
+ * Package private cumulative summary of recorded values, exposed with quantiles.
+ *
+ * <p>This does not use the Prometheus simpleclient's Summary, because that takes a lock on every observation; values
+ * are instead recorded into a wait-free <a href="http://hdrhistogram.org">HdrHistogram</a> {@link Recorder}, and
+ * only folded into the cumulative histogram (under a lock) on scrape.
+ */
+final class HdrSummary {
+    private static final int SIGNIFICANT_DIGITS = 3;
+    // Also used by the DropwizardCollector
+    static final double[] QUANTILES = { 0.5, 0.75, 0.95, 0.98, 0.99, 0.999 };
+    static final String QUANTILE_LABEL = "quantile";
+    static final String[] QUANTILE_LABEL_VALUES = Arrays.stream(QUANTILES)
+        .mapToObj(Collector::doubleToGoString).toArray(String[]::new);
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Histogram accumulated = new Histogram(SIGNIFICANT_DIGITS);
+    private final LongAdder sum = new LongAdder();
+    private Histogram interval;
+
+    HdrSummary() {
+        interval = recorder.getIntervalHistogram();
+    }
+
+    /**
+     * Return the label names of the quantile samples of a metric with the given label names.
+     */
+    static List<String> quantileLabelNames(List<String> labelNames) {
+        List<String> names = new ArrayList<>(labelNames);
+        names.add(QUANTILE_LABEL);
+        return List.copyOf(names);
+    }
+
+    /**
+     * Record a value, which must not be negative.
+     */
+    void record(long value) {
+        recorder.recordValue(value);
+        sum.add(value);
+    }
+
+    long count() {
+        return snapshot().getTotalCount();
+    }
+
+    synchronized Histogram snapshot() {
+        interval = recorder.getIntervalHistogram(interval);
+        accumulated.add(interval);
+        return accumulated.copy();
+    }
+
+    /**
+     * Write the quantile, <code>_count</code> and <code>_sum</code> samples of this summary.
+     *
+     * @param unit factor to convert the recorded values to the exposed unit
+     */
+    void writeSamples(SampleSink sink, String name, List<String> labelNames, List<String> quantileLabelNames,
+            LabelValues labelValues, double unit) {
+        Histogram snapshot = snapshot();
+        for (int i = 0; i < QUANTILES.length; i++) {
+            sink.sample(name, "", quantileLabelNames, labelValues, QUANTILE_LABEL_VALUES[i],
+                snapshot.getValueAtPercentile(QUANTILES[i] * 100) * unit);
+        }
+        sink.sample(name, "_count", labelNames, labelValues, null, snapshot.getTotalCount());
+        sink.sample(name, "_sum", labelNames, labelValues, null, sum.sum() * unit);
+    }
+}
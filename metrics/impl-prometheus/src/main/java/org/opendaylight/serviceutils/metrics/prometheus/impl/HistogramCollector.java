@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import java.util.List;
+import org.opendaylight.serviceutils.metrics.Histogram;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricChild;
+
+/**
+ * Package private Prometheus collector of {@link Histogram}s, exposed as a summary with quantiles, see
+ * {@link HdrSummary}.
+ */
+final class HistogramCollector extends LabeledCollector<HistogramCollector.HistogramAdapter> {
+    private final List<String> quantileLabelNames;
+
+    HistogramCollector(MetricDescriptor descriptor, List<String> labelNames, int maxCardinality, Runnable onOverflow) {
+        super(descriptor, labelNames, maxCardinality, onOverflow);
+        quantileLabelNames = HdrSummary.quantileLabelNames(labelNames);
+    }
+
+    Histogram unlabeled() {
+        return child(LabelValues.EMPTY, HistogramAdapter::new);
+    }
+
+    Object labeled() {
+        return labeled(HistogramAdapter::new);
+    }
+
+    @Override
+    Type type() {
+        return Type.SUMMARY;
+    }
+
+    @Override
+    void writeSamples(SampleSink sink, LabelValues labelValues, HistogramAdapter child) {
+        child.summary.writeSamples(sink, name, labelNames, quantileLabelNames, labelValues, 1);
+    }
+
+    final class HistogramAdapter extends MetricChild implements Histogram {
+        private final HdrSummary summary = new HdrSummary();
+
+        HistogramAdapter(LabelValues labelValues) {
+            super(labelValues);
+        }
+
+        @Override
+        public void update(long value) {
+            if (value >= 0) {
+                touch();
+                summary.record(value);
+            }
+        }
+
+        @Override
+        public long count() {
+            return summary.count();
+        }
+
+        @Override
+        protected void removeRegistration() {
+            removeChild(labelValues(), this);
+        }
+    }
+}
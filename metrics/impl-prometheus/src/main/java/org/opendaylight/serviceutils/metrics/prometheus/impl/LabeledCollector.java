@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.spi.ChildCache;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricChild;
+
+/**
+ * Package private base class of our own Prometheus {@link Collector}s, for metric types which the Prometheus
+ * simpleclient does not offer the way we want them. Holds the children per label values of one metric, in a
+ * {@link ChildCache}.
+ *
+ * <p>Subclasses pass their samples to a {@link SampleSink}, so that the {@link ScrapeWriter} can stream them out
+ * without building the Prometheus simpleclient's samples first; {@link #collect()} builds those on top of that.
+ *
+ * <p>Once all children were closed, this unregisters itself from its {@link CollectorRegistry}, so that scrapes no
+ * longer see it at all; it registers itself again when it gets a new child.  The children are reference counted
+ * atomically, and whoever moves the count from or to zero brings the registration in line with the current count,
+ * under the lock of this, so that concurrent creation and closing of children always end up with the right state.
+ *
+ * @param <C> type of the children
+ */
+abstract class LabeledCollector<C extends MetricChild> extends Collector
+        implements Collector.Describable, StreamingCollector {
+    final String name;
+    final String help;
+    final List<String> labelNames;
+
+    private final ChildCache<C> children;
+    private final AtomicInteger childCount = new AtomicInteger();
+    @GuardedBy("this")
+    private @Nullable CollectorRegistry registry;
+    @GuardedBy("this")
+    private boolean registered;
+
+    LabeledCollector(MetricDescriptor descriptor, List<String> labelNames, int maxCardinality, Runnable onOverflow) {
+        // Same as what the simpleclient's SimpleCollector.Builder does for namespace("opendaylight").subsystem(project)
+        name = "opendaylight_" + descriptor.project() + "_" + descriptor.module() + "_" + descriptor.id();
+        // The label names were already validated by the MetricFamilies
+        checkMetricName(name);
+        help = descriptor.description();
+        this.labelNames = List.copyOf(labelNames);
+        children = new ChildCache<>(labelNames.size(), maxCardinality, onOverflow);
+    }
+
+    /**
+     * Register this with the given registry, and remember it, to unregister from and register again with it later.
+     * This registers right away, even without children yet, so that conflicting names are reported to the creator.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public final synchronized <T extends Collector> T register(CollectorRegistry newRegistry) {
+        if (registry != null) {
+            throw new IllegalStateException(name + " is already registered");
+        }
+        newRegistry.register(this);
+        registry = newRegistry;
+        registered = true;
+        return (T) this;
+    }
+
+    final C child(LabelValues labelValues, Function<LabelValues, C> factory) {
+        return children.child(labelValues, newLabelValues -> newChild(newLabelValues, factory));
+    }
+
+    final Object labeled(Function<LabelValues, C> factory) {
+        return children.labeled(newLabelValues -> newChild(newLabelValues, factory));
+    }
+
+    final void removeChild(LabelValues labelValues, C child) {
+        if (children.remove(labelValues, child) && childCount.decrementAndGet() == 0) {
+            updateRegistration();
+        }
+    }
+
+    // Invoked by the ChildCache only when it actually adds the child
+    private C newChild(LabelValues labelValues, Function<LabelValues, C> factory) {
+        C child = factory.apply(labelValues);
+        if (childCount.getAndIncrement() == 0) {
+            try {
+                updateRegistration();
+            } catch (IllegalArgumentException e) {
+                // Another metric took our name while we had no children; the child is not added
+                childCount.decrementAndGet();
+                throw e;
+            }
+        }
+        return child;
+    }
+
+    /**
+     * Register or unregister this, as per the current number of children.
+     */
+    private synchronized void updateRegistration() {
+        boolean used = childCount.get() > 0;
+        CollectorRegistry current = registry;
+        if (current != null && used != registered) {
+            if (used) {
+                current.register(this);
+            } else {
+                current.unregister(this);
+            }
+            registered = used;
+        }
+    }
+
+    /**
+     * Close the children which were not updated for the given time, see {@link ChildCache#evictIdle(long, long)}.
+     */
+    final void evictIdle(long timeoutNanos, long nowNanos) {
+        children.evictIdle(timeoutNanos, nowNanos);
+    }
+
+    @Override
+    public final List<MetricFamilySamples> collect() {
+        List<MetricFamilySamples.Sample> samples = new ArrayList<>();
+        SampleSink sink = SampleSink.toList(samples);
+        children.forEach((labelValues, child) -> writeSamples(sink, labelValues, child));
+        return List.of(new MetricFamilySamples(name, type(), help, samples));
+    }
+
+    /**
+     * Describe this collector without collecting its samples, which {@link CollectorRegistry#register(Collector)}
+     * would otherwise do.
+     */
+    @Override
+    public final List<MetricFamilySamples> describe() {
+        return List.of(new MetricFamilySamples(name, type(), help, List.of()));
+    }
+
+    /**
+     * Write the samples of all children, unless the scrape does not include this metric.
+     */
+    @Override
+    public final void write(ScrapeWriter writer) {
+        if (writer.includes(name)) {
+            SampleSink sink = writer.family(name, type(), help);
+            children.forEach((labelValues, child) -> writeSamples(sink, labelValues, child));
+        }
+    }
+
+    abstract Type type();
+
+    abstract void writeSamples(SampleSink sink, LabelValues labelValues, C child);
+}
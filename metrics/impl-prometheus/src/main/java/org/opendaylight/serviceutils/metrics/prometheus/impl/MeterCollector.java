@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.opendaylight.serviceutils.metrics.Meter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricChild;
+
+/**
+ * Package private Prometheus collector of {@link Meter}s, exposed as Prometheus counters.
+ *
+ * <p>This does not use the Prometheus simpleclient's Counter, because that holds a double, which is no longer exact
+ * above 2<sup>53</sup>, and whose increments cost more than those of a {@link LongAdder}.  The value of each child is
+ * instead a {@link LongAdder}, which is only converted to a double on scrapes.  Marks are thus always striped, and
+ * {@link MetricDescriptor#batched()} has no effect.
+ */
+final class MeterCollector extends LabeledCollector<MeterCollector.MeterAdapter> {
+
+    MeterCollector(MetricDescriptor descriptor, List<String> labelNames, int maxCardinality, Runnable onOverflow) {
+        super(descriptor, labelNames, maxCardinality, onOverflow);
+    }
+
+    Meter unlabeled() {
+        return child(LabelValues.EMPTY, MeterAdapter::new);
+    }
+
+    Object labeled() {
+        return labeled(MeterAdapter::new);
+    }
+
+    @Override
+    Type type() {
+        return Type.COUNTER;
+    }
+
+    @Override
+    void writeSamples(SampleSink sink, LabelValues labelValues, MeterAdapter child) {
+        sink.sample(name, "_total", labelNames, labelValues, null, child.get());
+    }
+
+    final class MeterAdapter extends MetricChild implements Meter {
+        private final LongAdder value = new LongAdder();
+
+        MeterAdapter(LabelValues labelValues) {
+            super(labelValues);
+        }
+
+        @Override
+        public void mark(long howMany) {
+            // Exposed as a counter, which must never decrease
+            if (howMany >= 0) {
+                touch();
+                value.add(howMany);
+            }
+        }
+
+        @Override
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        protected void removeRegistration() {
+            removeChild(labelValues(), this);
+        }
+    }
+}
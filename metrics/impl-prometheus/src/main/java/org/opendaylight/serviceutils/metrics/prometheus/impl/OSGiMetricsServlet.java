@@ -7,28 +7,99 @@
  */
 package org.opendaylight.serviceutils.metrics.prometheus.impl;
 
-import io.prometheus.client.exporter.MetricsServlet;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 import javax.servlet.Servlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.eclipse.jdt.annotation.Nullable;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.http.whiteboard.propertytypes.HttpWhiteboardServletName;
 import org.osgi.service.http.whiteboard.propertytypes.HttpWhiteboardServletPattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-@Component(immediate = true, service = Servlet.class)
+/**
+ * Servlet of the Prometheus scrape, which streams the metrics with a {@link ScrapeWriter}.  It replaces the Prometheus
+ * simpleclient's MetricsServlet, which first collects all samples of the registry, and then writes them out unbuffered.
+ *
+ * <p>Like that, this writes the text format 0.0.4, or OpenMetrics if the <code>Accept</code> header asks for it, and
+ * only the metrics named by <code>name[]</code> parameters, if any.  Additionally, the response is gzipped if the
+ * <code>Accept-Encoding</code> header allows it, as it does for Prometheus itself.
+ *
+ * <p>If the <code>scrapeCacheMillis</code> property of the <code>org.opendaylight.serviceutils.metrics</code>
+ * configuration is set, full scrapes are served from a {@link ScrapeCache}, so that concurrent scrapers share them.
+ * Changes of that property are applied without re-registering this servlet.
+ */
+@Component(immediate = true, service = Servlet.class, configurationPid = "org.opendaylight.serviceutils.metrics")
 @HttpWhiteboardServletName("MetricsServlet")
 @HttpWhiteboardServletPattern("/metrics/prometheus")
-public final class OSGiMetricsServlet extends MetricsServlet {
+public final class OSGiMetricsServlet extends HttpServlet {
+    /**
+     * The configuration properties used by this servlet.
+     */
+    public @interface Configuration {
+        /**
+         * Minimum time (in milliseconds) between two collections of the full scrape, which is shared by all requests
+         * within that time; 0 disables this, and collects the metrics for each request.
+         */
+        int scrapeCacheMillis() default 0;
+    }
+
     private static final Logger LOG = LoggerFactory.getLogger(OSGiMetricsServlet.class);
     private static final long serialVersionUID = 1L;
+    private static final Splitter ENCODING_SPLITTER = Splitter.on(',').trimResults();
+    private static final String GZIP = "gzip";
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    @SuppressFBWarnings(value = "SE_BAD_FIELD", justification = "The servlet is never serialized")
+    private final CollectorRegistry registry;
+    @SuppressFBWarnings(value = { "SE_BAD_FIELD", "MTIA_SUSPECT_SERVLET_INSTANCE_FIELD" },
+        justification = "The servlet is never serialized, and the cache is only replaced on configuration changes")
+    private volatile @Nullable ScrapeCache cache;
+    @SuppressFBWarnings(value = "MTIA_SUSPECT_SERVLET_INSTANCE_FIELD",
+        justification = "Only accessed on configuration changes")
+    private int cacheMillis;
 
     @Activate
-    public OSGiMetricsServlet(@Reference CollectorRegistryProvider provider) {
-        super(provider.registry());
-        LOG.info("Metrics for Prometheus scrape now exposed on /metrics/prometheus");
+    public OSGiMetricsServlet(@Reference CollectorRegistryProvider provider, Configuration configuration) {
+        registry = provider.registry();
+        cacheMillis = Math.max(0, configuration.scrapeCacheMillis());
+        cache = newCache(registry, cacheMillis);
+        LOG.info("Metrics for Prometheus scrape now exposed on /metrics/prometheus{}",
+            cacheMillis > 0 ? ", collected at most every " + cacheMillis + " ms" : "");
+    }
+
+    @Modified
+    synchronized void modified(Configuration configuration) {
+        int newCacheMillis = Math.max(0, configuration.scrapeCacheMillis());
+        if (newCacheMillis != cacheMillis) {
+            cacheMillis = newCacheMillis;
+            cache = newCache(registry, newCacheMillis);
+            LOG.info("Metrics for Prometheus scrape now collected {}",
+                newCacheMillis > 0 ? "at most every " + newCacheMillis + " ms" : "for each request");
+        }
+    }
+
+    private static @Nullable ScrapeCache newCache(CollectorRegistry registry, int cacheMillis) {
+        return cacheMillis > 0 ? new ScrapeCache(registry, Duration.ofMillis(cacheMillis)) : null;
     }
 
     @Deactivate
@@ -36,4 +107,57 @@ public final class OSGiMetricsServlet extends MetricsServlet {
     void deactivate() {
         LOG.info("Metrics for Prometheus scrape no longer exposed");
     }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String contentType = TextFormat.chooseContentType(req.getHeader("Accept"));
+        String[] names = req.getParameterValues("name[]");
+        Set<String> includedNames = names == null ? Set.of() : ImmutableSet.copyOf(names);
+        boolean gzip = acceptsGzip(req.getHeader("Accept-Encoding"));
+        // Filtered scrapes are not cached, they are cheap anyway
+        ScrapeCache currentCache = cache;
+        ScrapeCache.Payload payload = currentCache != null && includedNames.isEmpty() ? currentCache.get(contentType)
+            : null;
+
+        setHeaders(resp, contentType, gzip);
+        if (payload != null) {
+            byte[] bytes = gzip ? payload.gzipped() : payload.plain();
+            resp.setContentLength(bytes.length);
+            try (OutputStream out = resp.getOutputStream()) {
+                out.write(bytes);
+            }
+            return;
+        }
+
+        OutputStream out = gzip ? new GZIPOutputStream(resp.getOutputStream(), GZIP_BUFFER_SIZE)
+            : resp.getOutputStream();
+        try (Writer writer = new OutputStreamWriter(out, UTF_8)) {
+            new ScrapeWriter(writer, contentType, includedNames).write(registry);
+        }
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        doGet(req, resp);
+    }
+
+    private static void setHeaders(HttpServletResponse resp, String contentType, boolean gzip) {
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType(contentType);
+        if (gzip) {
+            resp.setHeader("Content-Encoding", GZIP);
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding != null) {
+            for (String encoding : ENCODING_SPLITTER.split(acceptEncoding)) {
+                // Ignores any weight, but gzip;q=0 is not sent in practice
+                if (encoding.equals(GZIP) || encoding.startsWith(GZIP + ";")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
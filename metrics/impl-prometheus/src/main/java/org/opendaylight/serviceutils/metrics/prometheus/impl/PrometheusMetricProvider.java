@@ -7,39 +7,106 @@
  */
 package org.opendaylight.serviceutils.metrics.prometheus.impl;
 
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.errorprone.annotations.Var;
 import io.prometheus.client.CollectorRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongBiFunction;
+import java.util.function.ToLongFunction;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.serviceutils.metrics.Counter;
+import org.opendaylight.serviceutils.metrics.Gauge;
+import org.opendaylight.serviceutils.metrics.Histogram;
 import org.opendaylight.serviceutils.metrics.Labeled;
 import org.opendaylight.serviceutils.metrics.Meter;
 import org.opendaylight.serviceutils.metrics.MetricDescriptor;
 import org.opendaylight.serviceutils.metrics.MetricProvider;
 import org.opendaylight.serviceutils.metrics.Timer;
+import org.opendaylight.serviceutils.metrics.spi.ChildCache;
+import org.opendaylight.serviceutils.metrics.spi.JvmMetrics;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricFamilies;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of {@link MetricProvider} based on <a href="https://prometheus.io">Prometheus.IO</a>.
  *
+ * <p>In OSGi this reads the <code>labelIdleTimeoutSecs</code>, <code>maxLabelCardinality</code> and
+ * <code>timerBuckets</code> properties of the same <code>org.opendaylight.serviceutils.metrics</code> configuration as
+ * the Dropwizard based implementation.  It also exposes the same JVM metrics as that, prefixed with <code>jvm_</code>.
+ * Changes of that configuration are applied without re-creating this, and thus any of its metrics; new Timer buckets
+ * and a new maximum cardinality only apply to metrics created afterwards.
+ *
  * @author Michael Vorburger.ch
  */
 @Singleton
-@Component(immediate = true, service = { MetricProvider.class, CollectorRegistryProvider.class })
+@Component(immediate = true, service = { MetricProvider.class, CollectorRegistryProvider.class },
+    configurationPid = "org.opendaylight.serviceutils.metrics")
 public final class PrometheusMetricProvider implements MetricProvider, CollectorRegistryProvider, AutoCloseable {
+    /**
+     * The configuration properties used by this implementation.
+     */
+    public @interface Configuration {
+        /**
+         * Time (in seconds) after which labeled children which were not updated are removed; 0 disables this.
+         */
+        int labelIdleTimeoutSecs() default 0;
+
+        /**
+         * Maximum number of children of each labeled metric, unless its descriptor sets one; 0 means no limit.
+         */
+        int maxLabelCardinality() default MetricFamilies.DEFAULT_MAX_CARDINALITY;
+
+        /**
+         * Comma separated upper bounds (in seconds) of the histogram buckets of Timers; if empty, Timers are
+         * summaries with quantiles instead.
+         */
+        String timerBuckets() default DEFAULT_TIMER_BUCKETS;
+    }
+
+    /**
+     * The default buckets of Timers, the same as those of the Prometheus simpleclient's Histogram.
+     */
+    public static final String DEFAULT_TIMER_BUCKETS = "0.005,0.01,0.025,0.05,0.075,0.1,0.25,0.5,0.75,1,2.5,5,7.5,10";
+
     private static final Logger LOG = LoggerFactory.getLogger(PrometheusMetricProvider.class);
 
-    // TODO see if we could share this field and more of below with MetricProviderImpl
-    private final Map<String, MeterNoChildAdapter> meterParents = new ConcurrentHashMap<>();
-    private final Map<List<String>, MeterAdapter> meterChildren = new ConcurrentHashMap<>();
-    private final CollectorRegistry prometheusRegistry = new CollectorRegistry(true);
+    /**
+     * Label value of the child which all new label values go into, once a metric reached its maximum cardinality.
+     */
+    static final String OVERFLOW = ChildCache.OVERFLOW;
+    // Prefix of the names of the JVM metrics, see setUpJvmMetrics()
+    private static final String JVM_PREFIX = "jvm_";
+
+    // Each parent holds its own children
+    private final MetricFamilies<MeterCollector> meterParents = new MetricFamilies<>();
+    private final MetricFamilies<CounterCollector> counterParents = new MetricFamilies<>();
+    private final MetricFamilies<TimerCollector> timerParents = new MetricFamilies<>();
+    private final MetricFamilies<HistogramCollector> histogramParents = new MetricFamilies<>();
+    private final MetricFamilies<GaugeCollector> gaugeParents = new MetricFamilies<>();
+    private final CollectorRegistry prometheusRegistry = new StreamingCollectorRegistry();
+    private volatile List<Duration> timerBuckets;
+    private volatile int maxLabelCardinality;
+    // Guarded by this
+    private @Nullable ScheduledExecutorService idleSweeper;
+    private long labelIdleTimeoutNanos;
 
     /**
      * Constructor. We force passing an existing CollectorRegistry instead of
@@ -47,164 +114,354 @@ public final class PrometheusMetricProvider implements MetricProvider, Collector
      * a problem for use e.g. in tests.
      */
     @Inject
-    @Activate
     public PrometheusMetricProvider() {
-        // Exposed for DI
+        this(Duration.ZERO);
+    }
+
+    @Activate
+    public PrometheusMetricProvider(Configuration configuration) {
+        this(Duration.ofSeconds(Math.max(0, configuration.labelIdleTimeoutSecs())),
+            parseBuckets(configuration.timerBuckets()), configuration.maxLabelCardinality());
+    }
+
+    /**
+     * Constructor, with the default Timer buckets.
+     *
+     * @param labelIdleTimeout time after which labeled children which were not updated are removed, or zero to never
+     *                         remove them
+     */
+    public PrometheusMetricProvider(Duration labelIdleTimeout) {
+        this(labelIdleTimeout, parseBuckets(DEFAULT_TIMER_BUCKETS));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param labelIdleTimeout time after which labeled children which were not updated are removed, or zero to never
+     *                         remove them
+     * @param timerBuckets strictly increasing upper bounds of the histogram buckets of Timers, or empty for Timers
+     *                     which are summaries with quantiles
+     */
+    public PrometheusMetricProvider(Duration labelIdleTimeout, List<Duration> timerBuckets) {
+        this(labelIdleTimeout, timerBuckets, MetricFamilies.DEFAULT_MAX_CARDINALITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param labelIdleTimeout time after which labeled children which were not updated are removed, or zero to never
+     *                         remove them
+     * @param timerBuckets strictly increasing upper bounds of the histogram buckets of Timers, or empty for Timers
+     *                     which are summaries with quantiles
+     * @param maxLabelCardinality maximum number of children of each labeled metric whose descriptor does not set one,
+     *                            or 0 for no limit
+     */
+    public PrometheusMetricProvider(Duration labelIdleTimeout, List<Duration> timerBuckets, int maxLabelCardinality) {
+        this.timerBuckets = checkBuckets(timerBuckets);
+        this.maxLabelCardinality = Math.max(0, maxLabelCardinality);
+        prometheusRegistry.register(new DropwizardCollector(setUpJvmMetrics(), JVM_PREFIX));
+        updateLabelIdleTimeout(labelIdleTimeout.toNanos());
+    }
+
+    @Modified
+    void modified(Configuration configuration) {
+        update(Duration.ofSeconds(Math.max(0, configuration.labelIdleTimeoutSecs())),
+            parseBuckets(configuration.timerBuckets()), configuration.maxLabelCardinality());
+    }
+
+    /**
+     * Apply a changed configuration, as in the constructor.  The new Timer buckets and maximum cardinality only apply
+     * to metrics which are created afterwards.
+     */
+    @VisibleForTesting
+    void update(Duration labelIdleTimeout, List<Duration> newTimerBuckets, int newMaxLabelCardinality) {
+        timerBuckets = checkBuckets(newTimerBuckets);
+        maxLabelCardinality = Math.max(0, newMaxLabelCardinality);
+        updateLabelIdleTimeout(labelIdleTimeout.toNanos());
+    }
+
+    private static List<Duration> checkBuckets(List<Duration> timerBuckets) {
+        @Var Duration previous = Duration.ZERO;
+        for (Duration bucket : timerBuckets) {
+            if (bucket.compareTo(previous) <= 0) {
+                throw new IllegalArgumentException("Timer buckets must be positive and strictly increasing: "
+                    + timerBuckets);
+            }
+            previous = bucket;
+        }
+        return List.copyOf(timerBuckets);
+    }
+
+    @SuppressWarnings("FutureReturnValueIgnored")
+    private synchronized void updateLabelIdleTimeout(long timeoutNanos) {
+        if (timeoutNanos == labelIdleTimeoutNanos) {
+            return;
+        }
+        labelIdleTimeoutNanos = timeoutNanos;
+        if (idleSweeper != null) {
+            idleSweeper.shutdown();
+            idleSweeper = null;
+        }
+        if (timeoutNanos > 0) {
+            ScheduledExecutorService newIdleSweeper = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("serviceutils.metrics.prometheus.IdleSweeper")
+                    .setDaemon(true).build());
+            long period = Math.max(1, timeoutNanos / 2);
+            newIdleSweeper.scheduleAtFixedRate(() -> evictIdle(timeoutNanos, System.nanoTime()), period, period,
+                TimeUnit.NANOSECONDS);
+            idleSweeper = newIdleSweeper;
+        }
+    }
+
+    /**
+     * Set up the same JVM metrics as the Dropwizard based implementation, in a registry of their own, which is read
+     * on each scrape.  Its ThreadsWatcher is not bridged, as it only logs when the thread count and deadlocked
+     * threads, which the thread metrics expose, exceed its thresholds.
+     */
+    private static MetricRegistry setUpJvmMetrics() {
+        MetricRegistry registry = new MetricRegistry();
+        JvmMetrics.registerAll(registry);
+        return registry;
+    }
+
+    private static List<Duration> parseBuckets(String buckets) {
+        List<Duration> durations = new ArrayList<>();
+        for (String bucket : Splitter.on(',').trimResults().omitEmptyStrings().split(buckets)) {
+            durations.add(Duration.ofNanos(Math.round(Double.parseDouble(bucket) * TimeUnit.SECONDS.toNanos(1))));
+        }
+        return durations;
     }
 
     @PreDestroy
     @Deactivate
     public void close() {
+        updateLabelIdleTimeout(0);
         prometheusRegistry.clear();
     }
 
+    /**
+     * Remove all labeled children (except Gauges, which are never updated) which were not updated for the given time.
+     * This must only be invoked by a single thread at a time.
+     *
+     * @param timeoutNanos idle time after which children are removed
+     * @param nowNanos current {@link System#nanoTime()}
+     */
+    @VisibleForTesting
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    void evictIdle(long timeoutNanos, long nowNanos) {
+        try {
+            meterParents.values().forEach(parent -> parent.evictIdle(timeoutNanos, nowNanos));
+            counterParents.values().forEach(parent -> parent.evictIdle(timeoutNanos, nowNanos));
+            timerParents.values().forEach(parent -> parent.evictIdle(timeoutNanos, nowNanos));
+            histogramParents.values().forEach(parent -> parent.evictIdle(timeoutNanos, nowNanos));
+        } catch (RuntimeException ex) {
+            // Otherwise the ScheduledExecutorService would silently stop running this
+            LOG.error("Failed to remove idle children", ex);
+        }
+    }
+
     @Override
     public CollectorRegistry registry() {
         return prometheusRegistry;
     }
 
-    private Meter newOrExistingMeter(MetricDescriptor descriptor, List<String> labelNames, List<String> labelValues) {
-        if (labelNames.size() != labelValues.size()) {
-            throw new IllegalArgumentException();
-        }
-        // TODO see below, don't make this a String but a real (Immutables) class spi.MetricID
-        String fullId = makeID(descriptor, labelNames);
-        MeterNoChildAdapter parent = meterParents.computeIfAbsent(fullId, newId -> {
-            LOG.debug("New parent Meter metric: {}", fullId);
-            return new MeterNoChildAdapter(prometheusRegistry, descriptor, labelNames);
+    private MeterCollector meterParent(MetricDescriptor descriptor, List<String> labelNames) {
+        return meterParents.get(descriptor, labelNames, key -> {
+            LOG.debug("New parent Meter metric: {}", key);
+            return new MeterCollector(descriptor, labelNames, maxCardinality(descriptor),
+                () -> markOverflow(descriptor)).register(prometheusRegistry);
         });
-        if (labelValues.isEmpty()) {
-            return parent;
-        }
+    }
 
-        return meterChildren.computeIfAbsent(labelValues,
-            newLabelValues -> new MeterAdapter(parent.prometheusCounter, labelValues));
+    private int maxCardinality(MetricDescriptor descriptor) {
+        return MetricFamilies.maxCardinality(descriptor, maxLabelCardinality);
     }
 
-    // TODO Wait, this is stupid.. ;) we don't need a String, just a hash-/equal-able object as key for the Map!
-    private static String makeID(MetricDescriptor descriptor, List<String> labelNames) {
-        // This ID here in the Prometheus impl must *NOT* contain the label values
-        StringBuilder sb = new StringBuilder(
-                descriptor.project() + "/" + descriptor.module() + "/" + descriptor.id() + "{");
-        for (String labelName : labelNames) {
-            sb.append(labelName).append(',');
-        }
-        return sb.append("}").toString();
+    private void markOverflow(MetricDescriptor descriptor) {
+        newMeter(MetricFamilies.overflowDescriptor(descriptor)).mark();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <L> L labeled(Object firstLevel) {
+        return (L) firstLevel;
     }
 
     @Override
     @Deprecated(forRemoval = true)
     public Meter newMeter(Object anchor, String id) {
-        // The idea is that this method is removed as soon as all current usages have switched to the new signatures
-        throw new UnsupportedOperationException("TODO Remove this (use the non-@Deprecated alternative method)");
+        return newMeter(MetricFamilies.legacyDescriptor(anchor, id));
     }
 
     @Override
     public Meter newMeter(MetricDescriptor descriptor) {
-        return newOrExistingMeter(descriptor, List.of(), List.of());
+        return meterParent(descriptor, List.of()).unlabeled();
     }
 
     @Override
     public Labeled<Meter> newMeter(MetricDescriptor descriptor, String labelName) {
-        return labelValue -> newOrExistingMeter(descriptor, List.of(labelName), List.of(labelValue));
+        return labeled(meterParent(descriptor, List.of(labelName)).labeled());
     }
 
     @Override
     public Labeled<Labeled<Meter>> newMeter(MetricDescriptor descriptor, String firstLabelName,
             String secondLabelName) {
-        return firstLabelValue -> secondLabelValue -> newOrExistingMeter(descriptor,
-            List.of(firstLabelName, secondLabelName), List.of(firstLabelValue, secondLabelValue));
+        return labeled(meterParent(descriptor, List.of(firstLabelName, secondLabelName)).labeled());
     }
 
     @Override
     public Labeled<Labeled<Labeled<Meter>>> newMeter(MetricDescriptor descriptor, String firstLabelName,
             String secondLabelName, String thirdLabelName) {
-        return firstLabelValue -> secondLabelValue -> thirdLabelValue -> newOrExistingMeter(descriptor,
-            List.of(firstLabelName, secondLabelName, thirdLabelName),
-            List.of(firstLabelValue, secondLabelValue, thirdLabelValue));
+        return labeled(meterParent(descriptor, List.of(firstLabelName, secondLabelName, thirdLabelName)).labeled());
     }
 
     @Override
     public Labeled<Labeled<Labeled<Labeled<Meter>>>> newMeter(MetricDescriptor descriptor, String firstLabelName,
             String secondLabelName, String thirdLabelName, String fourthLabelName) {
-        return firstLabelValue -> secondLabelValue -> thirdLabelValue -> fourthLabelValue ->
-            newOrExistingMeter(descriptor,
-                List.of(firstLabelName, secondLabelName, thirdLabelName, fourthLabelName),
-                List.of(firstLabelValue, secondLabelValue, thirdLabelValue, fourthLabelValue));
+        return labeled(meterParent(descriptor,
+            List.of(firstLabelName, secondLabelName, thirdLabelName, fourthLabelName)).labeled());
     }
 
     @Override
     public Labeled<Labeled<Labeled<Labeled<Labeled<Meter>>>>> newMeter(MetricDescriptor descriptor,
             String firstLabelName, String secondLabelName, String thirdLabelName, String fourthLabelName,
             String fifthLabelName) {
-        return firstLabelValue -> secondLabelValue -> thirdLabelValue -> fourthLabelValue -> fifthLabelValue ->
-            newOrExistingMeter(descriptor,
-                List.of(firstLabelName, secondLabelName, thirdLabelName, fourthLabelName, fifthLabelName),
-                List.of(firstLabelValue, secondLabelValue, thirdLabelValue, fourthLabelValue, fifthLabelValue));
+        return labeled(meterParent(descriptor,
+            List.of(firstLabelName, secondLabelName, thirdLabelName, fourthLabelName, fifthLabelName)).labeled());
+    }
+
+    private CounterCollector counterParent(MetricDescriptor descriptor, List<String> labelNames) {
+        return counterParents.get(descriptor, labelNames, key -> {
+            LOG.debug("New parent Counter metric: {}", key);
+            return new CounterCollector(descriptor, labelNames, maxCardinality(descriptor),
+                () -> markOverflow(descriptor)).register(prometheusRegistry);
+        });
     }
 
     @Override
     @Deprecated(forRemoval = true)
     public Counter newCounter(Object anchor, String id) {
-        // The idea is that this method is removed as soon as all current usages have switched to the new signatures
-        throw new UnsupportedOperationException("TODO Remove this (use the non-@Deprecated alternative method)");
+        return newCounter(MetricFamilies.legacyDescriptor(anchor, id));
     }
 
     @Override
     public Counter newCounter(MetricDescriptor descriptor) {
-        throw new UnsupportedOperationException("TODO");
+        return counterParent(descriptor, List.of()).unlabeled();
     }
 
     @Override
     public Labeled<Counter> newCounter(MetricDescriptor descriptor, String labelName) {
-        throw new UnsupportedOperationException("TODO");
+        return labeled(counterParent(descriptor, List.of(labelName)).labeled());
     }
 
     @Override
     public Labeled<Labeled<Counter>> newCounter(MetricDescriptor descriptor, String firstLabelName,
             String secondLabelName) {
-        throw new UnsupportedOperationException("TODO");
+        return labeled(counterParent(descriptor, List.of(firstLabelName, secondLabelName)).labeled());
     }
 
     @Override
     public Labeled<Labeled<Labeled<Counter>>> newCounter(MetricDescriptor descriptor, String firstLabelName,
             String secondLabelName, String thirdLabelName) {
-        throw new UnsupportedOperationException("TODO");
+        return labeled(counterParent(descriptor, List.of(firstLabelName, secondLabelName, thirdLabelName))
+            .labeled());
     }
 
     @Override
     public Labeled<Labeled<Labeled<Labeled<Counter>>>> newCounter(MetricDescriptor descriptor, String firstLabelName,
             String secondLabelName, String thirdLabelName, String fourthLabelName) {
-        throw new UnsupportedOperationException("TODO");
+        return labeled(counterParent(descriptor,
+            List.of(firstLabelName, secondLabelName, thirdLabelName, fourthLabelName)).labeled());
     }
 
     @Override
     public Labeled<Labeled<Labeled<Labeled<Labeled<Counter>>>>> newCounter(MetricDescriptor descriptor,
             String firstLabelName, String secondLabelName, String thirdLabelName, String fourthLabelName,
             String fifthLabelName) {
-        throw new UnsupportedOperationException("TODO");
+        return labeled(counterParent(descriptor,
+            List.of(firstLabelName, secondLabelName, thirdLabelName, fourthLabelName, fifthLabelName)).labeled());
+    }
+
+    private TimerCollector timerParent(MetricDescriptor descriptor, List<String> labelNames) {
+        return timerParents.get(descriptor, labelNames, key -> {
+            LOG.debug("New parent Timer metric: {}", key);
+            return new TimerCollector(descriptor, labelNames, maxCardinality(descriptor),
+                () -> markOverflow(descriptor), timerBuckets).register(prometheusRegistry);
+        });
     }
 
     @Override
     @Deprecated(forRemoval = true)
     public Timer newTimer(Object anchor, String id) {
-        // The idea is that this method is removed as soon as all current usages have switched to the new signatures
-        throw new UnsupportedOperationException("TODO Remove this (use the non-@Deprecated alternative method)");
+        return newTimer(MetricFamilies.legacyDescriptor(anchor, id));
     }
 
     @Override
     public Timer newTimer(MetricDescriptor descriptor) {
-        throw new UnsupportedOperationException("TODO");
+        return timerParent(descriptor, List.of()).unlabeled();
     }
 
     @Override
     public Labeled<Timer> newTimer(MetricDescriptor descriptor, String labelName) {
-        throw new UnsupportedOperationException("TODO");
+        return labeled(timerParent(descriptor, List.of(labelName)).labeled());
     }
 
     @Override
     public Labeled<Labeled<Timer>> newTimer(MetricDescriptor descriptor, String firstLabelName,
             String secondLabelName) {
-        throw new UnsupportedOperationException("TODO");
+        return labeled(timerParent(descriptor, List.of(firstLabelName, secondLabelName)).labeled());
+    }
+
+    private HistogramCollector histogramParent(MetricDescriptor descriptor, List<String> labelNames) {
+        return histogramParents.get(descriptor, labelNames, key -> {
+            LOG.debug("New parent Histogram metric: {}", key);
+            return new HistogramCollector(descriptor, labelNames, maxCardinality(descriptor),
+                () -> markOverflow(descriptor)).register(prometheusRegistry);
+        });
+    }
+
+    @Override
+    public Histogram newHistogram(MetricDescriptor descriptor) {
+        return histogramParent(descriptor, List.of()).unlabeled();
+    }
+
+    @Override
+    public Labeled<Histogram> newHistogram(MetricDescriptor descriptor, String labelName) {
+        return labeled(histogramParent(descriptor, List.of(labelName)).labeled());
+    }
+
+    @Override
+    public Labeled<Labeled<Histogram>> newHistogram(MetricDescriptor descriptor, String firstLabelName,
+            String secondLabelName) {
+        return labeled(histogramParent(descriptor, List.of(firstLabelName, secondLabelName)).labeled());
+    }
+
+    private GaugeCollector gaugeParent(MetricDescriptor descriptor, List<String> labelNames) {
+        return gaugeParents.get(descriptor, labelNames, key -> {
+            LOG.debug("New parent Gauge metric: {}", key);
+            return new GaugeCollector(descriptor, labelNames, maxCardinality(descriptor),
+                () -> markOverflow(descriptor)).register(prometheusRegistry);
+        });
+    }
+
+    @Override
+    public Gauge newGauge(MetricDescriptor descriptor, LongSupplier supplier) {
+        return gaugeParent(descriptor, List.of()).child(LabelValues.EMPTY, supplier);
+    }
+
+    @Override
+    public Labeled<Gauge> newGauge(MetricDescriptor descriptor, ToLongFunction<String> supplier, String labelName) {
+        // Gauges are not looked up on a hot path, so these just resolve their children by the LabelValues
+        GaugeCollector parent = gaugeParent(descriptor, List.of(labelName));
+        return labelValue -> parent.child(LabelValues.of(List.of(labelValue)),
+            () -> supplier.applyAsLong(labelValue));
+    }
+
+    @Override
+    public Labeled<Labeled<Gauge>> newGauge(MetricDescriptor descriptor, ToLongBiFunction<String, String> supplier,
+            String firstLabelName, String secondLabelName) {
+        GaugeCollector parent = gaugeParent(descriptor, List.of(firstLabelName, secondLabelName));
+        return firstLabelValue -> secondLabelValue -> parent.child(
+            LabelValues.of(List.of(firstLabelValue, secondLabelValue)),
+            () -> supplier.applyAsLong(firstLabelValue, secondLabelValue));
     }
 }
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.opendaylight.infrautils.utils.concurrent.Executors.shutdownAndAwaitTermination;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.errorprone.annotations.Var;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.eclipse.jdt.annotation.Nullable;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exporter which periodically pushes all metrics to a Prometheus Pushgateway (or anything accepting the same HTTP
+ * API), for controllers which cannot be scraped, e.g. because they are behind NAT, or are too short-lived.
+ *
+ * <p>Each push is one <code>PUT</code> of the whole registry, in the text format 0.0.4 and optionally gzipped, which
+ * replaces all metrics of the grouping key of this controller (its job and instance) on the Pushgateway.  Updates of
+ * the metrics between two pushes are thus batched into one request.  Failed pushes are retried with an exponential
+ * backoff, but never beyond the push interval; the next push has fresher values anyway.
+ *
+ * <p>All of this runs on one thread of its own, so that a slow or unreachable Pushgateway delays nothing else; metric
+ * updates never wait for a push.  The last values are pushed once more when this is deactivated, which waits for
+ * that push to complete.
+ *
+ * <p>This is only active if the <code>pushGatewayUrl</code> property of the
+ * <code>org.opendaylight.serviceutils.metrics</code> configuration is set.  Changes of the <code>push*</code>
+ * properties of that configuration are applied by restarting the pushes only, other changes of it do not affect them.
+ */
+@Component(immediate = true, service = { }, configurationPid = "org.opendaylight.serviceutils.metrics")
+public final class PushGatewayExporter implements AutoCloseable {
+    /**
+     * The configuration properties used by this exporter.
+     */
+    public @interface Configuration {
+        /**
+         * Base URL of the Pushgateway, e.g. <code>http://pushgateway:9091</code>; if empty, nothing is pushed.
+         */
+        String pushGatewayUrl() default "";
+
+        /**
+         * Value of the job label of the pushed metrics.
+         */
+        String pushJob() default "opendaylight";
+
+        /**
+         * Value of the instance label of the pushed metrics; if empty, the host name of this controller.
+         */
+        String pushInstance() default "";
+
+        /**
+         * Time (in seconds) between two pushes.
+         */
+        int pushIntervalSecs() default 15;
+
+        /**
+         * Maximum number of attempts of each push.
+         */
+        int pushMaxAttempts() default 3;
+
+        /**
+         * Time (in milliseconds) before the first retry of a failed push; it doubles with each further retry.
+         */
+        int pushRetryBackoffMillis() default 1000;
+
+        /**
+         * Whether pushes are gzipped.
+         */
+        boolean pushGzip() default true;
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(PushGatewayExporter.class);
+    private static final Duration MAX_TIMEOUT = Duration.ofSeconds(10);
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Where and how metrics are pushed.
+     *
+     * @param uri where to push to, including the grouping key
+     * @param interval time between two pushes
+     * @param maxAttempts maximum number of attempts of each push
+     * @param retryBackoff time before the first retry of a failed push
+     * @param gzip whether pushes are gzipped
+     */
+    private record Target(URI uri, Duration interval, int maxAttempts, Duration retryBackoff, boolean gzip) {
+        int timeoutMillis() {
+            return (int) (interval.compareTo(MAX_TIMEOUT) < 0 ? interval : MAX_TIMEOUT).toMillis();
+        }
+    }
+
+    private final CollectorRegistry registry;
+    // Guarded by this
+    private @Nullable Target target;
+    private @Nullable ScheduledExecutorService executor;
+
+    @Activate
+    public PushGatewayExporter(@Reference CollectorRegistryProvider provider, Configuration configuration) {
+        registry = provider.registry();
+        start(target(configuration));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param uri where to push to, including the grouping key, or null to not push at all
+     * @param interval time between two pushes
+     * @param maxAttempts maximum number of attempts of each push
+     * @param retryBackoff time before the first retry of a failed push
+     * @param gzip whether pushes are gzipped
+     */
+    PushGatewayExporter(CollectorRegistry registry, @Nullable URI uri, Duration interval, int maxAttempts,
+            Duration retryBackoff, boolean gzip) {
+        this.registry = registry;
+        start(uri != null ? new Target(uri, interval, Math.max(1, maxAttempts), retryBackoff, gzip) : null);
+    }
+
+    @Modified
+    void modified(Configuration configuration) {
+        Target newTarget = target(configuration);
+        synchronized (this) {
+            if (!Objects.equals(newTarget, target)) {
+                stop(false);
+                start(newTarget);
+            }
+        }
+    }
+
+    private static @Nullable Target target(Configuration configuration) {
+        return configuration.pushGatewayUrl().isEmpty() ? null
+            : new Target(groupingUri(configuration.pushGatewayUrl(), configuration.pushJob(),
+                    configuration.pushInstance().isEmpty() ? hostName() : configuration.pushInstance()),
+                Duration.ofSeconds(Math.max(1, configuration.pushIntervalSecs())),
+                Math.max(1, configuration.pushMaxAttempts()),
+                Duration.ofMillis(Math.max(0, configuration.pushRetryBackoffMillis())), configuration.pushGzip());
+    }
+
+    @SuppressWarnings("FutureReturnValueIgnored")
+    private synchronized void start(@Nullable Target newTarget) {
+        target = newTarget;
+        if (newTarget != null) {
+            ScheduledExecutorService newExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("serviceutils.metrics.prometheus.PushGatewayExporter").setDaemon(true).build());
+            long periodNanos = newTarget.interval().toNanos();
+            newExecutor.scheduleWithFixedDelay(() -> pushTo(newTarget, newTarget.maxAttempts()), periodNanos,
+                periodNanos, TimeUnit.NANOSECONDS);
+            executor = newExecutor;
+            LOG.info("Metrics now pushed to {} every {}", newTarget.uri(), newTarget.interval());
+        }
+    }
+
+    private synchronized void stop(boolean pushLast) {
+        Target oldTarget = target;
+        ScheduledExecutorService oldExecutor = executor;
+        if (oldTarget != null && oldExecutor != null) {
+            if (pushLast) {
+                // Periodic pushes are cancelled by the shutdown, but this last one still runs
+                oldExecutor.execute(() -> pushTo(oldTarget, 1));
+            }
+            shutdownAndAwaitTermination(oldExecutor);
+            LOG.info("Metrics no longer pushed to {}", oldTarget.uri());
+        }
+        target = null;
+        executor = null;
+    }
+
+    @Override
+    @Deactivate
+    public void close() {
+        stop(true);
+    }
+
+    /**
+     * Push the metrics to the current target, retrying failed attempts.
+     *
+     * @param attempts maximum number of attempts
+     * @return true if the push succeeded
+     */
+    @VisibleForTesting
+    boolean push(int attempts) {
+        Target currentTarget;
+        synchronized (this) {
+            currentTarget = target;
+        }
+        return currentTarget != null && pushTo(currentTarget, attempts);
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private boolean pushTo(Target pushTarget, int attempts) {
+        URI uri = pushTarget.uri();
+        byte[] body;
+        try {
+            body = serialize(pushTarget.gzip());
+        } catch (IOException | RuntimeException e) {
+            // Otherwise the ScheduledExecutorService would silently stop pushing
+            LOG.error("Failed to collect the metrics to push", e);
+            return false;
+        }
+
+        @Var long backoffNanos = pushTarget.retryBackoff().toNanos();
+        long deadline = System.nanoTime() + pushTarget.interval().toNanos();
+        for (int attempt = 1; ; attempt++) {
+            @Var String failure;
+            try {
+                int status = send(pushTarget, body);
+                if (status / 100 == 2) {
+                    return true;
+                }
+                failure = "HTTP status " + status;
+                if (status != HTTP_TOO_MANY_REQUESTS && status / 100 != 5) {
+                    // The request itself is wrong, so retrying it does not help
+                    LOG.warn("Push of metrics to {} rejected with {}", uri, failure);
+                    return false;
+                }
+            } catch (IOException e) {
+                failure = e.toString();
+            }
+
+            if (attempt >= attempts || System.nanoTime() + backoffNanos >= deadline) {
+                LOG.warn("Push of metrics to {} failed after {} attempt(s), last with {}", uri, attempt, failure);
+                return false;
+            }
+            LOG.debug("Push of metrics to {} failed with {}, retrying in {} ns", uri, failure, backoffNanos);
+            try {
+                TimeUnit.NANOSECONDS.sleep(backoffNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            backoffNanos *= 2;
+        }
+    }
+
+    private byte[] serialize(boolean gzip) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes;
+        try (Writer writer = new OutputStreamWriter(out, UTF_8)) {
+            new ScrapeWriter(writer, TextFormat.CONTENT_TYPE_004, Set.of()).write(registry);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int send(Target target, byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) target.uri().toURL().openConnection();
+        connection.setRequestMethod("PUT");
+        int timeoutMillis = target.timeoutMillis();
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", TextFormat.CONTENT_TYPE_004);
+        if (target.gzip()) {
+            connection.setRequestProperty("Content-Encoding", "gzip");
+        }
+        connection.setFixedLengthStreamingMode((long) body.length);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+
+        int status = connection.getResponseCode();
+        // Read the response fully, so that the connection can be kept alive for the next push
+        try (InputStream in = status < HttpURLConnection.HTTP_BAD_REQUEST ? connection.getInputStream()
+                : connection.getErrorStream()) {
+            if (in != null) {
+                in.readAllBytes();
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Return the URI of the metrics of a grouping key, encoding its label values as the Pushgateway expects.
+     */
+    @VisibleForTesting
+    static URI groupingUri(String baseUrl, String job, String instance) {
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        return URI.create(base + "/metrics/" + groupingPathElement("job", job) + "/"
+            + groupingPathElement("instance", instance));
+    }
+
+    private static String groupingPathElement(String name, String value) {
+        if (value.isEmpty()) {
+            // An empty value can only be expressed in base64
+            return name + "@base64/=";
+        }
+        if (value.indexOf('/') >= 0) {
+            return name + "@base64/" + Base64.getUrlEncoder().encodeToString(value.getBytes(UTF_8));
+        }
+        return name + "/" + URLEncoder.encode(value, UTF_8).replace("+", "%20");
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            LOG.warn("Failed to determine the host name, pushing metrics with an empty instance label", e);
+            return "";
+        }
+    }
+}
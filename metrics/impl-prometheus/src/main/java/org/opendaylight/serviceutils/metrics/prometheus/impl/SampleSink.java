@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import io.prometheus.client.Collector.MetricFamilySamples.Sample;
+import java.util.List;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+
+/**
+ * Package private receiver of the samples of a {@link LabeledCollector}: either the {@link ScrapeWriter}, which writes
+ * them out directly, or a list of Prometheus simpleclient samples, see {@link #toList(List)}.  The sample
+ * name and the extra label value are passed in parts, so that writing a sample does not need to allocate anything.
+ */
+@FunctionalInterface
+interface SampleSink {
+    /**
+     * Return a sink which adds the samples to a list.
+     */
+    static SampleSink toList(List<Sample> samples) {
+        return (name, suffix, labelNames, labelValues, extraLabelValue, value) -> samples.add(new Sample(name + suffix,
+            labelNames, extraLabelValue == null ? labelValues.asList() : labelValues.append(extraLabelValue).asList(),
+            value));
+    }
+
+    /**
+     * Accept a sample.
+     *
+     * @param name name of the metric
+     * @param suffix suffix of the sample name, e.g. <code>_count</code>, or empty
+     * @param labelNames label names of the sample, including the name of the extra label, if any
+     * @param labelValues label values of the child
+     * @param extraLabelValue value of an extra label after the ones of the child, e.g. <code>le</code> or
+     *                        <code>quantile</code>, or null
+     * @param value value of the sample
+     */
+    void sample(String name, String suffix, List<String> labelNames, LabelValues labelValues,
+        @Nullable String extraLabelValue, double value);
+}
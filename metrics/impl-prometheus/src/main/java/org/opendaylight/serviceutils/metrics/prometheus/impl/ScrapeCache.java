@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Throwables;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPOutputStream;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Package private cache of the full Prometheus scrape, in front of the {@link OSGiMetricsServlet}, which bounds the
+ * CPU spent on collecting metrics no matter how many scrapers there are.
+ *
+ * <p>A scrape is reused for all requests (of the same content type) within a minimum refresh interval from when it
+ * was started.  Only one scrape per content type is ever in flight; requests arriving meanwhile wait for it, and then
+ * share its result.  Its gzipped form is compressed on the first request which accepts it, and then shared as well.
+ */
+final class ScrapeCache {
+    /**
+     * A serialized scrape.
+     */
+    static final class Payload {
+        private final byte[] plain;
+        @GuardedBy("this")
+        private byte @Nullable [] gzipped;
+
+        Payload(byte[] plain) {
+            this.plain = plain;
+        }
+
+        byte[] plain() {
+            return plain;
+        }
+
+        synchronized byte[] gzipped() throws IOException {
+            byte[] existing = gzipped;
+            if (existing != null) {
+                return existing;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(plain.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+                gzip.write(plain);
+            }
+            byte[] created = bytes.toByteArray();
+            gzipped = created;
+            return created;
+        }
+    }
+
+    private static final class Slot {
+        @GuardedBy("this")
+        private @Nullable CompletableFuture<Payload> current;
+        @GuardedBy("this")
+        private long startedNanos;
+    }
+
+    private final CollectorRegistry registry;
+    private final long minRefreshNanos;
+    private final LongSupplier nanoTime;
+    private final Slot textSlot = new Slot();
+    private final Slot openMetricsSlot = new Slot();
+
+    ScrapeCache(CollectorRegistry registry, Duration minRefreshInterval) {
+        this(registry, minRefreshInterval, System::nanoTime);
+    }
+
+    ScrapeCache(CollectorRegistry registry, Duration minRefreshInterval, LongSupplier nanoTime) {
+        this.registry = registry;
+        minRefreshNanos = minRefreshInterval.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Return the full scrape in the given content type, scraping the registry if the cached one is too old.
+     *
+     * @param contentType as for {@link ScrapeWriter#ScrapeWriter(Writer, String, Set)}
+     * @throws IOException if this or a concurrent scrape failed
+     */
+    @SuppressWarnings({ "checkstyle:IllegalCatch", "checkstyle:AvoidHidingCauseException" })
+    Payload get(String contentType) throws IOException {
+        Slot slot = TextFormat.CONTENT_TYPE_OPENMETRICS_100.equals(contentType) ? openMetricsSlot : textSlot;
+        CompletableFuture<Payload> future;
+        boolean leader;
+        synchronized (slot) {
+            long now = nanoTime.getAsLong();
+            CompletableFuture<Payload> current = slot.current;
+            // A scrape still in flight is never replaced
+            leader = current == null || current.isDone() && now - slot.startedNanos >= minRefreshNanos;
+            if (leader) {
+                future = new CompletableFuture<>();
+                slot.current = future;
+                slot.startedNanos = now;
+            } else {
+                future = current;
+            }
+        }
+
+        if (leader) {
+            try {
+                future.complete(scrape(contentType));
+            } catch (IOException | RuntimeException e) {
+                synchronized (slot) {
+                    // Do not serve the failure to later requests
+                    if (slot.current == future) {
+                        slot.current = null;
+                    }
+                }
+                future.completeExceptionally(e);
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            Throwables.throwIfInstanceOf(cause, IOException.class);
+            Throwables.throwIfUnchecked(cause);
+            throw new IOException("Scrape failed", cause);
+        }
+    }
+
+    private Payload scrape(String contentType) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(bytes, UTF_8)) {
+            new ScrapeWriter(writer, contentType, Set.of()).write(registry);
+        }
+        return new Payload(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.prometheus.client.Collector;
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.prometheus.client.Collector.MetricFamilySamples.Sample;
+import io.prometheus.client.Collector.Type;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+
+/**
+ * Writer of one Prometheus scrape of a {@link CollectorRegistry}, in the text format 0.0.4 or in OpenMetrics 1.0.0,
+ * with the same output as the Prometheus simpleclient's {@link TextFormat}.
+ *
+ * <p>Our own {@link StreamingCollector}s of the {@link PrometheusMetricProvider} stream their samples straight into
+ * this, without first building the simpleclient's samples of the whole registry; other collectors are collected one
+ * at a time.  The text is formatted into a reused buffer, which is only flushed to the underlying {@link Writer} in
+ * large chunks, so that e.g. a gzip stream below it sees few and large writes.  Metrics which are not included in the
+ * scrape are skipped without collecting them.
+ *
+ * <p>Instances are not thread safe; each scrape needs its own.
+ */
+public final class ScrapeWriter {
+    private static final int FLUSH_THRESHOLD = 32 * 1024;
+    // Suffixes of the sample names of a metric, which the name[] parameter of a scrape may also use
+    private static final List<String> SUFFIXES =
+        List.of("_total", "_created", "_count", "_sum", "_bucket", "_gcount", "_gsum", "_info");
+    private static final Set<String> OPEN_METRICS_ONLY_SUFFIXES = Set.of("_created", "_gcount", "_gsum");
+    // Integral values below this are formatted the same as by Double.toString(), but without allocating
+    private static final double PLAIN_LIMIT = 1e7;
+    private static final long NEGATIVE_ZERO = Double.doubleToRawLongBits(-0.0);
+
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD * 2);
+    private final char[] chunk = new char[FLUSH_THRESHOLD];
+    private final SampleSink sink = this::sample;
+    private final Writer out;
+    private final boolean openMetrics;
+    private final Set<String> includedNames;
+    // Text format 0.0.4 only: the OpenMetrics specific samples, which the simpleclient writes as gauges at the end
+    private final Map<String, MetricFamilySamples> deferred = new TreeMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param out where to write the scrape to; it is flushed, but not closed
+     * @param contentType either {@link TextFormat#CONTENT_TYPE_004} or {@link TextFormat#CONTENT_TYPE_OPENMETRICS_100},
+     *                    as returned by {@link TextFormat#chooseContentType(String)}
+     * @param includedNames names of the metrics to write, as per the <code>name[]</code> parameters of the scrape, or
+     *                      empty to write all of them
+     * @throws IllegalArgumentException if the content type is not supported
+     */
+    public ScrapeWriter(Writer out, String contentType, Set<String> includedNames) {
+        this.out = out;
+        if (TextFormat.CONTENT_TYPE_OPENMETRICS_100.equals(contentType)) {
+            openMetrics = true;
+        } else if (TextFormat.CONTENT_TYPE_004.equals(contentType)) {
+            openMetrics = false;
+        } else {
+            throw new IllegalArgumentException("Unsupported content type " + contentType);
+        }
+        this.includedNames = Set.copyOf(includedNames);
+    }
+
+    /**
+     * Write the metrics of a registry, and flush the underlying {@link Writer}.
+     *
+     * @param registry the registry to scrape
+     * @throws IOException if writing fails
+     */
+    @SuppressWarnings("checkstyle:AvoidHidingCauseException")
+    public void write(CollectorRegistry registry) throws IOException {
+        try {
+            if (registry instanceof StreamingCollectorRegistry streaming) {
+                for (Collector collector : streaming.collectors()) {
+                    if (collector instanceof StreamingCollector streamingCollector) {
+                        streamingCollector.write(this);
+                    } else {
+                        writeCollected(collector);
+                    }
+                }
+            } else {
+                Enumeration<MetricFamilySamples> families = registry.filteredMetricFamilySamples(includedNames);
+                while (families.hasMoreElements()) {
+                    MetricFamilySamples family = families.nextElement();
+                    if (includes(family.name)) {
+                        writeFamily(family);
+                    }
+                }
+            }
+            for (MetricFamilySamples family : deferred.values()) {
+                writeFamily(family);
+            }
+            if (openMetrics) {
+                buffer.append("# EOF\n");
+            }
+        } catch (UncheckedIOException e) {
+            // Thrown by the flushes while streaming the samples
+            throw e.getCause();
+        }
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Return true if the metric of the given name is included in this scrape.
+     */
+    boolean includes(String name) {
+        if (includedNames.isEmpty() || includedNames.contains(name)) {
+            return true;
+        }
+        for (String suffix : SUFFIXES) {
+            if (includedNames.contains(name + suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write the header of a metric.
+     *
+     * @return the sink of the samples of the metric
+     */
+    SampleSink family(String name, Type type, String help) {
+        header(name, "", type, help);
+        return sink;
+    }
+
+    private void writeCollected(Collector collector) {
+        if (!includedNames.isEmpty() && collector instanceof Collector.Describable describable) {
+            List<MetricFamilySamples> described = describable.describe();
+            if (!described.isEmpty() && described.stream().noneMatch(family -> includes(family.name))) {
+                return;
+            }
+        }
+        for (MetricFamilySamples family : collector.collect()) {
+            if (includes(family.name)) {
+                writeFamily(family);
+            }
+        }
+    }
+
+    private void writeFamily(MetricFamilySamples family) {
+        header(family.name, family.unit, family.type, family.help);
+        for (Sample sample : family.samples) {
+            if (!openMetrics && isOpenMetricsOnly(family.name, sample.name)) {
+                deferred.computeIfAbsent(sample.name,
+                    name -> new MetricFamilySamples(name, Type.GAUGE, family.help, new ArrayList<>()))
+                    .samples.add(sample);
+            } else {
+                sampleLine(sample.name, "", sample.labelNames, sample.labelValues, null, sample.value,
+                    sample.timestampMs);
+            }
+        }
+    }
+
+    private void header(String name, String unit, Type type, String help) {
+        if (openMetrics) {
+            buffer.append("# TYPE ").append(name).append(' ').append(openMetricsType(type)).append('\n');
+            if (!unit.isEmpty()) {
+                buffer.append("# UNIT ").append(name).append(' ').append(unit).append('\n');
+            }
+            buffer.append("# HELP ").append(name).append(' ');
+            appendEscaped(help, true);
+            buffer.append('\n');
+        } else {
+            // The simpleclient names counters and infos by their samples in this format
+            String suffix = type == Type.COUNTER ? "_total" : type == Type.INFO ? "_info" : "";
+            buffer.append("# HELP ").append(name).append(suffix).append(' ');
+            appendEscaped(help, false);
+            buffer.append('\n');
+            buffer.append("# TYPE ").append(name).append(suffix).append(' ').append(textType(type)).append('\n');
+        }
+    }
+
+    private void sample(String name, String suffix, List<String> labelNames, LabelValues labelValues,
+            @Nullable String extraLabelValue, double value) {
+        sampleLine(name, suffix, labelNames, labelValues.asList(), extraLabelValue, value, null);
+    }
+
+    private void sampleLine(String name, String suffix, List<String> labelNames, List<String> labelValues,
+            @Nullable String extraLabelValue, double value, @Nullable Long timestampMs) {
+        buffer.append(name).append(suffix);
+        if (!labelNames.isEmpty()) {
+            buffer.append('{');
+            for (int i = 0; i < labelNames.size(); i++) {
+                if (openMetrics && i > 0) {
+                    buffer.append(',');
+                }
+                buffer.append(labelNames.get(i)).append("=\"");
+                appendEscaped(i < labelValues.size() ? labelValues.get(i) : extraLabelValue, true);
+                buffer.append('"');
+                if (!openMetrics) {
+                    buffer.append(',');
+                }
+            }
+            buffer.append('}');
+        }
+        buffer.append(' ');
+        appendValue(value);
+        if (timestampMs != null) {
+            buffer.append(' ');
+            long millis = timestampMs;
+            if (openMetrics) {
+                // In seconds
+                long fraction = millis % 1000;
+                buffer.append(millis / 1000).append('.').append(fraction < 100 ? fraction < 10 ? "00" : "0" : "")
+                    .append(fraction);
+            } else {
+                buffer.append(millis);
+            }
+        }
+        buffer.append('\n');
+
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            try {
+                flushBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @SuppressFBWarnings(value = "FE_FLOATING_POINT_EQUALITY", justification = "Exactly integral values only")
+    private void appendValue(double value) {
+        long integral = (long) value;
+        if (integral == value && Math.abs(value) < PLAIN_LIMIT && Double.doubleToRawLongBits(value) != NEGATIVE_ZERO) {
+            buffer.append(integral).append(".0");
+        } else {
+            buffer.append(Collector.doubleToGoString(value));
+        }
+    }
+
+    /**
+     * Append a label value or help text, escaping backslashes, new lines and, if asked to, double quotes.
+     */
+    private void appendEscaped(String text, boolean escapeQuotes) {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '\\') {
+                buffer.append("\\\\");
+            } else if (ch == '\n') {
+                buffer.append("\\n");
+            } else if (ch == '"' && escapeQuotes) {
+                buffer.append("\\\"");
+            } else {
+                buffer.append(ch);
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        int length = buffer.length();
+        for (int offset = 0; offset < length; offset += chunk.length) {
+            int end = Math.min(length, offset + chunk.length);
+            buffer.getChars(offset, end, chunk, 0);
+            out.write(chunk, 0, end - offset);
+        }
+        buffer.setLength(0);
+    }
+
+    private static boolean isOpenMetricsOnly(String familyName, String sampleName) {
+        return sampleName.startsWith(familyName)
+            && OPEN_METRICS_ONLY_SUFFIXES.contains(sampleName.substring(familyName.length()));
+    }
+
+    private static String textType(Type type) {
+        return switch (type) {
+            case GAUGE, STATE_SET, INFO -> "gauge";
+            case COUNTER -> "counter";
+            case SUMMARY -> "summary";
+            case HISTOGRAM, GAUGE_HISTOGRAM -> "histogram";
+            case UNKNOWN -> "untyped";
+        };
+    }
+
+    private static String openMetricsType(Type type) {
+        return switch (type) {
+            case GAUGE -> "gauge";
+            case COUNTER -> "counter";
+            case SUMMARY -> "summary";
+            case HISTOGRAM -> "histogram";
+            case GAUGE_HISTOGRAM -> "gauge_histogram";
+            case STATE_SET -> "stateset";
+            case INFO -> "info";
+            case UNKNOWN -> "unknown";
+        };
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import io.prometheus.client.Collector;
+
+/**
+ * Package private {@link Collector} which can write its samples straight into a {@link ScrapeWriter}, instead of
+ * collecting them first.
+ */
+interface StreamingCollector {
+    /**
+     * Write the metrics which the scrape includes, see {@link ScrapeWriter#includes(String)}.
+     */
+    void write(ScrapeWriter writer);
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Package private {@link CollectorRegistry} which also keeps track of its collectors, which the Prometheus
+ * simpleclient's does not expose, so that the {@link ScrapeWriter} can stream their samples.
+ */
+final class StreamingCollectorRegistry extends CollectorRegistry {
+    private final Set<Collector> collectors = ConcurrentHashMap.newKeySet();
+
+    StreamingCollectorRegistry() {
+        super(true);
+    }
+
+    @Override
+    public void register(Collector collector) {
+        // Throws if any of its names is already registered
+        super.register(collector);
+        collectors.add(collector);
+    }
+
+    @Override
+    public void unregister(Collector collector) {
+        // The simpleclient's throws for collectors which are not registered, e.g. after clear()
+        if (collectors.remove(collector)) {
+            super.unregister(collector);
+        }
+    }
+
+    @Override
+    public void clear() {
+        collectors.clear();
+        super.clear();
+    }
+
+    /**
+     * Return the registered collectors, as a weakly consistent view.
+     */
+    Iterable<Collector> collectors() {
+        return collectors;
+    }
+}
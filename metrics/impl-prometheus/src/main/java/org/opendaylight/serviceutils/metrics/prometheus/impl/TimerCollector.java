@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import com.google.errorprone.annotations.Var;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.Timer;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricChild;
+
+/**
+ * Package private Prometheus collector of {@link Timer}s, whose durations are exposed in seconds.
+ *
+ * <p>With buckets, this is a Prometheus histogram, whose children count the durations per bucket in
+ * {@link LongAdder}s; else it is a summary with quantiles, see {@link HdrSummary}.  The Prometheus simpleclient's
+ * Histogram is not used, as that sums the durations up as double.
+ */
+final class TimerCollector extends LabeledCollector<TimerCollector.TimerAdapter> {
+    private static final double NANOS_TO_SECONDS = 1.0 / Duration.ofSeconds(1).toNanos();
+    private static final String BUCKET_LABEL = "le";
+    private static final String INFINITY = "+Inf";
+
+    // Inclusive upper bounds of the buckets (without +Inf), in nanoseconds; empty for a summary
+    private final long[] upperBounds;
+    // The le label values of the buckets, including +Inf
+    private final String[] bucketLabelValues;
+    private final List<String> extraLabelNames;
+
+    /**
+     * Constructor.
+     *
+     * @param buckets strictly increasing upper bounds of the buckets, or empty for a summary
+     */
+    TimerCollector(MetricDescriptor descriptor, List<String> labelNames, int maxCardinality, Runnable onOverflow,
+            List<Duration> buckets) {
+        super(descriptor, labelNames, maxCardinality, onOverflow);
+        upperBounds = buckets.stream().mapToLong(Duration::toNanos).toArray();
+        bucketLabelValues = new String[upperBounds.length + 1];
+        for (int i = 0; i < upperBounds.length; i++) {
+            bucketLabelValues[i] = doubleToGoString(upperBounds[i] * NANOS_TO_SECONDS);
+        }
+        bucketLabelValues[upperBounds.length] = INFINITY;
+        if (upperBounds.length == 0) {
+            extraLabelNames = HdrSummary.quantileLabelNames(labelNames);
+        } else {
+            List<String> names = new ArrayList<>(labelNames);
+            names.add(BUCKET_LABEL);
+            extraLabelNames = List.copyOf(names);
+        }
+    }
+
+    Timer unlabeled() {
+        return child(LabelValues.EMPTY, TimerAdapter::new);
+    }
+
+    Object labeled() {
+        return labeled(TimerAdapter::new);
+    }
+
+    @Override
+    Type type() {
+        return upperBounds.length == 0 ? Type.SUMMARY : Type.HISTOGRAM;
+    }
+
+    @Override
+    void writeSamples(SampleSink sink, LabelValues labelValues, TimerAdapter child) {
+        if (child.summary != null) {
+            child.summary.writeSamples(sink, name, labelNames, extraLabelNames, labelValues, NANOS_TO_SECONDS);
+            return;
+        }
+
+        // Buckets are cumulative, and the +Inf bucket is the count; the sum may be slightly ahead of the buckets
+        @Var long cumulative = 0;
+        for (int i = 0; i < child.buckets.length; i++) {
+            cumulative += child.buckets[i].sum();
+            sink.sample(name, "_bucket", extraLabelNames, labelValues, bucketLabelValues[i], cumulative);
+        }
+        sink.sample(name, "_count", labelNames, labelValues, null, cumulative);
+        sink.sample(name, "_sum", labelNames, labelValues, null, child.sum.sum() * NANOS_TO_SECONDS);
+    }
+
+    final class TimerAdapter extends MetricChild implements Timer {
+        // Either the buckets and their sum, or the summary
+        private final LongAdder[] buckets;
+        private final LongAdder sum = new LongAdder();
+        private final @Nullable HdrSummary summary;
+
+        TimerAdapter(LabelValues labelValues) {
+            super(labelValues);
+            if (upperBounds.length == 0) {
+                buckets = new LongAdder[0];
+                summary = new HdrSummary();
+            } else {
+                buckets = new LongAdder[upperBounds.length + 1];
+                Arrays.setAll(buckets, i -> new LongAdder());
+                summary = null;
+            }
+        }
+
+        @Override
+        public void record(long nanos) {
+            if (nanos < 0) {
+                return;
+            }
+            touch();
+            if (summary != null) {
+                summary.record(nanos);
+            } else {
+                int index = Arrays.binarySearch(upperBounds, nanos);
+                buckets[index >= 0 ? index : -index - 1].increment();
+                sum.add(nanos);
+            }
+        }
+
+        @Override
+        protected void removeRegistration() {
+            removeChild(labelValues(), this);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.codahale.metrics.MetricRegistry;
+import io.prometheus.client.CollectorRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link DropwizardCollector}.
+ */
+public class DropwizardCollectorTest {
+    private final MetricRegistry metrics = new MetricRegistry();
+    private final CollectorRegistry registry = new StreamingCollectorRegistry();
+
+    @Test
+    public void testMetricsAreReadOnScrape() {
+        registry.register(new DropwizardCollector(metrics, "test_"));
+        assertNull(registry.getSampleValue("test_some_counter"));
+
+        // Added after the collector was registered
+        metrics.counter("some.counter").dec(3);
+        metrics.meter("some-meter").mark(5);
+        metrics.timer("some.timer").update(250, TimeUnit.MILLISECONDS);
+        metrics.histogram("some.histogram").update(42);
+        metrics.gauge("some.gauge", () -> () -> 1.5);
+        metrics.gauge("some.flag", () -> () -> true);
+        metrics.gauge("some.text", () -> () -> "not a number");
+
+        assertEquals(-3.0, registry.getSampleValue("test_some_counter"), 0);
+        assertEquals(5.0, registry.getSampleValue("test_some_meter_total"), 0);
+        assertEquals(1.0, registry.getSampleValue("test_some_timer_count"), 0);
+        assertEquals(0.25, registry.getSampleValue("test_some_timer_sum"), 1e-9);
+        assertEquals(42.0, registry.getSampleValue("test_some_histogram_sum"), 1e-9);
+        assertEquals(0.25, registry.getSampleValue("test_some_timer", new String[] { "quantile" },
+            new String[] { "0.99" }), 0);
+        assertEquals(42.0, registry.getSampleValue("test_some_histogram", new String[] { "quantile" },
+            new String[] { "0.5" }), 0);
+        assertEquals(1.5, registry.getSampleValue("test_some_gauge"), 0);
+        assertEquals(1.0, registry.getSampleValue("test_some_flag"), 0);
+        assertNull(registry.getSampleValue("test_some_text"));
+
+        metrics.remove("some.counter");
+        assertNull(registry.getSampleValue("test_some_counter"));
+    }
+
+    @Test
+    public void testProviderExposesJvmMetrics() {
+        CollectorRegistry providerRegistry = new PrometheusMetricProvider().registry();
+        assertThat(providerRegistry.getSampleValue("jvm_heap_used"), greaterThan(0.0));
+        assertThat(providerRegistry.getSampleValue("jvm_count"), greaterThan(0.0));
+        assertNotNull(providerRegistry.getSampleValue("jvm_loaded"));
+    }
+}
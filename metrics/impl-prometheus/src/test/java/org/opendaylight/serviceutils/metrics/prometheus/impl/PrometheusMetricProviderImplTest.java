@@ -10,12 +10,30 @@ package org.opendaylight.serviceutils.metrics.prometheus.impl;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
+import io.prometheus.client.CollectorRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.Test;
+import org.opendaylight.serviceutils.metrics.Counter;
+import org.opendaylight.serviceutils.metrics.Gauge;
+import org.opendaylight.serviceutils.metrics.Histogram;
 import org.opendaylight.serviceutils.metrics.Labeled;
 import org.opendaylight.serviceutils.metrics.Meter;
 import org.opendaylight.serviceutils.metrics.MetricDescriptor;
 import org.opendaylight.serviceutils.metrics.MetricProvider;
+import org.opendaylight.serviceutils.metrics.Timer;
+import org.opendaylight.serviceutils.metrics.spi.MetricFamilies;
 
 /**
  * Unit test for {@link PrometheusMetricProviderImpl}.
@@ -36,6 +54,26 @@ public class PrometheusMetricProviderImplTest {
         }
     }
 
+    @Test
+    @SuppressWarnings("removal")
+    public void testNewMeterWithLegacyId() {
+        try (var meter = metricProvider.newMeter(this, "infrautils.metrics.test_legacy")) {
+            meter.mark(2);
+            assertEquals(2.0, ((PrometheusMetricProvider) metricProvider).registry()
+                .getSampleValue("opendaylight_infrautils_metrics_test_legacy_total"), 0);
+        }
+    }
+
+    @Test
+    public void testMeterIgnoresNegativeMarks() {
+        try (var meter = metricProvider.newMeter(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_negative").build())) {
+            meter.mark(3);
+            meter.mark(-2);
+            assertEquals(3L, meter.get());
+        }
+    }
+
     @Test
     public void testNewMeterWith1FixedLabel() {
         try (var meter = metricProvider.newMeter(
@@ -64,6 +102,29 @@ public class PrometheusMetricProviderImplTest {
         assertEquals(3, againMeterA.get());
     }
 
+    @Test
+    public void testLabeledMetersDoNotShareChildren() {
+        Labeled<Meter> first = metricProvider.newMeter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_first").build(), "port");
+        Labeled<Meter> second = metricProvider.newMeter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_second").build(), "port");
+        first.label("1").mark(3);
+        second.label("1").mark(5);
+        assertEquals(3, first.label("1").get());
+        assertEquals(5, second.label("1").get());
+
+        CollectorRegistry registry = ((PrometheusMetricProvider) metricProvider).registry();
+        assertEquals(3.0, registry.getSampleValue("opendaylight_infrautils_metrics_test_first_total",
+            new String[] { "port" }, new String[] { "1" }), 0);
+        assertEquals(5.0, registry.getSampleValue("opendaylight_infrautils_metrics_test_second_total",
+            new String[] { "port" }, new String[] { "1" }), 0);
+
+        // Closing the child of one does not affect the other, and a closed child is re-created from zero
+        first.label("1").close();
+        assertEquals(0, first.label("1").get());
+        assertEquals(5, second.label("1").get());
+    }
+
     @Test
     public void testGetOverflownMeter() {
         Meter meter = metricProvider.newMeter(
@@ -72,6 +133,307 @@ public class PrometheusMetricProviderImplTest {
         assertThat(meter.get(), greaterThan(1000000L));
     }
 
+    @Test
+    public void testMeterIsExactAbove2To53() {
+        Meter meter = metricProvider.newMeter(
+                MetricDescriptor.builder().anchor(this).project("infrautils").module("metrics").id("test").build());
+        // A double can not represent this, nor the sum of its increments
+        meter.mark((1L << 53) + 1);
+        meter.mark();
+        meter.mark();
+        assertEquals((1L << 53) + 3, meter.get());
+    }
+
+    @Test
+    public void testNewHistogramWith1Label() {
+        Labeled<Histogram> histogram = metricProvider.newHistogram(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_histogram").build(), "port");
+        histogram.label("456").update(10);
+        histogram.label("456").update(30);
+        histogram.label("789").update(5);
+        assertEquals(2, histogram.label("456").count());
+
+        CollectorRegistry registry = ((PrometheusMetricProvider) metricProvider).registry();
+        String name = "opendaylight_infrautils_metrics_test_histogram";
+        assertEquals(2.0, registry.getSampleValue(name + "_count", new String[] { "port" }, new String[] { "456" }),
+            0);
+        assertEquals(40.0, registry.getSampleValue(name + "_sum", new String[] { "port" }, new String[] { "456" }),
+            0);
+        assertEquals(30.0, registry.getSampleValue(name, new String[] { "port", "quantile" },
+            new String[] { "456", "0.99" }), 0);
+    }
+
+    @Test
+    public void testNewGauge() {
+        AtomicLong queueDepth = new AtomicLong(3);
+        Gauge gauge = metricProvider.newGauge(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_gauge").build(), queueDepth::get);
+        queueDepth.set(5);
+        assertEquals(5, gauge.get());
+        CollectorRegistry registry = ((PrometheusMetricProvider) metricProvider).registry();
+        assertEquals(5.0, registry.getSampleValue("opendaylight_infrautils_metrics_test_gauge"), 0);
+        gauge.close();
+        assertNull(registry.getSampleValue("opendaylight_infrautils_metrics_test_gauge"));
+    }
+
+    @Test
+    public void testMeterLabelCardinalityOverflow() {
+        Labeled<Meter> meter = metricProvider.newMeter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_capped").maxCardinality(2).build(), "port");
+        meter.label("1").mark();
+        meter.label("2").mark();
+        meter.label("3").mark(5);
+        meter.label("4").mark(7);
+        assertEquals(12, meter.label(PrometheusMetricProvider.OVERFLOW).get());
+
+        CollectorRegistry registry = ((PrometheusMetricProvider) metricProvider).registry();
+        assertNull(registry.getSampleValue("opendaylight_infrautils_metrics_test_capped_total",
+            new String[] { "port" }, new String[] { "3" }));
+        assertEquals(2.0, registry.getSampleValue("opendaylight_infrautils_metrics_test_capped_label_overflow_total"),
+            0);
+    }
+
+    @Test
+    public void testConfiguredLabelCardinality() {
+        PrometheusMetricProvider provider = new PrometheusMetricProvider(Duration.ZERO, List.of(), 1);
+        try {
+            Labeled<Meter> meter = provider.newMeter(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_configured").build(), "port");
+            meter.label("1").mark();
+            meter.label("2").mark(2);
+            assertEquals(2, meter.label(PrometheusMetricProvider.OVERFLOW).get());
+        } finally {
+            provider.close();
+        }
+    }
+
+    @Test
+    public void testGaugeLabelCardinalityOverflow() {
+        Labeled<Gauge> gauge = metricProvider.newGauge(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_capped_gauge").maxCardinality(1).build(), Long::parseLong, "port");
+        CollectorRegistry registry = ((PrometheusMetricProvider) metricProvider).registry();
+        String name = "opendaylight_infrautils_metrics_test_capped_gauge";
+        // Closing a child makes room for a new one
+        gauge.label("1").close();
+        assertEquals(2, gauge.label("2").get());
+        assertEquals(2.0, registry.getSampleValue(name, new String[] { "port" }, new String[] { "2" }), 0);
+        gauge.label("3");
+        assertNull(registry.getSampleValue(name, new String[] { "port" }, new String[] { "3" }));
+        assertEquals(3.0, registry.getSampleValue(name, new String[] { "port" },
+            new String[] { PrometheusMetricProvider.OVERFLOW }), 0);
+    }
+
+    @Test
+    public void testIdleChildrenAreRemoved() {
+        Labeled<Meter> meter = metricProvider.newMeter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_idle").build(), "port");
+        meter.label("1").mark();
+        meter.label("2").mark();
+        Labeled<Histogram> histogram = metricProvider.newHistogram(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_idle_histogram").build(), "port");
+        histogram.label("1").update(10);
+
+        long timeout = Duration.ofMinutes(5).toNanos();
+        long start = System.nanoTime();
+        PrometheusMetricProvider provider = (PrometheusMetricProvider) metricProvider;
+        // Everything was updated since the last (i.e. no) sweep
+        provider.evictIdle(timeout, start + timeout);
+        meter.label("1").mark();
+        provider.evictIdle(timeout, start + 2 * timeout);
+
+        CollectorRegistry registry = provider.registry();
+        String name = "opendaylight_infrautils_metrics_test_idle_total";
+        assertEquals(2.0, registry.getSampleValue(name, new String[] { "port" }, new String[] { "1" }), 0);
+        assertNull(registry.getSampleValue(name, new String[] { "port" }, new String[] { "2" }));
+        assertNull(registry.getSampleValue("opendaylight_infrautils_metrics_test_idle_histogram_count",
+            new String[] { "port" }, new String[] { "1" }));
+
+        // Removed children are re-created from zero
+        assertEquals(0, meter.label("2").get());
+    }
+
+    @Test
+    public void testClosedMetricIsUnregistered() {
+        Labeled<Meter> meter = metricProvider.newMeter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_closed").build(), "port");
+        meter.label("1").mark();
+        meter.label("2").mark(2);
+        meter.label("1").close();
+        String name = "opendaylight_infrautils_metrics_test_closed";
+        assertTrue(isRegistered(name));
+        meter.label("2").close();
+        assertFalse(isRegistered(name));
+
+        // It comes back with its next child
+        meter.label("3").mark(3);
+        assertEquals(3.0, ((PrometheusMetricProvider) metricProvider).registry().getSampleValue(name + "_total",
+            new String[] { "port" }, new String[] { "3" }), 0);
+
+        Counter counter = metricProvider.newCounter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_closed_counter").build());
+        counter.close();
+        assertFalse(isRegistered("opendaylight_infrautils_metrics_test_closed_counter"));
+        metricProvider.newCounter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_closed_counter").build()).increment();
+        assertTrue(isRegistered("opendaylight_infrautils_metrics_test_closed_counter"));
+    }
+
+    @Test
+    public void testUseClosedMeter() {
+        Labeled<Meter> meter = metricProvider.newMeter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_use_closed").build(), "port");
+        Meter child = meter.label("1");
+        child.close();
+        assertThrows(IllegalStateException.class, child::mark);
+        // The same labels resolve to a new child
+        meter.label("1").mark();
+        assertEquals(1, meter.label("1").get());
+    }
+
+    @Test
+    public void testConcurrentChurn() throws Exception {
+        Labeled<Meter> meter = metricProvider.newMeter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_churn").build(), "flow");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                // Threads share the label values, so they also close each other's children
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        try (Meter child = meter.label(Integer.toString(i % 8))) {
+                            child.mark();
+                        } catch (IllegalStateException e) {
+                            // Another thread closed it in between
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertFalse(isRegistered("opendaylight_infrautils_metrics_test_churn"));
+        meter.label("1").mark();
+        assertTrue(isRegistered("opendaylight_infrautils_metrics_test_churn"));
+    }
+
+    private boolean isRegistered(String name) {
+        return Collections.list(((PrometheusMetricProvider) metricProvider).registry().metricFamilySamples()).stream()
+            .anyMatch(family -> family.name.equals(name));
+    }
+
+    @Test
+    public void testBatchedMeter() {
+        PrometheusMetricProvider provider = (PrometheusMetricProvider) metricProvider;
+        Labeled<Meter> meter = metricProvider.newMeter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_batched").batched(true).build(), "port");
+        meter.label("1").mark(3);
+        meter.label("1").mark();
+        String name = "opendaylight_infrautils_metrics_test_batched_total";
+        String[] labelNames = { "port" };
+        String[] labelValues = { "1" };
+        // Meters are always striped here, so batching has no effect, and scrapes see all marks right away
+        assertEquals(4.0, provider.registry().getSampleValue(name, labelNames, labelValues), 0);
+        assertEquals(4, meter.label("1").get());
+        meter.label("1").mark(2);
+        assertEquals(6.0, provider.registry().getSampleValue(name, labelNames, labelValues), 0);
+    }
+
+    @Test
+    public void testNewCounterWith1Label() {
+        Labeled<Counter> counter = metricProvider.newCounter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_counter").build(), "port");
+        counter.label("456").increment(5);
+        counter.label("456").decrement(2);
+        counter.label("789").decrement();
+        assertEquals(3, counter.label("456").get());
+        assertEquals(-1, counter.label("789").get());
+
+        CollectorRegistry registry = ((PrometheusMetricProvider) metricProvider).registry();
+        String name = "opendaylight_infrautils_metrics_test_counter";
+        assertEquals(3.0, registry.getSampleValue(name, new String[] { "port" }, new String[] { "456" }), 0);
+        assertEquals(-1.0, registry.getSampleValue(name, new String[] { "port" }, new String[] { "789" }), 0);
+        counter.label("789").close();
+        assertNull(registry.getSampleValue(name, new String[] { "port" }, new String[] { "789" }));
+    }
+
+    @Test
+    public void testCounterIsExact() {
+        try (Counter counter = metricProvider.newCounter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_exact").build())) {
+            // Beyond 2^53, a double could not tell these apart anymore
+            counter.increment(Long.MAX_VALUE - 1);
+            counter.increment();
+            assertEquals(Long.MAX_VALUE, counter.get());
+        }
+    }
+
+    @Test
+    public void testNewTimerWithBuckets() {
+        Labeled<Timer> timer = metricProvider.newTimer(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_timer").build(), "port");
+        timer.label("456").record(Duration.ofMillis(5).toNanos());
+        timer.label("456").record(Duration.ofMillis(20).toNanos());
+        timer.label("456").record(Duration.ofSeconds(20).toNanos());
+
+        CollectorRegistry registry = ((PrometheusMetricProvider) metricProvider).registry();
+        String name = "opendaylight_infrautils_metrics_test_timer";
+        String[] labelNames = { "port", "le" };
+        // Bucket bounds are inclusive, and buckets are cumulative
+        assertEquals(1.0, registry.getSampleValue(name + "_bucket", labelNames, new String[] { "456", "0.005" }),
+            0);
+        assertEquals(2.0, registry.getSampleValue(name + "_bucket", labelNames, new String[] { "456", "0.025" }),
+            0);
+        assertEquals(2.0, registry.getSampleValue(name + "_bucket", labelNames, new String[] { "456", "10.0" }), 0);
+        assertEquals(3.0, registry.getSampleValue(name + "_bucket", labelNames, new String[] { "456", "+Inf" }), 0);
+        assertEquals(3.0, registry.getSampleValue(name + "_count", new String[] { "port" }, new String[] { "456" }),
+            0);
+        assertEquals(20.025, registry.getSampleValue(name + "_sum", new String[] { "port" }, new String[] { "456" }),
+            0.000001);
+    }
+
+    @Test
+    public void testNewTimerAsSummary() {
+        PrometheusMetricProvider provider = new PrometheusMetricProvider(Duration.ZERO, List.of());
+        try (Timer timer = provider.newTimer(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_summary_timer").build())) {
+            timer.record(Duration.ofMillis(100).toNanos());
+            String name = "opendaylight_infrautils_metrics_test_summary_timer";
+            assertEquals(1.0, provider.registry().getSampleValue(name + "_count"), 0);
+            assertEquals(0.1, provider.registry().getSampleValue(name, new String[] { "quantile" },
+                new String[] { "0.99" }), 0.001);
+        } finally {
+            provider.close();
+        }
+    }
+
+    @Test
+    public void testInvalidTimerBuckets() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new PrometheusMetricProvider(Duration.ZERO, List.of(Duration.ofSeconds(2), Duration.ofSeconds(1))));
+    }
+
+    @Test
+    public void testModifiedTimerBuckets() {
+        PrometheusMetricProvider provider = new PrometheusMetricProvider();
+        try {
+            provider.update(Duration.ofMinutes(1), List.of(), MetricFamilies.DEFAULT_MAX_CARDINALITY);
+            try (Timer timer = provider.newTimer(MetricDescriptor.builder().anchor(this).project("infrautils")
+                    .module("metrics").id("test_modified_timer").build())) {
+                timer.record(Duration.ofMillis(100).toNanos());
+                // A summary now, as Timers created after the change have no buckets
+                String name = "opendaylight_infrautils_metrics_test_modified_timer";
+                assertEquals(0.1, provider.registry().getSampleValue(name, new String[] { "quantile" },
+                    new String[] { "0.99" }), 0.001);
+            }
+        } finally {
+            provider.close();
+        }
+    }
+
     // TODO more..
 
 }
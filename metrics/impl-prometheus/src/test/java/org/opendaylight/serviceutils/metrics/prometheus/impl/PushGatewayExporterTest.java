@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.GZIPInputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+
+/**
+ * Unit test for {@link PushGatewayExporter}, against a stub Pushgateway.
+ */
+public class PushGatewayExporterTest {
+    private final PrometheusMetricProvider provider = new PrometheusMetricProvider();
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+    private final List<PushGatewayExporter> exporters = new ArrayList<>();
+    private HttpServer server;
+
+    @Before
+    public void before() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        provider.newMeter(MetricDescriptor.builder().anchor(this).project("infrautils").module("metrics")
+            .id("test_pushed").build()).mark(42);
+    }
+
+    @After
+    public void after() {
+        exporters.forEach(PushGatewayExporter::close);
+        server.stop(0);
+        provider.close();
+    }
+
+    @Test
+    public void testRetriedWithBackoff() {
+        statuses.addAll(List.of(503, 429, 200));
+        assertTrue(exporter(true).push(3));
+
+        assertEquals(3, requests.size());
+        String request = requests.peek();
+        assertTrue(request, request.startsWith("PUT /metrics/job/test/instance/controller%201 gzip\n"));
+        assertTrue(request, request.contains("\nopendaylight_infrautils_metrics_test_pushed_total 42.0\n"));
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() {
+        statuses.addAll(List.of(500, 500, 500));
+        assertFalse(exporter(false).push(2));
+        assertEquals(2, requests.size());
+        assertTrue(requests.peek().startsWith("PUT /metrics/job/test/instance/controller%201 identity\n"));
+    }
+
+    @Test
+    public void testBadRequestIsNotRetried() {
+        statuses.addAll(List.of(400, 200));
+        assertFalse(exporter(false).push(3));
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void testCloseAwaitsLastPush() {
+        PushGatewayExporter exporter = exporter(false);
+        exporter.close();
+        assertEquals(1, requests.size());
+        // Closed already, so nothing is pushed any more
+        assertFalse(exporter.push(1));
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void testGroupingUri() {
+        assertEquals(URI.create("http://gw:9091/metrics/job/a%20b/instance@base64/aG9zdC8x"),
+            PushGatewayExporter.groupingUri("http://gw:9091/", "a b", "host/1"));
+        assertEquals(URI.create("http://gw:9091/metrics/job/odl/instance@base64/="),
+            PushGatewayExporter.groupingUri("http://gw:9091", "odl", ""));
+    }
+
+    private PushGatewayExporter exporter(boolean gzip) {
+        URI uri = PushGatewayExporter.groupingUri("http://localhost:" + server.getAddress().getPort(), "test",
+            "controller 1");
+        // Never pushes by itself within the test
+        PushGatewayExporter exporter = new PushGatewayExporter(provider.registry(), uri, Duration.ofHours(1), 3,
+            Duration.ofMillis(1), gzip);
+        exporters.add(exporter);
+        return exporter;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        boolean gzip = "gzip".equals(encoding);
+        try (InputStream in = gzip ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getRawPath() + " "
+                + (gzip ? "gzip" : "identity") + "\n" + new String(in.readAllBytes(), UTF_8));
+        }
+
+        Integer status = statuses.poll();
+        exchange.sendResponseHeaders(status != null ? status : 200, -1);
+        exchange.close();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import org.junit.Test;
+import org.opendaylight.serviceutils.metrics.Counter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+
+/**
+ * Unit test for {@link ScrapeCache}.
+ */
+public class ScrapeCacheTest {
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final AtomicInteger collections = new AtomicInteger();
+    private final CountDownLatch collecting = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    public void testRefreshedAfterInterval() throws IOException {
+        PrometheusMetricProvider provider = new PrometheusMetricProvider();
+        Counter counter = provider.newCounter(MetricDescriptor.builder().anchor(this).project("infrautils")
+            .module("metrics").id("test_counter").build());
+        ScrapeCache cache = new ScrapeCache(provider.registry(), Duration.ofSeconds(10), nanoTime::get);
+
+        counter.increment();
+        ScrapeCache.Payload first = cache.get(TextFormat.CONTENT_TYPE_004);
+        assertTrue(new String(first.plain(), UTF_8).contains("\nopendaylight_infrautils_metrics_test_counter 1.0\n"));
+
+        counter.increment();
+        nanoTime.set(Duration.ofSeconds(9).toNanos());
+        assertSame(first, cache.get(TextFormat.CONTENT_TYPE_004));
+        // Each content type has its own scrape
+        ScrapeCache.Payload openMetrics = cache.get(TextFormat.CONTENT_TYPE_OPENMETRICS_100);
+        assertTrue(new String(openMetrics.plain(), UTF_8).endsWith("# EOF\n"));
+
+        nanoTime.set(Duration.ofSeconds(10).toNanos());
+        ScrapeCache.Payload second = cache.get(TextFormat.CONTENT_TYPE_004);
+        assertNotSame(first, second);
+        assertTrue(new String(second.plain(), UTF_8).contains("\nopendaylight_infrautils_metrics_test_counter 2.0\n"));
+    }
+
+    @Test
+    public void testGzipped() throws IOException {
+        CollectorRegistry registry = new StreamingCollectorRegistry();
+        registry.register(new BlockingCollector());
+        release.countDown();
+        ScrapeCache cache = new ScrapeCache(registry, Duration.ofSeconds(10));
+        ScrapeCache.Payload payload = cache.get(TextFormat.CONTENT_TYPE_004);
+
+        byte[] gzipped = payload.gzipped();
+        assertSame(gzipped, payload.gzipped());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertArrayEquals(payload.plain(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testConcurrentScrapesCollectOnce() throws Exception {
+        CollectorRegistry registry = new StreamingCollectorRegistry();
+        registry.register(new BlockingCollector());
+        ScrapeCache cache = new ScrapeCache(registry, Duration.ofHours(1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ScrapeCache.Payload>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> cache.get(TextFormat.CONTENT_TYPE_004)));
+            collecting.await();
+            for (int i = 1; i < 8; i++) {
+                futures.add(executor.submit(() -> cache.get(TextFormat.CONTENT_TYPE_004)));
+            }
+            release.countDown();
+
+            ScrapeCache.Payload payload = futures.get(0).get();
+            for (Future<ScrapeCache.Payload> future : futures) {
+                assertSame(payload, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, collections.get());
+    }
+
+    @Test
+    public void testFailureIsNotCached() throws IOException {
+        CollectorRegistry registry = new StreamingCollectorRegistry();
+        registry.register(new DescribedCollector() {
+            @Override
+            public List<MetricFamilySamples> collect() {
+                if (collections.incrementAndGet() == 1) {
+                    throw new IllegalStateException("first scrape fails");
+                }
+                return List.of();
+            }
+        });
+        ScrapeCache cache = new ScrapeCache(registry, Duration.ofSeconds(10), nanoTime::get);
+
+        assertThrows(IllegalStateException.class, () -> cache.get(TextFormat.CONTENT_TYPE_004));
+        assertEquals(0, cache.get(TextFormat.CONTENT_TYPE_004).plain().length);
+        assertEquals(2, collections.get());
+    }
+
+    // Registering does not collect these
+    private abstract static class DescribedCollector extends Collector implements Collector.Describable {
+        @Override
+        public final List<MetricFamilySamples> describe() {
+            return List.of();
+        }
+    }
+
+    private final class BlockingCollector extends DescribedCollector {
+        @Override
+        public List<MetricFamilySamples> collect() {
+            collecting.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            collections.incrementAndGet();
+            return List.of(new MetricFamilySamples("test_collections", Type.GAUGE, "Collections",
+                List.of(new MetricFamilySamples.Sample("test_collections", List.of(), List.of(), collections.get()))));
+        }
+    }
+}
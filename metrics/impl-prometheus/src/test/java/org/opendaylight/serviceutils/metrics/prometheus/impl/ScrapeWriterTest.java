@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.prometheus.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Splitter;
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.serviceutils.metrics.Labeled;
+import org.opendaylight.serviceutils.metrics.Meter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+import org.opendaylight.serviceutils.metrics.Timer;
+
+/**
+ * Unit test for {@link ScrapeWriter}, which must write the same as the Prometheus simpleclient's {@link TextFormat}.
+ */
+public class ScrapeWriterTest {
+    private static final Splitter LINES = Splitter.on('\n');
+
+    private final PrometheusMetricProvider provider = new PrometheusMetricProvider(Duration.ZERO,
+        List.of(Duration.ofMillis(10), Duration.ofSeconds(1)));
+    private final CollectorRegistry registry = provider.registry();
+
+    @Before
+    public void before() {
+        Labeled<Labeled<Meter>> meter = provider.newMeter(descriptor("test_meter", "Help with \\ and \"\n"),
+            "port", "flow");
+        meter.label("1").label("a \"quoted\\ value\"\n").mark(3);
+        meter.label("2").label("b").mark(12_345_678);
+        provider.newCounter(descriptor("test_counter", "Counter"), "port").label("1").increment(-5);
+        Labeled<Timer> timer = provider.newTimer(descriptor("test_timer", "Timer"), "port");
+        timer.label("1").record(Duration.ofMillis(5).toNanos());
+        timer.label("1").record(Duration.ofMillis(123).toNanos());
+        provider.newHistogram(descriptor("test_histogram", "Histogram")).update(42);
+        provider.newGauge(descriptor("test_gauge", "Gauge"), () -> 7);
+    }
+
+    @Test
+    public void testSameAsTextFormat004() throws IOException {
+        StringWriter expected = new StringWriter();
+        TextFormat.write004(expected, registry.metricFamilySamples());
+        assertSameLines(expected.toString(), scrape(TextFormat.CONTENT_TYPE_004, Set.of()));
+    }
+
+    @Test
+    public void testSameAsOpenMetrics() throws IOException {
+        StringWriter expected = new StringWriter();
+        TextFormat.writeOpenMetrics100(expected, registry.metricFamilySamples());
+        String actual = scrape(TextFormat.CONTENT_TYPE_OPENMETRICS_100, Set.of());
+        assertSameLines(expected.toString(), actual);
+        assertTrue(actual.endsWith("\n# EOF\n"));
+    }
+
+    @Test
+    public void testIncludedNames() throws IOException {
+        String actual = scrape(TextFormat.CONTENT_TYPE_004,
+            Set.of("opendaylight_infrautils_metrics_test_timer_bucket", "opendaylight_infrautils_metrics_test_gauge"));
+        assertTrue(actual.contains(
+            "\nopendaylight_infrautils_metrics_test_timer_bucket{port=\"1\",le=\"0.01\",} 1.0\n"));
+        assertTrue(actual.contains("\nopendaylight_infrautils_metrics_test_gauge 7.0\n"));
+        assertFalse(actual.contains("test_meter"));
+        assertFalse(actual.contains("test_counter"));
+        assertFalse(actual.contains("test_histogram"));
+    }
+
+    @Test
+    public void testOtherRegistry() throws IOException {
+        StringWriter expected = new StringWriter();
+        TextFormat.write004(expected, registry.metricFamilySamples());
+        CollectorRegistry other = new CollectorRegistry();
+        registry.metricFamilySamples().asIterator().forEachRemaining(family -> other.register(new Collector() {
+            @Override
+            public List<MetricFamilySamples> collect() {
+                return List.of(family);
+            }
+        }));
+
+        StringWriter actual = new StringWriter();
+        new ScrapeWriter(actual, TextFormat.CONTENT_TYPE_004, Set.of()).write(other);
+        assertSameLines(expected.toString(), actual.toString());
+    }
+
+    private String scrape(String contentType, Set<String> includedNames) throws IOException {
+        StringWriter writer = new StringWriter();
+        new ScrapeWriter(writer, contentType, includedNames).write(registry);
+        return writer.toString();
+    }
+
+    // The families are in a different order, as the simpleclient does not keep the order of registration
+    private static void assertSameLines(String expected, String actual) {
+        assertEquals(sortedLines(expected), sortedLines(actual));
+    }
+
+    // The JVM metrics change between the two scrapes
+    private static List<String> sortedLines(String scrape) {
+        return LINES.splitToStream(scrape).filter(line -> !line.contains(" jvm_") && !line.startsWith("jvm_"))
+            .sorted().toList();
+    }
+
+    private MetricDescriptor descriptor(String id, String description) {
+        return MetricDescriptor.builder().anchor(this).project("infrautils").module("metrics").id(id)
+            .description(description).build();
+    }
+}
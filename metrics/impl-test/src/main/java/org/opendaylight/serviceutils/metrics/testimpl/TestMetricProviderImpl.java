@@ -8,8 +8,13 @@
 package org.opendaylight.serviceutils.metrics.testimpl;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongBiFunction;
+import java.util.function.ToLongFunction;
 import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.serviceutils.metrics.Counter;
+import org.opendaylight.serviceutils.metrics.Gauge;
+import org.opendaylight.serviceutils.metrics.Histogram;
 import org.opendaylight.serviceutils.metrics.Labeled;
 import org.opendaylight.serviceutils.metrics.Meter;
 import org.opendaylight.serviceutils.metrics.MetricDescriptor;
@@ -172,6 +177,11 @@ public class TestMetricProviderImpl implements MetricProvider {
             public <T, E extends Exception> T time(CheckedCallable<T, E> event) throws E {
                 return event.call();
             }
+
+            @Override
+            public void record(long nanos) {
+                // ignore
+            }
         };
     }
 
@@ -191,4 +201,67 @@ public class TestMetricProviderImpl implements MetricProvider {
         return firstLabelValue -> secondLabelValue -> newTimer((Object) null, (String) null);
     }
 
+    @Override
+    public Histogram newHistogram(MetricDescriptor descriptor) {
+        return new Histogram() {
+
+            private final AtomicLong count = new AtomicLong(0);
+
+            @Override
+            public void update(long value) {
+                if (value >= 0) {
+                    count.incrementAndGet();
+                }
+            }
+
+            @Override
+            public long count() {
+                return count.get();
+            }
+
+            @Override
+            public void close() {
+                // ignore
+            }
+        };
+    }
+
+    @Override
+    public Labeled<Histogram> newHistogram(MetricDescriptor descriptor, String labelName) {
+        return labelValue -> newHistogram(descriptor);
+    }
+
+    @Override
+    public Labeled<Labeled<Histogram>> newHistogram(MetricDescriptor descriptor, String firstLabelName,
+                                                    String secondLabelName) {
+        return firstLabelValue -> secondLabelValue -> newHistogram(descriptor);
+    }
+
+    @Override
+    public Gauge newGauge(MetricDescriptor descriptor, LongSupplier supplier) {
+        return new Gauge() {
+
+            @Override
+            public long get() {
+                return supplier.getAsLong();
+            }
+
+            @Override
+            public void close() {
+                // ignore
+            }
+        };
+    }
+
+    @Override
+    public Labeled<Gauge> newGauge(MetricDescriptor descriptor, ToLongFunction<String> supplier, String labelName) {
+        return labelValue -> newGauge(descriptor, () -> supplier.applyAsLong(labelValue));
+    }
+
+    @Override
+    public Labeled<Labeled<Gauge>> newGauge(MetricDescriptor descriptor, ToLongBiFunction<String, String> supplier,
+                                            String firstLabelName, String secondLabelName) {
+        return firstLabelValue -> secondLabelValue -> newGauge(descriptor,
+            () -> supplier.applyAsLong(firstLabelValue, secondLabelValue));
+    }
 }
@@ -8,38 +8,46 @@
 package org.opendaylight.serviceutils.metrics.internal;
 
 import static com.codahale.metrics.Slf4jReporter.LoggingLevel.INFO;
-import static java.lang.management.ManagementFactory.getThreadMXBean;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.opendaylight.infrautils.utils.concurrent.Executors.newListeningSingleThreadScheduledExecutor;
+import static org.opendaylight.infrautils.utils.concurrent.LoggingFutures.addErrorLogging;
 
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Slf4jReporter;
 import com.codahale.metrics.jmx.JmxReporter;
-import com.codahale.metrics.jvm.BufferPoolMetricSet;
-import com.codahale.metrics.jvm.CachedThreadStatesGaugeSet;
-import com.codahale.metrics.jvm.ClassLoadingGaugeSet;
-import com.codahale.metrics.jvm.FileDescriptorRatioGauge;
-import com.codahale.metrics.jvm.GarbageCollectorMetricSet;
-import com.codahale.metrics.jvm.MemoryUsageGaugeSet;
-import com.codahale.metrics.jvm.ThreadDeadlockDetector;
 import com.google.common.annotations.VisibleForTesting;
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadMXBean;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongBiFunction;
+import java.util.function.ToLongFunction;
 import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.serviceutils.metrics.Counter;
+import org.opendaylight.serviceutils.metrics.Gauge;
+import org.opendaylight.serviceutils.metrics.Histogram;
 import org.opendaylight.serviceutils.metrics.Labeled;
 import org.opendaylight.serviceutils.metrics.Meter;
 import org.opendaylight.serviceutils.metrics.MetricDescriptor;
 import org.opendaylight.serviceutils.metrics.MetricProvider;
+import org.opendaylight.serviceutils.metrics.ReservoirType;
 import org.opendaylight.serviceutils.metrics.Timer;
-import org.opendaylight.serviceutils.metrics.function.CheckedCallable;
-import org.opendaylight.serviceutils.metrics.function.CheckedRunnable;
-import org.opendaylight.yangtools.concepts.AbstractRegistration;
+import org.opendaylight.serviceutils.metrics.spi.ChildCache;
+import org.opendaylight.serviceutils.metrics.spi.JvmMetrics;
+import org.opendaylight.serviceutils.metrics.spi.LabelValues;
+import org.opendaylight.serviceutils.metrics.spi.MetricChild;
+import org.opendaylight.serviceutils.metrics.spi.MetricFamilies;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,19 +58,59 @@ import org.slf4j.LoggerFactory;
  */
 abstract class AbstractMetricProvider implements MetricProvider {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractMetricProvider.class);
+    // Suffix of the ID of the Meter of how many times new label values went into a ChildCache.OVERFLOW child
+    private static final String OVERFLOW_SUFFIX = "_label_overflow";
+    // Bound of the staleness of the rates of batched Meters, as documented in MetricDescriptor.batched()
+    private static final long BATCH_FLUSH_INTERVAL_MS = 1000;
 
+    // Unlabeled metrics, by their ID; labeled children are only kept in the ChildCache of their metric
     private final Map<String, MeterImpl> meters = new ConcurrentHashMap<>();
     private final Map<String, CounterImpl> counters = new ConcurrentHashMap<>();
     private final Map<String, TimerImpl> timers = new ConcurrentHashMap<>();
+    private final Map<String, HistogramImpl> histograms = new ConcurrentHashMap<>();
+    private final Map<String, GaugeImpl> gauges = new ConcurrentHashMap<>();
+    // Labeled metric kind, name and label names to the ChildCache of its children
+    private final Map<List<Object>, ChildCache<CloseableMetricImpl>> labeledMetrics = new ConcurrentHashMap<>();
+    // Metric ID to the anchor which registered it; this is an index for constant time duplicate ID checks
+    private final Map<String, Object> anchors = new ConcurrentHashMap<>();
+    private final Set<BatchedMeter> batchedMeters = ConcurrentHashMap.newKeySet();
     private final MetricRegistry registry = new MetricRegistry();
 
+    @GuardedBy("this")
     private @Nullable JmxReporter jmxReporter;
+    @GuardedBy("this")
+    private @Nullable AggregatedJmxReporter aggregatedJmxReporter;
+    @GuardedBy("this")
+    private JmxReporterType jmxReporterType = JmxReporterType.PER_METRIC;
+    @GuardedBy("this")
+    private boolean started;
     private @Nullable Slf4jReporter slf4jReporter;
 
+    private volatile ReservoirFactory reservoirFactory = ReservoirFactory.DEFAULT;
+    // Same default as in Configuration
+    private volatile int maxLabelCardinality = 10000;
     private volatile @Nullable MetricsFileReporter fileReporter;
     private volatile @Nullable ThreadsWatcher threadsWatcher;
+    private volatile @Nullable ScheduledExecutorService idleSweeper;
+    // Only started once the first batched Meter is created
+    @GuardedBy("this")
+    private @Nullable ScheduledExecutorService batchFlusher;
+    private volatile long labelIdleTimeoutNanos;
 
     public final void updateConfiguration(Configuration configuration) {
+        reservoirFactory = ReservoirFactory.of(configuration);
+        maxLabelCardinality = configuration.maxLabelCardinality();
+        updateJmxReporter(configuration.jmxReporter());
+
+        long newLabelIdleTimeoutNanos = SECONDS.toNanos(Math.max(0, configuration.labelIdleTimeoutSecs()));
+        if (newLabelIdleTimeoutNanos != labelIdleTimeoutNanos) {
+            labelIdleTimeoutNanos = newLabelIdleTimeoutNanos;
+            stopIdleSweeper();
+            if (newLabelIdleTimeoutNanos > 0) {
+                startIdleSweeper(newLabelIdleTimeoutNanos);
+            }
+        }
+
         if (threadsWatcher != null) {
             threadsWatcher.close();
         }
@@ -86,24 +134,45 @@ abstract class AbstractMetricProvider implements MetricProvider {
             }
         }
 
-        if (fileReporter != null) {
-            fileReporter.close();
-        }
-        int fileReporterInterval = fileReporter != null ? (int)fileReporter.getInterval().getSeconds() : 0;
-        if (fileReporterInterval != configuration.fileReporterIntervalSecs()) {
+        MetricsFileReporter oldFileReporter = fileReporter;
+        int fileReporterInterval = oldFileReporter != null ? (int)oldFileReporter.getInterval().getSeconds() : 0;
+        // In MiB, as far as a MappedByteBuffer can go
+        int segmentSize = Math.max(1, Math.min(2047, configuration.fileReporterSegmentSizeMB())) << 20;
+        FileReporterRetention retention = new FileReporterRetention(
+            (long) Math.max(0, configuration.fileReporterMaxSizeMB()) << 20,
+            Duration.ofHours(Math.max(1, configuration.fileReporterMaxAgeHours())),
+            configuration.fileReporterCompress());
+        double[] percentiles = parsePercentiles(configuration.fileReporterPercentiles());
+        if (fileReporterInterval != configuration.fileReporterIntervalSecs() || oldFileReporter != null
+                && (oldFileReporter.getFormat() != configuration.fileReporterFormat()
+                    || oldFileReporter.getSegmentSize() != segmentSize
+                    || !oldFileReporter.getRetention().equals(retention)
+                    || !Arrays.equals(oldFileReporter.getPercentiles(), percentiles))) {
+            if (oldFileReporter != null) {
+                oldFileReporter.close();
+                fileReporter = null;
+            }
             if (configuration.fileReporterIntervalSecs() > 0) {
-                fileReporter = new MetricsFileReporter(registry,
-                        Duration.ofSeconds(configuration.fileReporterIntervalSecs()));
-                fileReporter.startReporter();
+                MetricsFileReporter newFileReporter = new MetricsFileReporter(registry,
+                        Duration.ofSeconds(configuration.fileReporterIntervalSecs()),
+                        MetricsFileReporter.DEFAULT_DIRECTORY, configuration.fileReporterFormat(), segmentSize,
+                        retention, percentiles);
+                newFileReporter.startReporter();
+                fileReporter = newFileReporter;
             }
         }
         LOG.info("Updated: {}", configuration);
     }
 
     final void start() {
-        setUpJvmMetrics(registry);
+        JvmMetrics.registerAll(registry);
+        registry.<com.codahale.metrics.Gauge<Long>>gauge(MetricsFileReporter.DISK_USAGE_GAUGE,
+            () -> this::fileReporterDiskUsage);
 
-        jmxReporter = setUpJmxReporter(registry);
+        synchronized (this) {
+            started = true;
+            startJmxReporter();
+        }
 
         slf4jReporter = setUpSlf4jReporter(registry);
 
@@ -112,9 +181,9 @@ abstract class AbstractMetricProvider implements MetricProvider {
     }
 
     final void stop() {
-        if (jmxReporter != null) {
-            jmxReporter.close();
-            jmxReporter = null;
+        synchronized (this) {
+            started = false;
+            stopJmxReporter();
         }
         if (fileReporter != null) {
             fileReporter.close();
@@ -127,6 +196,105 @@ abstract class AbstractMetricProvider implements MetricProvider {
         if (threadsWatcher != null) {
             threadsWatcher.close();
         }
+        stopIdleSweeper();
+        stopBatchFlusher();
+    }
+
+    private synchronized void updateJmxReporter(JmxReporterType newType) {
+        if (newType != jmxReporterType) {
+            jmxReporterType = newType;
+            if (started) {
+                stopJmxReporter();
+                startJmxReporter();
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private void startJmxReporter() {
+        if (jmxReporterType == JmxReporterType.PER_METRIC) {
+            jmxReporter = setUpJmxReporter(registry);
+        } else if (jmxReporterType == JmxReporterType.AGGREGATED) {
+            AggregatedJmxReporter reporter = new AggregatedJmxReporter(registry,
+                ManagementFactory.getPlatformMBeanServer());
+            reporter.start();
+            LOG.info("Aggregated JMX reporter started, ODL application's metrics are now available via JMX");
+            aggregatedJmxReporter = reporter;
+        } else {
+            LOG.info("JMX reporting of metrics is disabled");
+        }
+    }
+
+    @GuardedBy("this")
+    private void stopJmxReporter() {
+        if (jmxReporter != null) {
+            jmxReporter.close();
+            jmxReporter = null;
+        }
+        if (aggregatedJmxReporter != null) {
+            aggregatedJmxReporter.close();
+            aggregatedJmxReporter = null;
+        }
+    }
+
+    private BatchedMeter newBatchedMeter() {
+        startBatchFlusher();
+        BatchedMeter meter = new BatchedMeter();
+        batchedMeters.add(meter);
+        return meter;
+    }
+
+    @SuppressWarnings("FutureReturnValueIgnored")
+    private synchronized void startBatchFlusher() {
+        if (batchFlusher == null) {
+            ScheduledExecutorService flusher = newListeningSingleThreadScheduledExecutor(
+                "serviceutils.metrics.BatchFlusher", LOG);
+            addErrorLogging(flusher.scheduleAtFixedRate(this::flushBatched, BATCH_FLUSH_INTERVAL_MS,
+                BATCH_FLUSH_INTERVAL_MS, MILLISECONDS), LOG, "scheduleAtFixedRate");
+            batchFlusher = flusher;
+        }
+    }
+
+    private synchronized void stopBatchFlusher() {
+        if (batchFlusher != null) {
+            batchFlusher.shutdown();
+            batchFlusher = null;
+        }
+    }
+
+    @VisibleForTesting
+    final void flushBatched() {
+        batchedMeters.forEach(BatchedMeter::flush);
+    }
+
+    @SuppressWarnings("FutureReturnValueIgnored")
+    private void startIdleSweeper(long timeoutNanos) {
+        ScheduledExecutorService sweeper = newListeningSingleThreadScheduledExecutor(
+            "serviceutils.metrics.IdleSweeper", LOG);
+        long period = Math.max(1, timeoutNanos / 2);
+        addErrorLogging(sweeper.scheduleAtFixedRate(() -> evictIdle(timeoutNanos, System.nanoTime()), period, period,
+            NANOSECONDS), LOG, "scheduleAtFixedRate");
+        idleSweeper = sweeper;
+    }
+
+    private void stopIdleSweeper() {
+        ScheduledExecutorService sweeper = idleSweeper;
+        if (sweeper != null) {
+            sweeper.shutdown();
+            idleSweeper = null;
+        }
+    }
+
+    /**
+     * Evict all labeled children (except Gauges, which are never updated) which were not updated for the given time.
+     * This must only be invoked by a single thread at a time.
+     *
+     * @param timeoutNanos idle time after which children are closed
+     * @param nowNanos current {@link System#nanoTime()}
+     */
+    @VisibleForTesting
+    final void evictIdle(long timeoutNanos, long nowNanos) {
+        labeledMetrics.values().forEach(children -> children.evictIdle(timeoutNanos, nowNanos));
     }
 
     @VisibleForTesting
@@ -134,16 +302,24 @@ abstract class AbstractMetricProvider implements MetricProvider {
         return registry;
     }
 
-    private static void setUpJvmMetrics(MetricRegistry registry) {
-        FileDescriptorRatioGauge fileDescriptorRatioGauge = new FileDescriptorRatioGauge();
+    private long fileReporterDiskUsage() {
+        MetricsFileReporter reporter = fileReporter;
+        return reporter != null ? reporter.getDiskUsage() : 0;
+    }
 
-        registry.registerAll(new GarbageCollectorMetricSet());
-        registry.registerAll(new BufferPoolMetricSet(ManagementFactory.getPlatformMBeanServer()));
-        registry.registerAll(new CachedThreadStatesGaugeSet(getThreadMXBean(), new ThreadDeadlockDetector(),
-            13, SECONDS));
-        registry.registerAll(new MemoryUsageGaugeSet());
-        registry.registerAll(new ClassLoadingGaugeSet());
-        registry.gauge("odl.infrautils.FileDescriptorRatio", () -> fileDescriptorRatioGauge);
+    private static double[] parsePercentiles(String percentiles) {
+        if (percentiles.isBlank()) {
+            return new double[0];
+        }
+        try {
+            double[] parsed = Arrays.stream(percentiles.split(",")).map(String::trim)
+                .mapToDouble(Double::parseDouble).toArray();
+            // Validates them as well
+            return new MetricsLayout(parsed).percentiles();
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid fileReporterPercentiles {}, using the default ones", percentiles, e);
+            return MetricsLayout.DEFAULT.percentiles();
+        }
     }
 
     private static JmxReporter setUpJmxReporter(MetricRegistry registry) {
@@ -189,80 +365,72 @@ abstract class AbstractMetricProvider implements MetricProvider {
 //        context.updateLoggers(config);
 //    }
 
-    private org.opendaylight.serviceutils.metrics.Meter newOrExistingMeter(Object anchor, String id) {
-        return meters.computeIfAbsent(id, newId -> {
-            LOG.debug("New Meter metric: {}", id);
-            return new MeterImpl(newId);
-        });
+    private MeterImpl newOrExistingMeter(Object anchor, String id, boolean batched) {
+        return newOrExisting("Meter", meters, id, () -> new MeterImpl(anchor, id, LabelValues.EMPTY, null, batched));
     }
 
     @Override
     public final org.opendaylight.serviceutils.metrics.Meter newMeter(Object anchor, String id) {
-        requireNonNull(anchor, "anchor == null");
-        checkForExistingID(id);
-        return newOrExistingMeter(anchor, id);
+        return newUnlabeledMeter(anchor, id, false);
     }
 
     @Override
     public final Meter newMeter(MetricDescriptor descriptor) {
-        return newMeter(descriptor.anchor(), makeCodahaleID(descriptor));
+        return newUnlabeledMeter(descriptor.anchor(), makeCodahaleID(descriptor), descriptor.batched());
     }
 
     @Override
     public final Labeled<Meter> newMeter(MetricDescriptor descriptor, String labelName) {
-        return labelValue -> newOrExistingMeter(descriptor.anchor(),
-                makeCodahaleID(descriptor) + "{" + labelName + "=" + labelValue + "}");
+        return newLabeledMeter(descriptor, labelName);
     }
 
     @Override
     public final Labeled<Labeled<Meter>> newMeter(MetricDescriptor descriptor,
             String firstLabelName, String secondLabelName) {
-        return firstLabelValue -> secondLabelValue -> newOrExistingMeter(descriptor.anchor(), makeCodahaleID(descriptor)
-                + "{" + firstLabelName + "=" + firstLabelValue + "," + secondLabelName + "=" + secondLabelValue + "}");
+        return newLabeledMeter(descriptor, firstLabelName, secondLabelName);
     }
 
     @Override
     public final Labeled<Labeled<Labeled<Meter>>> newMeter(MetricDescriptor descriptor,
             String firstLabelName, String secondLabelName, String thirdLabelName) {
-        return firstLabelValue -> secondLabelValue -> thirdLabelValue ->
-        newOrExistingMeter(descriptor.anchor(), makeCodahaleID(descriptor) + "{"
-                + firstLabelName + "=" + firstLabelValue + "," + secondLabelName + "=" + secondLabelValue  + ","
-                + thirdLabelName + "=" + thirdLabelValue + "}");
+        return newLabeledMeter(descriptor, firstLabelName, secondLabelName, thirdLabelName);
     }
 
     @Override
     public final Labeled<Labeled<Labeled<Labeled<Meter>>>> newMeter(MetricDescriptor descriptor,
             String firstLabelName, String secondLabelName, String thirdLabelName, String fourthLabelName) {
-        return firstLabelValue -> secondLabelValue -> thirdLabelValue -> fourthLabelValue ->
-                newOrExistingMeter(descriptor.anchor(), makeCodahaleID(descriptor) + "{"
-                        + firstLabelName + "=" + firstLabelValue + "," + secondLabelName + "=" + secondLabelValue  + ","
-                        + thirdLabelName + "=" + thirdLabelValue + ","
-                        + fourthLabelName + "=" + fourthLabelValue + "}");
+        return newLabeledMeter(descriptor, firstLabelName, secondLabelName, thirdLabelName, fourthLabelName);
     }
 
     @Override
     public final Labeled<Labeled<Labeled<Labeled<Labeled<Meter>>>>> newMeter(MetricDescriptor descriptor,
             String firstLabelName, String secondLabelName, String thirdLabelName,
             String fourthLabelName, String fifthLabelName) {
-        return firstLabelValue -> secondLabelValue -> thirdLabelValue -> fourthLabelValue -> fifthLabelValue ->
-                newOrExistingMeter(descriptor.anchor(), makeCodahaleID(descriptor) + "{"
-                        + firstLabelName + "=" + firstLabelValue + "," + secondLabelName + "=" + secondLabelValue  + ","
-                        + thirdLabelName + "=" + thirdLabelValue + ","
-                        + fourthLabelName + "=" + fourthLabelValue + ","
-                        + fifthLabelName + "=" + fifthLabelValue + "}");
-    }
-
-    private org.opendaylight.serviceutils.metrics.Counter newOrExistingCounter(Object anchor, String id) {
-        return counters.computeIfAbsent(id, newId -> {
-            LOG.debug("New Counter metric: {}", id);
-            return new CounterImpl(newId);
-        });
+        return newLabeledMeter(descriptor, firstLabelName, secondLabelName, thirdLabelName, fourthLabelName,
+            fifthLabelName);
+    }
+
+    private Meter newUnlabeledMeter(Object anchor, String id, boolean batched) {
+        requireNonNull(anchor, "anchor == null");
+        checkForExistingID(anchor, id);
+        return newOrExistingMeter(anchor, id, batched);
+    }
+
+    private <L> L newLabeledMeter(MetricDescriptor descriptor, String... labelNames) {
+        Object anchor = descriptor.anchor();
+        boolean batched = descriptor.batched();
+        return newLabeled("Meter", descriptor,
+            (id, labelValues, family) -> new MeterImpl(anchor, id, labelValues, family, batched), labelNames);
+    }
+
+    private CounterImpl newOrExistingCounter(Object anchor, String id) {
+        return newOrExisting("Counter", counters, id, () -> new CounterImpl(anchor, id, LabelValues.EMPTY, null));
     }
 
     @Override
     public final org.opendaylight.serviceutils.metrics.Counter newCounter(Object anchor, String id) {
         requireNonNull(anchor, "anchor == null");
-        checkForExistingID(id);
+        checkForExistingID(anchor, id);
         return newOrExistingCounter(anchor, id);
     }
 
@@ -273,79 +441,162 @@ abstract class AbstractMetricProvider implements MetricProvider {
 
     @Override
     public final Labeled<Counter> newCounter(MetricDescriptor descriptor, String labelName) {
-        return labelValue -> newOrExistingCounter(descriptor.anchor(),
-                makeCodahaleID(descriptor) + "{" + labelName + "=" + labelValue + "}");
+        return newLabeledCounter(descriptor, labelName);
     }
 
     @Override
     public final Labeled<Labeled<Counter>> newCounter(MetricDescriptor descriptor,
             String firstLabelName, String secondLabelName) {
-        return firstLabelValue -> secondLabelValue -> newOrExistingCounter(descriptor.anchor(),
-                makeCodahaleID(descriptor) + "{" + firstLabelName + "=" + firstLabelValue + ","
-                    + secondLabelName + "=" + secondLabelValue + "}");
+        return newLabeledCounter(descriptor, firstLabelName, secondLabelName);
     }
 
     @Override
     public final Labeled<Labeled<Labeled<Counter>>> newCounter(MetricDescriptor descriptor, String firstLabelName,
             String secondLabelName, String thirdLabelName) {
-        return firstLabelValue -> secondLabelValue -> thirdLabelValue ->
-                newOrExistingCounter(descriptor.anchor(), makeCodahaleID(descriptor) + "{"
-                        + firstLabelName + "=" + firstLabelValue + "," + secondLabelName + "=" + secondLabelValue  + ","
-                        + thirdLabelName + "=" + thirdLabelValue + "}");
+        return newLabeledCounter(descriptor, firstLabelName, secondLabelName, thirdLabelName);
     }
 
     @Override
     public final Labeled<Labeled<Labeled<Labeled<Counter>>>> newCounter(MetricDescriptor descriptor,
             String firstLabelName, String secondLabelName, String thirdLabelName, String fourthLabelName) {
-        return firstLabelValue -> secondLabelValue -> thirdLabelValue -> fourthLabelValue ->
-                newOrExistingCounter(descriptor.anchor(), makeCodahaleID(descriptor) + "{"
-                        + firstLabelName + "=" + firstLabelValue + "," + secondLabelName + "=" + secondLabelValue  + ","
-                        + thirdLabelName + "=" + thirdLabelValue + ","
-                        + fourthLabelName + "=" + fourthLabelValue + "}");
+        return newLabeledCounter(descriptor, firstLabelName, secondLabelName, thirdLabelName, fourthLabelName);
     }
 
     @Override
     public final Labeled<Labeled<Labeled<Labeled<Labeled<Counter>>>>> newCounter(MetricDescriptor descriptor,
             String firstLabelName, String secondLabelName, String thirdLabelName, String fourthLabelName,
             String fifthLabelName) {
-        return firstLabelValue -> secondLabelValue -> thirdLabelValue -> fourthLabelValue -> fifthLabelValue ->
-                newOrExistingCounter(descriptor.anchor(), makeCodahaleID(descriptor) + "{"
-                        + firstLabelName + "=" + firstLabelValue + "," + secondLabelName + "=" + secondLabelValue  + ","
-                        + thirdLabelName + "=" + thirdLabelValue + "," + fourthLabelName + "=" + fourthLabelValue + ","
-                        + fifthLabelName + "=" + fifthLabelValue + "}");
+        return newLabeledCounter(descriptor, firstLabelName, secondLabelName, thirdLabelName, fourthLabelName,
+            fifthLabelName);
     }
 
-    private org.opendaylight.serviceutils.metrics.Timer newOrExistingTimer(Object anchor, String id) {
-        return timers.computeIfAbsent(id, newId -> {
-            LOG.debug("New Timer metric: {}", id);
-            return new TimerImpl(newId);
-        });
+    private <L> L newLabeledCounter(MetricDescriptor descriptor, String... labelNames) {
+        Object anchor = descriptor.anchor();
+        return newLabeled("Counter", descriptor,
+            (id, labelValues, family) -> new CounterImpl(anchor, id, labelValues, family), labelNames);
+    }
+
+    private TimerImpl newOrExistingTimer(Object anchor, String id, @Nullable ReservoirType reservoir) {
+        return newOrExisting("Timer", timers, id,
+            () -> new TimerImpl(anchor, id, LabelValues.EMPTY, null, reservoir));
     }
 
     @Override
     public final org.opendaylight.serviceutils.metrics.Timer newTimer(Object anchor, String id) {
         requireNonNull(anchor, "anchor == null");
-        checkForExistingID(id);
-        return newOrExistingTimer(anchor, id);
+        checkForExistingID(anchor, id);
+        return newOrExistingTimer(anchor, id, null);
     }
 
     @Override
     public final Timer newTimer(MetricDescriptor descriptor) {
-        return newOrExistingTimer(descriptor.anchor(), makeCodahaleID(descriptor));
+        return newOrExistingTimer(descriptor.anchor(), makeCodahaleID(descriptor),
+            descriptor.reservoir().orElse(null));
     }
 
     @Override
     public final Labeled<Timer> newTimer(MetricDescriptor descriptor, String labelName) {
-        return labelValue -> newOrExistingTimer(descriptor.anchor(),
-                makeCodahaleID(descriptor) + "{" + labelName + "=" + labelValue + "}");
+        return newLabeledTimer(descriptor, labelName);
     }
 
     @Override
     public final Labeled<Labeled<Timer>> newTimer(MetricDescriptor descriptor,
                                                 String firstLabelName, String secondLabelName) {
-        return firstLabelValue -> secondLabelValue -> newOrExistingTimer(descriptor.anchor(),
-                makeCodahaleID(descriptor) + "{" + firstLabelName + "=" + firstLabelValue + ","
-                        + secondLabelName + "=" + secondLabelValue + "}");
+        return newLabeledTimer(descriptor, firstLabelName, secondLabelName);
+    }
+
+    private <L> L newLabeledTimer(MetricDescriptor descriptor, String... labelNames) {
+        Object anchor = descriptor.anchor();
+        ReservoirType reservoir = descriptor.reservoir().orElse(null);
+        return newLabeled("Timer", descriptor,
+            (id, labelValues, family) -> new TimerImpl(anchor, id, labelValues, family, reservoir), labelNames);
+    }
+
+    private HistogramImpl newOrExistingHistogram(Object anchor, String id, @Nullable ReservoirType reservoir) {
+        return newOrExisting("Histogram", histograms, id,
+            () -> new HistogramImpl(anchor, id, LabelValues.EMPTY, null, reservoir));
+    }
+
+    @Override
+    public final Histogram newHistogram(MetricDescriptor descriptor) {
+        Object anchor = descriptor.anchor();
+        String id = makeCodahaleID(descriptor);
+        checkForExistingID(anchor, id);
+        return newOrExistingHistogram(anchor, id, descriptor.reservoir().orElse(null));
+    }
+
+    @Override
+    public final Labeled<Histogram> newHistogram(MetricDescriptor descriptor, String labelName) {
+        return newLabeledHistogram(descriptor, labelName);
+    }
+
+    @Override
+    public final Labeled<Labeled<Histogram>> newHistogram(MetricDescriptor descriptor,
+            String firstLabelName, String secondLabelName) {
+        return newLabeledHistogram(descriptor, firstLabelName, secondLabelName);
+    }
+
+    private <L> L newLabeledHistogram(MetricDescriptor descriptor, String... labelNames) {
+        Object anchor = descriptor.anchor();
+        ReservoirType reservoir = descriptor.reservoir().orElse(null);
+        return newLabeled("Histogram", descriptor,
+            (id, labelValues, family) -> new HistogramImpl(anchor, id, labelValues, family, reservoir), labelNames);
+    }
+
+    private GaugeImpl newOrExistingGauge(Object anchor, String id, LongSupplier supplier) {
+        return newOrExisting("Gauge", gauges, id, () -> new GaugeImpl(anchor, id, LabelValues.EMPTY, null, supplier));
+    }
+
+    @Override
+    public final Gauge newGauge(MetricDescriptor descriptor, LongSupplier supplier) {
+        requireNonNull(supplier, "supplier == null");
+        Object anchor = descriptor.anchor();
+        String id = makeCodahaleID(descriptor);
+        checkForExistingID(anchor, id);
+        return newOrExistingGauge(anchor, id, supplier);
+    }
+
+    @Override
+    public final Labeled<Gauge> newGauge(MetricDescriptor descriptor, ToLongFunction<String> supplier,
+            String labelName) {
+        requireNonNull(supplier, "supplier == null");
+        Object anchor = descriptor.anchor();
+        return newLabeled("Gauge", descriptor, (id, labelValues, family) -> new GaugeImpl(anchor, id, labelValues,
+            family, () -> supplier.applyAsLong(labelValues.get(0))), labelName);
+    }
+
+    @Override
+    public final Labeled<Labeled<Gauge>> newGauge(MetricDescriptor descriptor,
+            ToLongBiFunction<String, String> supplier, String firstLabelName, String secondLabelName) {
+        requireNonNull(supplier, "supplier == null");
+        Object anchor = descriptor.anchor();
+        return newLabeled("Gauge", descriptor, (id, labelValues, family) -> new GaugeImpl(anchor, id, labelValues,
+            family, () -> supplier.applyAsLong(labelValues.get(0), labelValues.get(1))),
+            firstLabelName, secondLabelName);
+    }
+
+    private static <T extends CloseableMetricImpl> T newOrExisting(String kind, Map<String, T> metrics, String id,
+            Supplier<T> constructor) {
+        return metrics.computeIfAbsent(id, newId -> {
+            LOG.debug("New {} metric: {}", kind, newId);
+            return constructor.get();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <L> L newLabeled(String kind, MetricDescriptor descriptor, ChildFactory factory, String... labelNames) {
+        // All Labeled of the same metric share their children, so that each child is in exactly one ChildCache
+        String name = makeCodahaleID(descriptor);
+        Object anchor = descriptor.anchor();
+        List<String> names = List.of(labelNames);
+        ChildCache<CloseableMetricImpl> children = labeledMetrics.computeIfAbsent(List.of(kind, name, names),
+            newKey -> new ChildCache<>(names.size(), MetricFamilies.maxCardinality(descriptor, maxLabelCardinality),
+                () -> newOrExistingMeter(anchor, name + OVERFLOW_SUFFIX, false).mark()));
+        return (L) children.labeled(labelValues -> {
+            String id = makeCodahaleID(name, names, labelValues);
+            LOG.debug("New labeled {} metric: {}", kind, id);
+            return factory.newChild(id, labelValues, children);
+        });
     }
 
     private static String makeCodahaleID(MetricDescriptor descriptor) {
@@ -355,31 +606,67 @@ abstract class AbstractMetricProvider implements MetricProvider {
         return MetricRegistry.name(descriptor.project(), descriptor.module(), descriptor.id());
     }
 
-    private void checkForExistingID(String id) {
+    // The ID of a labeled child in the registry, e.g. <code>project.module.id{port=456,mac=1A:..}</code>
+    private static String makeCodahaleID(String name, List<String> labelNames, LabelValues labelValues) {
+        StringBuilder sb = new StringBuilder(name).append('{');
+        for (int i = 0; i < labelNames.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labelNames.get(i)).append('=').append(labelValues.get(i));
+        }
+        return sb.append('}').toString();
+    }
+
+    private void checkForExistingID(Object anchor, String id) {
         requireNonNull(id, "id == null");
-        if (registry.getNames().contains(id)) {
+        Object existingAnchor = anchors.putIfAbsent(id, anchor);
+        if (existingAnchor != null) {
+            throw new IllegalArgumentException("Metric ID already used: " + id
+                + " (registered by " + existingAnchor.getClass().getName() + ")");
+        }
+        // Also catch metrics registered directly in the registry, such as the JVM ones; NB: this does not use
+        // registry.getNames(), because that copies all names into a new SortedSet on every call.
+        if (registry.getMetrics().containsKey(id)) {
+            anchors.remove(id, anchor);
             throw new IllegalArgumentException("Metric ID already used: " + id);
         }
     }
 
-    private abstract class CloseableMetricImpl extends AbstractRegistration {
+    /**
+     * Creates the children of labeled metrics, on behalf of their {@link ChildCache}.
+     */
+    @FunctionalInterface
+    private interface ChildFactory {
+        CloseableMetricImpl newChild(String id, LabelValues labelValues, ChildCache<CloseableMetricImpl> family);
+    }
+
+    /**
+     * Base class of our metrics, which are the {@link MetricChild}ren of the {@link ChildCache} of labeled metrics,
+     * and register their storage, i.e. the Dropwizard metric, in the {@link MetricRegistry} under their ID.
+     */
+    private abstract class CloseableMetricImpl extends MetricChild {
         protected final String id;
+        private final @Nullable ChildCache<CloseableMetricImpl> family;
 
-        CloseableMetricImpl(String id) {
+        CloseableMetricImpl(Object anchor, String id, LabelValues labelValues,
+                @Nullable ChildCache<CloseableMetricImpl> family) {
+            super(labelValues);
             this.id = id;
-        }
-
-        final void checkIfClosed() {
-            if (isClosed()) {
-                throw new IllegalStateException("Metric closed: " + id);
-            }
+            this.family = family;
+            anchors.putIfAbsent(id, anchor);
         }
 
         @Override
         protected void removeRegistration() {
+            // Remove from the ChildCache first, so that it cannot hand out this closed metric any more
+            if (family != null) {
+                family.remove(labelValues(), this);
+            }
             if (!registry.remove(id)) {
                 LOG.warn("Metric remove did not actualy remove: {}", id);
             }
+            anchors.remove(id);
         }
     }
 
@@ -387,20 +674,22 @@ abstract class AbstractMetricProvider implements MetricProvider {
 
         private final com.codahale.metrics.Meter meter;
 
-        MeterImpl(String id) {
-            super(id);
-            this.meter = registry.meter(id);
+        MeterImpl(Object anchor, String id, LabelValues labelValues, @Nullable ChildCache<CloseableMetricImpl> family,
+                boolean batched) {
+            super(anchor, id, labelValues, family);
+            this.meter = batched ? registry.meter(id, AbstractMetricProvider.this::newBatchedMeter)
+                : registry.meter(id);
         }
 
         @Override
         public void mark() {
-            checkIfClosed();
+            touch();
             meter.mark();
         }
 
         @Override
         public void mark(long howMany) {
-            checkIfClosed();
+            touch();
             meter.mark(howMany);
         }
 
@@ -411,8 +700,12 @@ abstract class AbstractMetricProvider implements MetricProvider {
 
         @Override
         protected void removeRegistration() {
+            // Remove from the map first, so that it cannot hand out this closed metric any more
+            meters.remove(id, this);
+            if (meter instanceof BatchedMeter batchedMeter) {
+                batchedMeters.remove(batchedMeter);
+            }
             super.removeRegistration();
-            meters.remove(id);
         }
     }
 
@@ -421,32 +714,33 @@ abstract class AbstractMetricProvider implements MetricProvider {
 
         private final com.codahale.metrics.Counter counter;
 
-        CounterImpl(String id) {
-            super(id);
+        CounterImpl(Object anchor, String id, LabelValues labelValues,
+                @Nullable ChildCache<CloseableMetricImpl> family) {
+            super(anchor, id, labelValues, family);
             this.counter = registry.counter(id);
         }
 
         @Override
         public void increment() {
-            checkIfClosed();
+            touch();
             counter.inc();
         }
 
         @Override
         public void increment(long howMany) {
-            checkIfClosed();
+            touch();
             counter.inc(howMany);
         }
 
         @Override
         public void decrement() {
-            checkIfClosed();
+            touch();
             counter.dec();
         }
 
         @Override
         public void decrement(long howMany) {
-            checkIfClosed();
+            touch();
             counter.dec(howMany);
         }
 
@@ -457,8 +751,9 @@ abstract class AbstractMetricProvider implements MetricProvider {
 
         @Override
         protected void removeRegistration() {
+            // Remove from the map first, so that it cannot hand out this closed metric any more
+            counters.remove(id, this);
             super.removeRegistration();
-            counters.remove(id);
         }
     }
 
@@ -466,47 +761,92 @@ abstract class AbstractMetricProvider implements MetricProvider {
 
         private final com.codahale.metrics.Timer timer;
 
-        TimerImpl(String id) {
-            super(id);
-            this.timer = registry.timer(id);
+        TimerImpl(Object anchor, String id, LabelValues labelValues, @Nullable ChildCache<CloseableMetricImpl> family,
+                @Nullable ReservoirType reservoir) {
+            super(anchor, id, labelValues, family);
+            this.timer = registry.timer(id,
+                () -> new com.codahale.metrics.Timer(reservoirFactory.newReservoir(reservoir)));
         }
 
         @Override
-        @SuppressWarnings({ "checkstyle:IllegalCatch", "unchecked" })
-        public <T, E extends Exception> T time(CheckedCallable<T, E> event) throws E {
-            checkIfClosed();
-            try {
-                return timer.time(event::call);
-            } catch (Exception e) {
-                throw (E) e;
-            }
+        public long start() {
+            checkNotClosed();
+            return System.nanoTime();
         }
 
         @Override
-        @SuppressWarnings({ "checkstyle:IllegalCatch", "checkstyle:AvoidHidingCauseException", "unchecked" })
-        @SuppressFBWarnings("BC_UNCONFIRMED_CAST_OF_RETURN_VALUE") // getCause() will be Exception not Throwable
-        public <E extends Exception> void time(CheckedRunnable<E> event) throws E {
-            checkIfClosed();
-            try {
-                timer.time(() -> {
-                    try {
-                        event.run();
-                    } catch (Exception exception) {
-                        throw new InternalRuntimeException(exception);
-                    }
-                });
-            } catch (InternalRuntimeException e) {
-                throw (E) e.getCause();
-            }
+        public void record(long nanos) {
+            touch();
+            timer.update(nanos, NANOSECONDS);
+        }
+
+        @Override
+        protected void removeRegistration() {
+            // Remove from the map first, so that it cannot hand out this closed metric any more
+            timers.remove(id, this);
+            super.removeRegistration();
         }
     }
 
-    private static class InternalRuntimeException extends RuntimeException {
-        private static final long serialVersionUID = 1L;
+    private final class HistogramImpl extends CloseableMetricImpl implements Histogram {
 
-        InternalRuntimeException(Exception exception) {
-            super(exception);
+        private final com.codahale.metrics.Histogram histogram;
+
+        HistogramImpl(Object anchor, String id, LabelValues labelValues,
+                @Nullable ChildCache<CloseableMetricImpl> family, @Nullable ReservoirType reservoir) {
+            super(anchor, id, labelValues, family);
+            this.histogram = registry.histogram(id,
+                () -> new com.codahale.metrics.Histogram(reservoirFactory.newReservoir(reservoir)));
+        }
+
+        @Override
+        public void update(long value) {
+            touch();
+            if (value >= 0) {
+                histogram.update(value);
+            }
+        }
+
+        @Override
+        public long count() {
+            return histogram.getCount();
+        }
+
+        @Override
+        protected void removeRegistration() {
+            // Remove from the map first, so that it cannot hand out this closed metric any more
+            histograms.remove(id, this);
+            super.removeRegistration();
         }
     }
 
+    private final class GaugeImpl extends CloseableMetricImpl implements Gauge {
+
+        private final LongSupplier supplier;
+
+        GaugeImpl(Object anchor, String id, LabelValues labelValues, @Nullable ChildCache<CloseableMetricImpl> family,
+                LongSupplier supplier) {
+            super(anchor, id, labelValues, family);
+            this.supplier = supplier;
+            registry.<com.codahale.metrics.Gauge<Long>>gauge(id, () -> supplier::getAsLong);
+        }
+
+        @Override
+        public long get() {
+            return supplier.getAsLong();
+        }
+
+        @Override
+        protected boolean isIdle(long timeoutNanos, long nowNanos) {
+            // Gauges are pulled rather than updated
+            return false;
+        }
+
+        @Override
+        protected void removeRegistration() {
+            // Remove from the map first, so that it cannot hand out this closed metric any more
+            gauges.remove(id, this);
+            super.removeRegistration();
+        }
+    }
 }
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metered;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricRegistryListener;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenMBeanAttributeInfoSupport;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularDataSupport;
+import javax.management.openmbean.TabularType;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exposes the metrics of a {@link MetricRegistry} via JMX with one {@link DynamicMBean} per metric ID (without
+ * labels) and type, instead of one MBean per metric as Dropwizard's JmxReporter does.
+ *
+ * <p>Each MBean has a single <code>Children</code> attribute, a table with one row per labeled child, and is
+ * registered when the first child of its metric is added.  Adding further children only records them in a map; their
+ * values are only read when the attribute is.
+ */
+final class AggregatedJmxReporter implements MetricRegistryListener, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(AggregatedJmxReporter.class);
+    private static final String DOMAIN = "metrics";
+    private static final String ATTRIBUTE = "Children";
+    private static final String LABELS = "labels";
+    // Timer durations are in nanoseconds, but exposed in milliseconds, as Dropwizard's JmxReporter does by default
+    private static final double DURATION_FACTOR = 1.0 / MILLISECONDS.toNanos(1);
+
+    private final Map<ObjectName, MetricMBean> mbeans = new ConcurrentHashMap<>();
+    private final MetricRegistry registry;
+    private final MBeanServer server;
+
+    AggregatedJmxReporter(MetricRegistry registry, MBeanServer server) {
+        this.registry = registry;
+        this.server = server;
+    }
+
+    void start() {
+        // This also notifies us of all already existing metrics
+        registry.addListener(this);
+    }
+
+    @Override
+    public void close() {
+        registry.removeListener(this);
+        mbeans.keySet().forEach(this::unregister);
+        mbeans.clear();
+    }
+
+    private void added(MetricType type, String name, Metric metric) {
+        int labelsStart = name.indexOf('{');
+        String baseName = labelsStart < 0 ? name : name.substring(0, labelsStart);
+        String labels = labelsStart < 0 ? "" : name.substring(labelsStart + 1, name.length() - 1);
+        ObjectName objectName = objectName(type, baseName);
+        if (objectName != null) {
+            mbeans.compute(objectName, (key, existing) -> {
+                MetricMBean mbean = existing != null ? existing : register(key, new MetricMBean(type, baseName));
+                mbean.children.put(labels, metric);
+                return mbean;
+            });
+        }
+    }
+
+    private void removed(MetricType type, String name) {
+        int labelsStart = name.indexOf('{');
+        String baseName = labelsStart < 0 ? name : name.substring(0, labelsStart);
+        String labels = labelsStart < 0 ? "" : name.substring(labelsStart + 1, name.length() - 1);
+        ObjectName objectName = objectName(type, baseName);
+        if (objectName != null) {
+            mbeans.computeIfPresent(objectName, (key, mbean) -> {
+                mbean.children.remove(labels);
+                if (!mbean.children.isEmpty()) {
+                    return mbean;
+                }
+                unregister(key);
+                return null;
+            });
+        }
+    }
+
+    @CanIgnoreReturnValue
+    private MetricMBean register(ObjectName objectName, MetricMBean mbean) {
+        try {
+            server.registerMBean(mbean, objectName);
+        } catch (InstanceAlreadyExistsException | MBeanRegistrationException | NotCompliantMBeanException ex) {
+            // The metric itself still works, and this is only ever attempted once per MBean
+            LOG.warn("Failed to register MBean {}", objectName, ex);
+        }
+        return mbean;
+    }
+
+    private void unregister(ObjectName objectName) {
+        try {
+            server.unregisterMBean(objectName);
+        } catch (InstanceNotFoundException | MBeanRegistrationException ex) {
+            LOG.debug("Failed to unregister MBean {}", objectName, ex);
+        }
+    }
+
+    private static @Nullable ObjectName objectName(MetricType type, String baseName) {
+        try {
+            return new ObjectName(DOMAIN + ":name=" + ObjectName.quote(baseName) + ",type=" + type.jmxType);
+        } catch (MalformedObjectNameException ex) {
+            LOG.warn("Cannot expose metric {} via JMX", baseName, ex);
+            return null;
+        }
+    }
+
+    @Override
+    public void onGaugeAdded(String name, Gauge<?> gauge) {
+        added(MetricType.GAUGES, name, gauge);
+    }
+
+    @Override
+    public void onGaugeRemoved(String name) {
+        removed(MetricType.GAUGES, name);
+    }
+
+    @Override
+    public void onCounterAdded(String name, Counter counter) {
+        added(MetricType.COUNTERS, name, counter);
+    }
+
+    @Override
+    public void onCounterRemoved(String name) {
+        removed(MetricType.COUNTERS, name);
+    }
+
+    @Override
+    public void onHistogramAdded(String name, Histogram histogram) {
+        added(MetricType.HISTOGRAMS, name, histogram);
+    }
+
+    @Override
+    public void onHistogramRemoved(String name) {
+        removed(MetricType.HISTOGRAMS, name);
+    }
+
+    @Override
+    public void onMeterAdded(String name, Meter meter) {
+        added(MetricType.METERS, name, meter);
+    }
+
+    @Override
+    public void onMeterRemoved(String name) {
+        removed(MetricType.METERS, name);
+    }
+
+    @Override
+    public void onTimerAdded(String name, Timer timer) {
+        added(MetricType.TIMERS, name, timer);
+    }
+
+    @Override
+    public void onTimerRemoved(String name) {
+        removed(MetricType.TIMERS, name);
+    }
+
+    /**
+     * The types of Dropwizard metrics, with the columns of the table of their children.
+     */
+    private enum MetricType {
+        GAUGES("gauges", "value"),
+        COUNTERS("counters", "count"),
+        HISTOGRAMS("histograms", "count", "min", "max", "mean", "stdDev", "p50", "p75", "p95", "p98", "p99", "p999"),
+        METERS("meters", "count", "meanRate", "oneMinuteRate", "fiveMinuteRate", "fifteenMinuteRate"),
+        TIMERS("timers", "count", "meanRate", "oneMinuteRate", "fiveMinuteRate", "fifteenMinuteRate",
+            "min", "max", "mean", "stdDev", "p50", "p75", "p95", "p98", "p99", "p999");
+
+        final String jmxType;
+        final String[] itemNames;
+        final TabularType tabularType;
+
+        MetricType(String jmxType, String... columns) {
+            this.jmxType = jmxType;
+            itemNames = new String[columns.length + 1];
+            OpenType<?>[] itemTypes = new OpenType<?>[columns.length + 1];
+            itemNames[0] = LABELS;
+            itemTypes[0] = SimpleType.STRING;
+            for (int i = 0; i < columns.length; i++) {
+                itemNames[i + 1] = columns[i];
+                itemTypes[i + 1] = switch (columns[i]) {
+                    case "value" -> SimpleType.STRING;
+                    case "count" -> SimpleType.LONG;
+                    default -> SimpleType.DOUBLE;
+                };
+            }
+            try {
+                CompositeType rowType = new CompositeType(jmxType, "Child of labeled " + jmxType, itemNames, itemNames,
+                    itemTypes);
+                tabularType = new TabularType(jmxType, "Children of labeled " + jmxType, rowType,
+                    new String[] { LABELS });
+            } catch (OpenDataException ex) {
+                throw new ExceptionInInitializerError(ex);
+            }
+        }
+
+        Object[] row(String labels, Metric metric) {
+            Object[] row = new Object[itemNames.length];
+            row[0] = labels;
+            return switch (this) {
+                case GAUGES -> withValue(row, gaugeValue((Gauge<?>) metric));
+                case COUNTERS -> withValue(row, ((Counter) metric).getCount());
+                case HISTOGRAMS -> withSnapshot(withValue(row, ((Histogram) metric).getCount()), 2,
+                    ((Histogram) metric).getSnapshot(), 1);
+                case METERS -> withMetered(row, (Meter) metric);
+                case TIMERS -> withSnapshot(withMetered(row, (Timer) metric), 6, ((Timer) metric).getSnapshot(),
+                    DURATION_FACTOR);
+            };
+        }
+
+        @CanIgnoreReturnValue
+        private static Object[] withValue(Object[] row, Object value) {
+            row[1] = value;
+            return row;
+        }
+
+        @SuppressWarnings("checkstyle:IllegalCatch")
+        private static String gaugeValue(Gauge<?> gauge) {
+            try {
+                return String.valueOf(gauge.getValue());
+            } catch (RuntimeException ex) {
+                // A failing gauge must not prevent reading all the other children
+                LOG.debug("Gauge {} failed", gauge, ex);
+                return "error: " + ex.getMessage();
+            }
+        }
+
+        @CanIgnoreReturnValue
+        private static Object[] withMetered(Object[] row, Metered metered) {
+            row[1] = metered.getCount();
+            row[2] = metered.getMeanRate();
+            row[3] = metered.getOneMinuteRate();
+            row[4] = metered.getFiveMinuteRate();
+            row[5] = metered.getFifteenMinuteRate();
+            return row;
+        }
+
+        @CanIgnoreReturnValue
+        private static Object[] withSnapshot(Object[] row, int offset, Snapshot snapshot, double factor) {
+            row[offset] = snapshot.getMin() * factor;
+            row[offset + 1] = snapshot.getMax() * factor;
+            row[offset + 2] = snapshot.getMean() * factor;
+            row[offset + 3] = snapshot.getStdDev() * factor;
+            row[offset + 4] = snapshot.getMedian() * factor;
+            row[offset + 5] = snapshot.get75thPercentile() * factor;
+            row[offset + 6] = snapshot.get95thPercentile() * factor;
+            row[offset + 7] = snapshot.get98thPercentile() * factor;
+            row[offset + 8] = snapshot.get99thPercentile() * factor;
+            row[offset + 9] = snapshot.get999thPercentile() * factor;
+            return row;
+        }
+    }
+
+    /**
+     * The MBean of one metric ID and type.  Its table is built from the current children each time it is read.
+     */
+    private static final class MetricMBean implements DynamicMBean {
+        // Labels (e.g. "port=456,mac=1A:0B:F2:25:1C:68", or "" if unlabeled) to the Dropwizard metric
+        final Map<String, Metric> children = new ConcurrentHashMap<>();
+        private final MetricType type;
+        private final MBeanInfo info;
+
+        MetricMBean(MetricType type, String baseName) {
+            this.type = type;
+            info = new MBeanInfo(MetricMBean.class.getName(), baseName, new MBeanAttributeInfo[] {
+                new OpenMBeanAttributeInfoSupport(ATTRIBUTE, "All children of " + baseName, type.tabularType, true,
+                    false, false)
+            }, null, null, null);
+        }
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException, MBeanException {
+            if (!ATTRIBUTE.equals(attribute)) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            TabularDataSupport table = new TabularDataSupport(type.tabularType, children.size(), 0.75f);
+            try {
+                for (Map.Entry<String, Metric> child : children.entrySet()) {
+                    table.put(new CompositeDataSupport(type.tabularType.getRowType(), type.itemNames,
+                        type.row(child.getKey(), child.getValue())));
+                }
+            } catch (OpenDataException ex) {
+                throw new MBeanException(ex);
+            }
+            return table;
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException | MBeanException ex) {
+                    LOG.debug("Skipping attribute {}", attribute, ex);
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws MBeanException {
+            throw new MBeanException(new UnsupportedOperationException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            return info;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import com.codahale.metrics.Meter;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A Dropwizard {@link Meter} which accumulates marks in a {@link LongAdder}, and only folds them into its rates when
+ * it is read or {@link #flush()}ed.  A plain {@link Meter#mark(long)} reads the clock and may CAS its last tick, and
+ * always adds to three more LongAdders; this only adds to one.
+ *
+ * <p>Because this is what is registered in the MetricRegistry, reporters (which only call the getters) always see the
+ * exact count; the rates are only up to date as of the last flush.
+ */
+final class BatchedMeter extends Meter {
+    private final LongAdder pending = new LongAdder();
+
+    @Override
+    public void mark() {
+        pending.increment();
+    }
+
+    @Override
+    public void mark(long howMany) {
+        pending.add(howMany);
+    }
+
+    /**
+     * Fold the pending marks into the underlying meter.
+     */
+    void flush() {
+        // LongAdder.sumThenReset() atomically resets each cell, so concurrent marks are never lost, only deferred
+        long howMany = pending.sumThenReset();
+        if (howMany != 0) {
+            super.mark(howMany);
+        }
+    }
+
+    @Override
+    public long getCount() {
+        flush();
+        return super.getCount();
+    }
+
+    @Override
+    public double getMeanRate() {
+        flush();
+        return super.getMeanRate();
+    }
+
+    @Override
+    public double getOneMinuteRate() {
+        flush();
+        return super.getOneMinuteRate();
+    }
+
+    @Override
+    public double getFiveMinuteRate() {
+        flush();
+        return super.getFiveMinuteRate();
+    }
+
+    @Override
+    public double getFifteenMinuteRate() {
+        flush();
+        return super.getFifteenMinuteRate();
+    }
+}
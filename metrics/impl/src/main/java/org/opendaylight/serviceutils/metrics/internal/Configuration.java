@@ -7,6 +7,7 @@
  */
 package org.opendaylight.serviceutils.metrics.internal;
 
+import org.opendaylight.serviceutils.metrics.ReservoirType;
 import org.osgi.service.metatype.annotations.AttributeDefinition;
 import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 
@@ -29,9 +30,45 @@ public @interface Configuration {
     @AttributeDefinition(name = "fileReporterIntervalSecs")
     int fileReporterIntervalSecs() default 0;
 
+    @AttributeDefinition(name = "fileReporterFormat")
+    FileReporterFormat fileReporterFormat() default FileReporterFormat.TEXT;
+
+    @AttributeDefinition(name = "fileReporterSegmentSizeMB")
+    int fileReporterSegmentSizeMB() default 64;
+
+    @AttributeDefinition(name = "fileReporterMaxSizeMB")
+    int fileReporterMaxSizeMB() default 1024;
+
+    @AttributeDefinition(name = "fileReporterMaxAgeHours")
+    int fileReporterMaxAgeHours() default 168;
+
+    @AttributeDefinition(name = "fileReporterCompress")
+    boolean fileReporterCompress() default true;
+
+    @AttributeDefinition(name = "fileReporterPercentiles")
+    String fileReporterPercentiles() default "0.5,0.9,0.99,0.999";
+
     @AttributeDefinition(name = "maxThreadsMaxLogIntervalSecs")
     int maxThreadsMaxLogIntervalSecs() default 60;
 
     @AttributeDefinition(name = "deadlockedThreadsMaxLogIntervalSecs")
     int deadlockedThreadsMaxLogIntervalSecs() default 60;
+
+    @AttributeDefinition(name = "reservoir")
+    ReservoirType reservoir() default ReservoirType.EXPONENTIALLY_DECAYING;
+
+    @AttributeDefinition(name = "reservoirWindowSecs")
+    int reservoirWindowSecs() default 60;
+
+    @AttributeDefinition(name = "uniformReservoirSize")
+    int uniformReservoirSize() default 1028;
+
+    @AttributeDefinition(name = "maxLabelCardinality")
+    int maxLabelCardinality() default 10000;
+
+    @AttributeDefinition(name = "labelIdleTimeoutSecs")
+    int labelIdleTimeoutSecs() default 0;
+
+    @AttributeDefinition(name = "jmxReporter")
+    JmxReporterType jmxReporter() default JmxReporterType.PER_METRIC;
 }
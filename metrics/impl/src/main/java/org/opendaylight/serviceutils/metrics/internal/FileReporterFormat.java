@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+/**
+ * How the {@link MetricsFileReporter} writes the metrics to its files, see {@link Configuration#fileReporterFormat()}.
+ */
+public enum FileReporterFormat {
+    /**
+     * Comma separated text, appended to <code>data/metrics/metrics.&lt;day&gt;.&lt;hour&gt;</code>.  This is the
+     * default.
+     */
+    TEXT,
+
+    /**
+     * Binary segments of a fixed size, memory-mapped to <code>data/metrics/metrics.&lt;day&gt;.&lt;hour&gt;.bin</code>,
+     * with a dictionary of the metric names and delta encoded values.  {@link MetricsSegmentDecoder} converts them to
+     * the same text as {@link #TEXT}.
+     */
+    BINARY
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+import java.time.Duration;
+import java.util.Objects;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * How long, and how much of, the files of the {@link MetricsFileReporter} are kept, and whether they are compressed
+ * once their hour is over, see {@link Configuration#fileReporterMaxSizeMB()},
+ * {@link Configuration#fileReporterMaxAgeHours()} and {@link Configuration#fileReporterCompress()}.
+ */
+public final class FileReporterRetention {
+    /**
+     * The default: at most 1 GiB, of the last week, compressed.
+     */
+    public static final FileReporterRetention DEFAULT = new FileReporterRetention(1024L * 1024 * 1024,
+        Duration.ofDays(7), true);
+
+    private final long maxSize;
+    private final Duration maxAge;
+    private final boolean compress;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize the maximum total size of the files, in bytes, or 0 for no limit; the oldest ones are deleted
+     *                beyond it, but never the file of the current hour
+     * @param maxAge the maximum age of the files; as the files are named after the day of the week and the hour,
+     *               no file is kept for longer than a week anyway
+     * @param compress whether to gzip the files once their hour is over
+     */
+    public FileReporterRetention(long maxSize, Duration maxAge, boolean compress) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Negative maximum size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.maxAge = requireNonNull(maxAge);
+        this.compress = compress;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxSize, maxAge, compress);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        return this == obj || obj instanceof FileReporterRetention other && maxSize == other.maxSize
+            && maxAge.equals(other.maxAge) && compress == other.compress;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("maxSize", maxSize).add("maxAge", maxAge)
+            .add("compress", compress).toString();
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import com.google.errorprone.annotations.Var;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.PackedHistogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Dropwizard {@link Reservoir} backed by an <a href="http://hdrhistogram.org">HdrHistogram</a> {@link Recorder}.
+ *
+ * <p>{@link #update(long)} is wait-free and does not allocate, unlike the default ExponentiallyDecayingReservoir which
+ * takes a lock. Values are kept with 3 significant decimal digits of precision, between 0 and
+ * {@value #HIGHEST_TRACKABLE_VALUE} (an hour, for Timers in nanoseconds); values beyond are recorded as the nearest
+ * one of these. All histograms are packed, i.e. take memory only for the ranges of values which were recorded, a few
+ * KiB each rather than the hundreds of KiB of a flat one of the same range.
+ *
+ * <p>Recorded intervals are folded into the current window whenever a snapshot is taken, and windows only rotate then.
+ * Snapshots cover the current and the previous window, i.e. roughly the values recorded during the last one to two
+ * windows; with a zero window, they are cumulative and cover all values recorded since this reservoir was created.
+ * Both windows are merged into a histogram which is reused by each snapshot, and which the snapshot then only keeps
+ * the recorded values and counts of.
+ */
+final class HdrHistogramReservoir implements Reservoir {
+    static final long HIGHEST_TRACKABLE_VALUE = 3_600_000_000_000L;
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS, true);
+    private final long windowNanos;
+    private final Clock clock;
+    private final Histogram merged = newHistogram();
+    private Histogram interval;
+    private Histogram current = newHistogram();
+    private Histogram previous = newHistogram();
+    private long windowStart;
+
+    HdrHistogramReservoir(Duration window, Clock clock) {
+        this.windowNanos = window.toNanos();
+        this.clock = clock;
+        interval = recorder.getIntervalHistogram();
+        windowStart = clock.getTick();
+    }
+
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+    @Override
+    public void update(long value) {
+        // The recorder would resize for larger values, and throw for negative ones
+        recorder.recordValue(Math.max(0, Math.min(value, HIGHEST_TRACKABLE_VALUE)));
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        if (windowNanos > 0) {
+            long now = clock.getTick();
+            if (now - windowStart >= windowNanos) {
+                Histogram oldPrevious = previous;
+                previous = current;
+                current = oldPrevious;
+                current.reset();
+                windowStart = now;
+            }
+        }
+        // Values recorded since the last snapshot are attributed to the current window
+        interval = recorder.getIntervalHistogram(interval);
+        current.add(interval);
+        merged.reset();
+        merged.add(previous);
+        merged.add(current);
+        return new HdrHistogramSnapshot(merged);
+    }
+
+    private static Histogram newHistogram() {
+        return new PackedHistogram(1, HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * Immutable {@link Snapshot} of a {@link Histogram}, which keeps only its recorded values and their counts.
+     */
+    static final class HdrHistogramSnapshot extends Snapshot {
+        // The highest equivalent value of each recorded value, ascending, and the total count up to each one
+        private final long[] values;
+        private final long[] cumulativeCounts;
+        private final long totalCount;
+        private final long min;
+        private final long max;
+        private final double mean;
+        private final double stdDev;
+
+        HdrHistogramSnapshot(Histogram histogram) {
+            totalCount = histogram.getTotalCount();
+            @Var long[] recordedValues = new long[16];
+            @Var long[] counts = new long[16];
+            @Var int size = 0;
+            @Var long total = 0;
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                if (size == recordedValues.length) {
+                    recordedValues = Arrays.copyOf(recordedValues, size * 2);
+                    counts = Arrays.copyOf(counts, size * 2);
+                }
+                total += value.getCountAtValueIteratedTo();
+                recordedValues[size] = histogram.highestEquivalentValue(value.getValueIteratedTo());
+                counts[size] = total;
+                size++;
+            }
+            values = Arrays.copyOf(recordedValues, size);
+            cumulativeCounts = Arrays.copyOf(counts, size);
+            min = totalCount == 0 ? 0 : histogram.getMinValue();
+            max = totalCount == 0 ? 0 : histogram.getMaxValue();
+            mean = histogram.getMean();
+            stdDev = histogram.getStdDeviation();
+        }
+
+        /**
+         * Returns the value at the given quantile, as {@link Histogram#getValueAtPercentile(double)} does.
+         */
+        @Override
+        public double getValue(double quantile) {
+            if (totalCount == 0) {
+                return 0;
+            }
+            if (quantile <= 0) {
+                return min;
+            }
+            // Less one ulp, so that rounding up does not overrun into the next value
+            double percentile = Math.min(Math.nextDown(quantile * 100), 100);
+            long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+            int index = Arrays.binarySearch(cumulativeCounts, countAtPercentile);
+            return values[Math.min(index >= 0 ? index : -index - 1, values.length - 1)];
+        }
+
+        /**
+         * Returns all recorded values, each repeated as many times as it was recorded (at the precision of the
+         * histogram); this can be large, and is only meant for reporters which really need it.
+         */
+        @Override
+        public long[] getValues() {
+            long[] all = new long[size()];
+            @Var int index = 0;
+            @Var long previousCount = 0;
+            for (int i = 0; i < values.length && index < all.length; i++) {
+                for (long j = previousCount; j < cumulativeCounts[i] && index < all.length; j++) {
+                    all[index++] = values[i];
+                }
+                previousCount = cumulativeCounts[i];
+            }
+            return all;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(totalCount, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public double getMean() {
+            return mean;
+        }
+
+        @Override
+        public long getMin() {
+            return min;
+        }
+
+        @Override
+        public double getStdDev() {
+            return stdDev;
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (long value : getValues()) {
+                    out.printf("%d%n", value);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+/**
+ * How metrics are exposed via JMX, see {@link Configuration#jmxReporter()}.
+ */
+public enum JmxReporterType {
+    /**
+     * One MBean per metric, including one per child of labeled metrics, registered when the metric is created.
+     * This is Dropwizard's JmxReporter, and the default.
+     */
+    PER_METRIC,
+
+    /**
+     * One MBean per metric ID and type, whose attribute is a table of all its labeled children, which is only
+     * computed when it is read.  Creating children of labeled metrics does not touch the MBeanServer.
+     */
+    AGGREGATED,
+
+    /**
+     * No JMX exposure.
+     */
+    NONE
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import static org.opendaylight.infrautils.utils.concurrent.Executors.shutdownAndAwaitTermination;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.errorprone.annotations.Var;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Package private housekeeper of the files of the {@link MetricsFileReporter}, which applies its
+ * {@link FileReporterRetention} on a background thread of the lowest priority: it compresses the files whose hour is
+ * over, deletes those which are too old, and then the oldest ones while they are too large in total, and keeps track
+ * of the size of them all.  The file which is currently written to, and any other one modified during its hour, is
+ * never touched.
+ */
+final class MetricsFileHousekeeper implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsFileHousekeeper.class);
+    static final String COMPRESSED_FILE_SUFFIX = ".gz";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ExecutorService executor;
+    private final File directory;
+    private final String filePrefix;
+    private final FileReporterRetention retention;
+    private volatile String currentFile = "";
+    private volatile long currentHourMillis = Long.MAX_VALUE;
+    private volatile long diskUsage;
+
+    MetricsFileHousekeeper(File directory, String filePrefix, FileReporterRetention retention) {
+        this.directory = directory;
+        this.filePrefix = filePrefix;
+        this.retention = retention;
+        executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("serviceutils.metrics.MetricsFileHousekeeper").setDaemon(true)
+            .setPriority(Thread.MIN_PRIORITY).build());
+    }
+
+    /**
+     * Return the total size of the files, in bytes, as of the last housekeeping.  The size of the current segment is
+     * its full size, even though the unused part of it may not take any disk space.
+     */
+    long diskUsage() {
+        return diskUsage;
+    }
+
+    /**
+     * Schedule a housekeeping, unless one is pending already.
+     *
+     * @param current the name of the file which is currently written to, or is about to be
+     * @param hourMillis the start of the hour of that file, in milliseconds since the epoch
+     */
+    void schedule(String current, long hourMillis) {
+        currentHourMillis = hourMillis;
+        currentFile = current;
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                LOG.debug("Metrics file housekeeper closed, skipping housekeeping", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        shutdownAndAwaitTermination(executor);
+    }
+
+    private void run() {
+        scheduled.set(false);
+        housekeep();
+    }
+
+    private void housekeep() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(filePrefix));
+        if (files == null) {
+            diskUsage = 0;
+            return;
+        }
+
+        long minModified = System.currentTimeMillis() - retention.getMaxAge().toMillis();
+        List<File> finished = new ArrayList<>();
+        @Var long total = 0;
+        for (File file : files) {
+            String name = file.getName();
+            if (isCurrent(file)) {
+                total += file.length();
+            } else if (name.endsWith(TEMPORARY_FILE_SUFFIX) || file.lastModified() < minModified) {
+                // Left over by a crash while compressing, or too old
+                delete(file);
+            } else {
+                File kept = retention.isCompress() && !name.endsWith(COMPRESSED_FILE_SUFFIX) ? compress(file) : file;
+                total += kept.length();
+                finished.add(kept);
+            }
+        }
+
+        long maxSize = retention.getMaxSize();
+        if (maxSize > 0 && total > maxSize) {
+            finished.sort(Comparator.comparingLong(File::lastModified));
+            for (File file : finished) {
+                if (total <= maxSize) {
+                    break;
+                }
+                long length = file.length();
+                if (delete(file)) {
+                    total -= length;
+                }
+            }
+            if (total > maxSize) {
+                LOG.warn("Metrics files in {} take {} bytes, more than {} even without older ones", directory, total,
+                    maxSize);
+            }
+        }
+        diskUsage = total;
+    }
+
+    // Checked for each file, as the reporter may have moved on to the file of a new hour since the files were listed
+    private boolean isCurrent(File file) {
+        return file.getName().equals(currentFile) || file.lastModified() >= currentHourMillis;
+    }
+
+    /**
+     * Gzip a file, replacing it (and a compressed file of the same name, i.e. of the same hour of last week).  Should
+     * that fail, the file is kept as it is.
+     */
+    private static File compress(File file) {
+        try {
+            return compress(file.toPath()).toFile();
+        } catch (IOException e) {
+            LOG.warn("Failed to compress metrics file {}", file, e);
+            return file;
+        }
+    }
+
+    private static Path compress(Path path) throws IOException {
+        Path compressed = Path.of(path + COMPRESSED_FILE_SUFFIX);
+        Path temporary = Path.of(compressed + TEMPORARY_FILE_SUFFIX);
+        try (InputStream in = Files.newInputStream(path);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE)) {
+            ByteStreams.limit(in, usedLength(path)).transferTo(out);
+        }
+        Files.setLastModifiedTime(temporary, Files.getLastModifiedTime(path));
+        Files.move(temporary, compressed, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(path);
+        LOG.debug("Compressed metrics file {}", path);
+        return compressed;
+    }
+
+    // The end of the last complete record of a segment, which is much less than its size, or the size of a text file
+    private static long usedLength(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            ByteBuffer header = ByteBuffer.allocate(MetricsSegment.HEADER_SIZE);
+            if (channel.read(header, 0) == MetricsSegment.HEADER_SIZE && header.getLong(0) == MetricsSegment.MAGIC) {
+                int end = header.getInt(MetricsSegment.END_OFFSET);
+                if (end >= MetricsSegment.HEADER_SIZE && end <= channel.size()) {
+                    return end;
+                }
+            }
+            return channel.size();
+        }
+    }
+
+    private static boolean delete(File file) {
+        if (file.delete()) {
+            LOG.debug("Deleted metrics file {}", file);
+            return true;
+        }
+        LOG.warn("Failed to delete metrics file {}", file);
+        return false;
+    }
+}
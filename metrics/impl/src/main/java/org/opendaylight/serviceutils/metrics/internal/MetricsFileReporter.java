@@ -7,17 +7,20 @@
  */
 package org.opendaylight.serviceutils.metrics.internal;
 
+import static org.opendaylight.infrautils.utils.concurrent.Executors.newListeningSingleThreadExecutor;
+import static org.opendaylight.infrautils.utils.concurrent.Executors.shutdownAndAwaitTermination;
+
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
-import com.codahale.metrics.Metered;
 import com.codahale.metrics.MetricFilter;
 import com.codahale.metrics.MetricRegistry;
-import com.codahale.metrics.Sampling;
 import com.codahale.metrics.ScheduledReporter;
-import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -26,35 +29,130 @@ import java.io.PrintWriter;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Calendar;
-import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.jdt.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Reporter of all metrics to hourly files in <code>data/metrics</code>, which hold the reports of the last week,
+ * either as text, or as binary segments, see {@link FileReporterFormat}.  Only the metrics which changed since their
+ * last report are reported: counters, histograms, meters and timers whose count changed, and gauges whose value
+ * changed.  The first report of each hour is a full one, of all metrics, so that each file is complete on its own.
+ * Counters, histograms and timers are reported with the difference of their count to their last report, and
+ * histograms and timers with the configured percentiles, e.g. <code>p99</code>, as well.
+ *
+ * <p>Each report is a {@link MetricsReport} snapshot of the values, taken on the reporting thread, and then written
+ * on a writer thread of its own, so that the reporting thread never waits for the disk.  The writer keeps the file of
+ * the current hour open, with a large buffer, and only switches to the next one at the hour boundary; the file of the
+ * same hour of last week is then replaced.  Should the writer fall behind by more than {@value #MAX_PENDING_REPORTS}
+ * reports, further reports are dropped until it catches up.
+ *
+ * <p>After each report, a {@link MetricsFileHousekeeper} applies the {@link FileReporterRetention} in the background:
+ * it compresses the files of past hours, and deletes the ones which are too old or too many.
+ */
 public class MetricsFileReporter extends ScheduledReporter {
+    /**
+     * The default size of the segments of {@link FileReporterFormat#BINARY}, in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The name of the gauge of the {@link #getDiskUsage()} of the file reporter.
+     */
+    public static final String DISK_USAGE_GAUGE = "odl.serviceutils.metrics.FileReporterDiskUsage";
 
     private static final Logger LOG = LoggerFactory.getLogger(MetricsFileReporter.class);
 
-    private static final String DATA_DIRECTORY = "data";
-    private static final String COUNTERS_DIRECTORY = "metrics";
+    static final File DEFAULT_DIRECTORY = new File("data", "metrics");
     private static final String COUNTER_FILE_PREFIX = "metrics.";
+    private static final String SEGMENT_FILE_SUFFIX = ".bin";
     private static final Charset DEFAULT_ENCODING = StandardCharsets.UTF_8;
-    private static final String SEPARATOR = ",";
+    private static final int TEXT_BUFFER_SIZE = 1024 * 1024;
+    private static final int MAX_PENDING_REPORTS = 2;
+    // The last value of a gauge which was not reported yet, which no value equals
+    private static final Object NOT_REPORTED = new Object();
 
     private final File parentDirectory;
-    private final Map<String, Long> oldCounters = new HashMap<>();
+    // Only accessed by the reporting thread, and by report(PrintWriter): the series ID of each metric, and the count
+    // (or the value of a gauge) it was last reported with, indexed by that ID; those of removed metrics are dropped
+    // by the next full report
+    private Map<String, Integer> seriesIds = new HashMap<>();
+    private long[] lastCounts = new long[1024];
+    private Object[] lastValues = new Object[1024];
+    // The hour of the last full report, of all metrics whether they changed or not, so that each file is complete on
+    // its own
+    private long fullReportMillis = Long.MAX_VALUE;
+    private long nextFullReportMillis = Long.MIN_VALUE;
+    private final AtomicInteger pendingReports = new AtomicInteger();
+    private final ListeningExecutorService writer;
     private final MetricRegistry registry;
     private final Duration interval;
+    private final FileReporterFormat format;
+    private final int segmentSize;
+    private final FileReporterRetention retention;
+    private final MetricsLayout layout;
+    private final MetricsFileHousekeeper housekeeper;
+
+    // Only accessed by the writer thread: the current hour, and its open file
+    private long hourMillis = Long.MAX_VALUE;
+    private long nextHourMillis = Long.MIN_VALUE;
+    private int day;
+    private int hour;
+    private @Nullable PrintWriter textFile;
+    private @Nullable MetricsSegmentWriter segment;
 
     public MetricsFileReporter(MetricRegistry registry, Duration interval) {
+        this(registry, interval, DEFAULT_DIRECTORY, FileReporterFormat.TEXT, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MetricsFileReporter(MetricRegistry registry, Duration interval, File parentDirectory,
+            FileReporterFormat format, int segmentSize) {
+        this(registry, interval, parentDirectory, format, segmentSize, FileReporterRetention.DEFAULT);
+    }
+
+    public MetricsFileReporter(MetricRegistry registry, Duration interval, File parentDirectory,
+            FileReporterFormat format, int segmentSize, FileReporterRetention retention) {
+        this(registry, interval, parentDirectory, format, segmentSize, retention, MetricsLayout.DEFAULT.percentiles());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param registry the registry to report
+     * @param interval the interval of the reports
+     * @param parentDirectory the directory of the files
+     * @param format the format of the files
+     * @param segmentSize the size of each segment of {@link FileReporterFormat#BINARY}, in bytes
+     * @param retention how long and how much of the files are kept, and whether they are compressed
+     * @param percentiles the percentiles of histograms and timers to report, each between 0 and 1
+     * @throws IllegalArgumentException if the segment size is too small, or a percentile is not between 0 and 1
+     */
+    public MetricsFileReporter(MetricRegistry registry, Duration interval, File parentDirectory,
+            FileReporterFormat format, int segmentSize, FileReporterRetention retention, double[] percentiles) {
         super(registry, "file-reporter", MetricFilter.ALL, TimeUnit.SECONDS, TimeUnit.SECONDS);
-        this.parentDirectory = new File(DATA_DIRECTORY, COUNTERS_DIRECTORY);
+        if (segmentSize <= MetricsSegment.HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.parentDirectory = parentDirectory;
         this.registry = registry;
         this.interval = interval;
+        this.format = format;
+        this.segmentSize = segmentSize;
+        this.retention = retention;
+        layout = new MetricsLayout(percentiles);
+        housekeeper = new MetricsFileHousekeeper(parentDirectory, COUNTER_FILE_PREFIX, retention);
+        writer = newListeningSingleThreadExecutor("serviceutils.metrics.MetricsFileReporter", LOG);
     }
 
     public void startReporter() {
@@ -65,107 +163,308 @@ public class MetricsFileReporter extends ScheduledReporter {
         return interval;
     }
 
+    FileReporterFormat getFormat() {
+        return format;
+    }
+
+    int getSegmentSize() {
+        return segmentSize;
+    }
+
+    FileReporterRetention getRetention() {
+        return retention;
+    }
+
+    double[] getPercentiles() {
+        return layout.percentiles();
+    }
+
+    /**
+     * Return the total size of the files, in bytes, as of the last housekeeping after a report, see
+     * {@link #DISK_USAGE_GAUGE}.
+     *
+     * @return the total size of the files
+     */
+    public long getDiskUsage() {
+        return housekeeper.diskUsage();
+    }
+
     public void report(PrintWriter pw) {
-        report(pw, registry.getGauges(), registry.getCounters(),
-                registry.getHistograms(), registry.getMeters(), registry.getTimers());
+        snapshot(System.currentTimeMillis(), registry.getGauges(), registry.getCounters(), registry.getHistograms(),
+            registry.getMeters(), registry.getTimers()).print(pw);
+    }
+
+    @Override
+    public void report(@SuppressWarnings("rawtypes")
+                       SortedMap<String, Gauge> gauges,
+                       SortedMap<String, Counter> counters,
+                       SortedMap<String, Histogram> histograms,
+                       SortedMap<String, Meter> meters,
+                       SortedMap<String, Timer> timers) {
+        if (pendingReports.get() >= MAX_PENDING_REPORTS) {
+            // Its changes are then part of the next one
+            LOG.warn("Metrics files are written slower than reported, dropping a report");
+            return;
+        }
+        MetricsReport report = snapshot(System.currentTimeMillis(), gauges, counters, histograms, meters, timers);
+        pendingReports.incrementAndGet();
+        try {
+            writer.execute(() -> {
+                try {
+                    write(report);
+                } finally {
+                    pendingReports.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingReports.decrementAndGet();
+            LOG.debug("Metrics file reporter closed, dropping a report", e);
+        }
+    }
+
+    /**
+     * Wait until all reports so far have been written to the files.
+     */
+    public void flush() {
+        Futures.getUnchecked(writer.submit(() -> { }));
     }
 
-    private void report(PrintWriter pw, @SuppressWarnings("rawtypes") SortedMap<String, Gauge> gauges,
+    @Override
+    public void close() {
+        // Reports one last time
+        super.close();
+        if (!writer.isShutdown()) {
+            writer.execute(this::closeFiles);
+            shutdownAndAwaitTermination(writer);
+            housekeeper.close();
+        }
+    }
+
+    private MetricsReport snapshot(long timeMillis, @SuppressWarnings("rawtypes") SortedMap<String, Gauge> gauges,
             SortedMap<String, Counter> counters, SortedMap<String, Histogram> histograms,
             SortedMap<String, Meter> meters, SortedMap<String, Timer> timers) {
-        pw.print("date,");
-        pw.print(new Date());
-        pw.println();
+        MetricsReport report = new MetricsReport(layout, timeMillis, counters.size(), gauges.size(), histograms.size(),
+            meters.size(), timers.size());
+        boolean full = timeMillis < fullReportMillis || timeMillis >= nextFullReportMillis;
+        if (full) {
+            Calendar calendar = startOfHour(timeMillis);
+            fullReportMillis = calendar.getTimeInMillis();
+            calendar.add(Calendar.HOUR_OF_DAY, 1);
+            nextFullReportMillis = calendar.getTimeInMillis();
 
-        pw.println("Counters:");
+            Set<String> names = new HashSet<>(seriesIds.size());
+            names.addAll(counters.keySet());
+            names.addAll(gauges.keySet());
+            names.addAll(histograms.keySet());
+            names.addAll(meters.keySet());
+            names.addAll(timers.keySet());
+            retainSeries(names);
+        }
         for (Map.Entry<String, Counter> entry : counters.entrySet()) {
-            Counter newCounter = entry.getValue();
+            long count = entry.getValue().getCount();
             // avoid unnecessary write to report file
             // report the counter only if there is a change
-            Long oldCounterObj = oldCounters.get(entry.getKey());
-            long oldCounter = oldCounterObj != null ? oldCounterObj.longValue() : 0;
-            if (newCounter.getCount() != oldCounter) {
-                pw.print(entry.getKey());
-                printWithSeparator(pw, "count", entry.getValue().getCount());
-                printWithSeparator(pw, "diff",
-                        entry.getValue().getCount() - oldCounter);
-                pw.println();
+            int id = seriesId(entry.getKey());
+            long lastCount = lastCounts[id];
+            if (full || count != lastCount) {
+                lastCounts[id] = count;
+                report.counter(entry.getKey(), count, count - lastCount);
             }
         }
-        pw.println("Gauges:");
         for (@SuppressWarnings("rawtypes") Map.Entry<String, Gauge> entry : gauges.entrySet()) {
-            pw.print(entry.getKey());
-            pw.println(entry.getValue().getValue());
+            Object value = entry.getValue().getValue();
+            int id = seriesId(entry.getKey());
+            if (full || !Objects.equals(value, lastValues[id])) {
+                lastValues[id] = value;
+                report.gauge(entry.getKey(), value);
+            }
         }
-        pw.println("Histograms:");
+        // Only those which were updated since their last report, which also spares the snapshots of the others; the
+        // one snapshot of each of the others yields all its values, including the percentiles
         for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
-            pw.print(entry.getKey());
-            printWithSeparator(pw, "count", entry.getValue().getCount());
-            printSampling(pw, entry.getValue());
-            pw.println();
+            Histogram histogram = entry.getValue();
+            long count = histogram.getCount();
+            int id = seriesId(entry.getKey());
+            long lastCount = lastCounts[id];
+            if (full || count != lastCount) {
+                lastCounts[id] = count;
+                report.histogram(entry.getKey(), count, count - lastCount, histogram.getSnapshot());
+            }
         }
-        pw.println("Meters:");
         for (Map.Entry<String, Meter> entry : meters.entrySet()) {
-            pw.print(entry.getKey());
-            printMeter(pw, entry.getValue());
+            Meter meter = entry.getValue();
+            long count = meter.getCount();
+            if (meterChanged(entry.getKey(), count, full)) {
+                report.meter(entry.getKey(), count, meter.getOneMinuteRate(), meter.getFiveMinuteRate(),
+                    meter.getFifteenMinuteRate());
+            }
         }
-        pw.println("Timers:");
         for (Map.Entry<String, Timer> entry : timers.entrySet()) {
-            pw.print(entry.getKey());
-            printSampling(pw, entry.getValue());
-            printMeter(pw, entry.getValue());
+            Timer timer = entry.getValue();
+            long count = timer.getCount();
+            int id = seriesId(entry.getKey());
+            long lastCount = lastCounts[id];
+            if (full || count != lastCount) {
+                lastCounts[id] = count;
+                report.timer(entry.getKey(), count, count - lastCount, timer.getSnapshot(), timer);
+            }
         }
-        counters.forEach((key, value) -> oldCounters.put(key, value.getCount()));
+        return report;
     }
 
-    @Override
-    public void report(@SuppressWarnings("rawtypes")
-                       SortedMap<String, Gauge> gauges,
-                       SortedMap<String, Counter> counters,
-                       SortedMap<String, Histogram> histograms,
-                       SortedMap<String, Meter> meters,
-                       SortedMap<String, Timer> timers) {
+    /**
+     * Return the series ID of a metric, assigning the next one to a new metric.
+     */
+    private int seriesId(String name) {
+        Integer id = seriesIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        int created = seriesIds.size();
+        if (created == lastCounts.length) {
+            lastCounts = Arrays.copyOf(lastCounts, created * 2);
+            lastValues = Arrays.copyOf(lastValues, created * 2);
+        }
+        lastValues[created] = NOT_REPORTED;
+        seriesIds.put(name, created);
+        return created;
+    }
+
+    /**
+     * Drop the series of the metrics which are not part of a full report, i.e. which were removed, and renumber the
+     * others, so that the series of short lived metrics do not accumulate.
+     */
+    private void retainSeries(Set<String> names) {
+        if (names.containsAll(seriesIds.keySet())) {
+            // None were removed
+            return;
+        }
+        long[] oldCounts = lastCounts;
+        Object[] oldValues = lastValues;
+        Map<String, Integer> retained = new HashMap<>();
+        long[] counts = new long[Math.max(1024, names.size())];
+        Object[] values = new Object[counts.length];
+        seriesIds.forEach((name, oldId) -> {
+            if (names.contains(name)) {
+                int id = retained.size();
+                retained.put(name, id);
+                counts[id] = oldCounts[oldId];
+                values[id] = oldValues[oldId];
+            }
+        });
+        LOG.debug("Dropped the series of {} removed metrics", seriesIds.size() - retained.size());
+        seriesIds = retained;
+        lastCounts = counts;
+        lastValues = values;
+    }
+
+    private boolean meterChanged(String name, long count, boolean full) {
+        int id = seriesId(name);
+        if (!full && count == lastCounts[id]) {
+            return false;
+        }
+        lastCounts[id] = count;
+        return true;
+    }
+
+    // Runs on the writer thread
+    private void write(MetricsReport report) {
         try {
-            Calendar calendar = Calendar.getInstance();
-            int hourOfTheDay = calendar.get(Calendar.HOUR_OF_DAY);
-            int dayOfTheWeek = calendar.get(Calendar.DAY_OF_WEEK);
-            // retains one week worth of counters
-            rotateLastWeekFile(dayOfTheWeek, hourOfTheDay);
-            boolean append = true;
-            File file = createFile(dayOfTheWeek, hourOfTheDay);
-            PrintWriter pw = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file, append),
-                    DEFAULT_ENCODING));
-            report(pw, gauges, counters, histograms, meters, timers);
-            pw.close();
+            long timeMillis = report.timeMillis();
+            if (timeMillis < hourMillis || timeMillis >= nextHourMillis) {
+                rotate(timeMillis);
+            }
+            if (format == FileReporterFormat.BINARY) {
+                report.write(segment());
+            } else {
+                PrintWriter pw = textFile();
+                report.print(pw);
+                // Flushes the buffer, i.e. a few large writes per report
+                if (pw.checkError()) {
+                    closeFiles();
+                    throw new IOException("Failed to write the metrics file of hour " + hour);
+                }
+            }
+            housekeeper.schedule(currentFileName(), hourMillis);
         } catch (IOException e) {
             LOG.error("Failed to report counters to files", e);
         }
     }
 
-    private static void printSampling(PrintWriter pw, Sampling sampling) {
-        Snapshot snapshot = sampling.getSnapshot();
-        printWithSeparator(pw, "min", snapshot.getMin());
-        printWithSeparator(pw, "max", snapshot.getMax());
-        printWithSeparator(pw, "mean", snapshot.getMean());
+    /**
+     * Switch to the hour of the given time, closing the file of the previous one.  The file of the new hour is only
+     * opened by the next write, but the housekeeper is told about it (and to compress the previous one) already, so
+     * that it never touches it.
+     */
+    private void rotate(long timeMillis) {
+        closeFiles();
+        Calendar calendar = startOfHour(timeMillis);
+        day = calendar.get(Calendar.DAY_OF_WEEK);
+        hour = calendar.get(Calendar.HOUR_OF_DAY);
+        hourMillis = calendar.getTimeInMillis();
+        calendar.add(Calendar.HOUR_OF_DAY, 1);
+        nextHourMillis = calendar.getTimeInMillis();
+        housekeeper.schedule(currentFileName(), hourMillis);
     }
 
-    private static void printMeter(PrintWriter pw, Metered meter) {
-        printWithSeparator(pw, "count", meter.getCount());
-        printWithSeparator(pw, "oneMinuteRate", meter.getOneMinuteRate());
-        printWithSeparator(pw, "fiveMinuteRate", meter.getFiveMinuteRate());
-        printWithSeparator(pw, "fifteenMinuteRate", meter.getFifteenMinuteRate());
-        pw.println();
+    private static Calendar startOfHour(long timeMillis) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(timeMillis);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar;
     }
 
-    private static void printWithSeparator(PrintWriter pw, String name, Object val) {
-        printSeparator(pw);
-        pw.print(name);
-        printSeparator(pw);
-        pw.print(val);
+    private PrintWriter textFile() throws IOException {
+        PrintWriter current = textFile;
+        if (current != null) {
+            return current;
+        }
+        File file = new File(createDirectory(), currentFileName());
+        // retains one week worth of counters: the file of this hour of last week is replaced, while one written
+        // during this hour already (e.g. before a restart) is appended to
+        boolean append = file.lastModified() >= hourMillis;
+        if (!append) {
+            LOG.debug("Starting metrics file {}", file);
+        }
+        PrintWriter created = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+            new FileOutputStream(file, append), DEFAULT_ENCODING), TEXT_BUFFER_SIZE));
+        textFile = created;
+        return created;
     }
 
-    private static void printSeparator(PrintWriter pw) {
-        pw.print(SEPARATOR);
+    private MetricsSegmentWriter segment() throws IOException {
+        MetricsSegmentWriter current = segment;
+        if (current != null) {
+            return current;
+        }
+        File file = new File(createDirectory(), currentFileName());
+        MetricsSegmentWriter created = new MetricsSegmentWriter(layout, file.toPath(), segmentSize, hourMillis);
+        segment = created;
+        return created;
+    }
+
+    private void closeFiles() {
+        PrintWriter currentText = textFile;
+        if (currentText != null) {
+            textFile = null;
+            currentText.close();
+        }
+        MetricsSegmentWriter currentSegment = segment;
+        if (currentSegment != null) {
+            segment = null;
+            try {
+                currentSegment.close();
+            } catch (IOException e) {
+                LOG.warn("Failed to close metrics segment", e);
+            }
+        }
+    }
+
+    private String currentFileName() {
+        String name = getFileName(day, hour);
+        return format == FileReporterFormat.BINARY ? name + SEGMENT_FILE_SUFFIX : name;
     }
 
     private static String getFileName(int dayOfTheWeek, int hourOfTheDay) {
@@ -173,13 +472,7 @@ public class MetricsFileReporter extends ScheduledReporter {
     }
 
     public File createFile(int dayOfTheWeek, int hourOfTheDay) throws IOException {
-        if (!parentDirectory.exists()) {
-            LOG.info("Directory does not exist, creating it: {}", parentDirectory.getName());
-            if (!parentDirectory.mkdirs()) {
-                throw new IOException("Failed to make directories: " + parentDirectory.toString());
-            }
-        }
-        File file = new File(parentDirectory, getFileName(dayOfTheWeek, hourOfTheDay));
+        File file = new File(createDirectory(), getFileName(dayOfTheWeek, hourOfTheDay));
         if (!file.exists()) {
             LOG.info("File does not exist, creating it: {}", file.getPath());
             if (!file.createNewFile()) {
@@ -189,15 +482,13 @@ public class MetricsFileReporter extends ScheduledReporter {
         return file;
     }
 
-    private void rotateLastWeekFile(int dayOfTheWeek, int hourOfTheDay) throws IOException {
-        int nextHour = hourOfTheDay < 23 ? hourOfTheDay + 1 : 0;
-        File nextHourFile = new File(parentDirectory , getFileName(dayOfTheWeek, nextHour));
-        if (nextHourFile.exists()) {
-            boolean append = false;
-            PrintWriter pw = new PrintWriter(new OutputStreamWriter(new FileOutputStream(nextHourFile, append),
-                    DEFAULT_ENCODING));
-            pw.write(new Date().toString());
-            pw.close();
+    private File createDirectory() throws IOException {
+        if (!parentDirectory.exists()) {
+            LOG.info("Directory does not exist, creating it: {}", parentDirectory.getName());
+            if (!parentDirectory.mkdirs()) {
+                throw new IOException("Failed to make directories: " + parentDirectory.toString());
+            }
         }
+        return parentDirectory;
     }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import org.opendaylight.serviceutils.metrics.internal.MetricsSegment.Kind;
+
+/**
+ * Package private layout of the fields of the samples of each {@link Kind}, which depends on the percentiles which
+ * are reported of histograms and timers: those are inserted at {@link Kind#percentilesOffset}, as doubles named
+ * after their percentage, e.g. <code>p50</code> for 0.5 and <code>p999</code> for 0.999.
+ */
+final class MetricsLayout {
+    private static final Kind[] KINDS = Kind.values();
+
+    /**
+     * The layout of the default percentiles: 0.5, 0.9, 0.99 and 0.999.
+     */
+    static final MetricsLayout DEFAULT = new MetricsLayout(new double[] { 0.5, 0.9, 0.99, 0.999 });
+
+    private final double[] percentiles;
+    // Indexed by the ordinal of the kind
+    private final String[][] fieldNames = new String[KINDS.length][];
+    private final boolean[][] doubleFields = new boolean[KINDS.length][];
+
+    /**
+     * Constructor.
+     *
+     * @param percentiles the percentiles, each between 0 and 1
+     * @throws IllegalArgumentException if a percentile is not between 0 and 1
+     */
+    MetricsLayout(double[] percentiles) {
+        this.percentiles = percentiles.clone();
+        String[] percentileNames = new String[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            double percentile = percentiles[i];
+            if (!(percentile >= 0 && percentile <= 1)) {
+                throw new IllegalArgumentException("Percentile not between 0 and 1: " + percentile);
+            }
+            percentileNames[i] = "p" + BigDecimal.valueOf(percentile).movePointRight(2).stripTrailingZeros()
+                .toPlainString().replace(".", "");
+        }
+
+        for (Kind kind : KINDS) {
+            int offset = kind.percentilesOffset;
+            int extra = offset < 0 ? 0 : percentiles.length;
+            String[] names = new String[kind.fieldNames.length + extra];
+            boolean[] doubles = new boolean[names.length];
+            for (int i = 0; i < names.length; i++) {
+                if (offset >= 0 && i >= offset && i < offset + extra) {
+                    names[i] = percentileNames[i - offset];
+                    doubles[i] = true;
+                } else {
+                    int field = offset >= 0 && i >= offset ? i - extra : i;
+                    names[i] = kind.fieldNames[field];
+                    doubles[i] = kind.isDouble(field);
+                }
+            }
+            fieldNames[kind.ordinal()] = names;
+            doubleFields[kind.ordinal()] = doubles;
+        }
+    }
+
+    /**
+     * Return the percentiles of histograms and timers.
+     */
+    double[] percentiles() {
+        return percentiles.clone();
+    }
+
+    int percentileCount() {
+        return percentiles.length;
+    }
+
+    double percentile(int index) {
+        return percentiles[index];
+    }
+
+    int fields(Kind kind) {
+        return fieldNames[kind.ordinal()].length;
+    }
+
+    String fieldName(Kind kind, int field) {
+        return fieldNames[kind.ordinal()][field];
+    }
+
+    boolean isDouble(Kind kind, int field) {
+        return doubleFields[kind.ordinal()][field];
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(percentiles);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import com.codahale.metrics.Metered;
+import com.codahale.metrics.Snapshot;
+import java.io.PrintWriter;
+import java.util.Date;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.serviceutils.metrics.internal.MetricsSegment.Kind;
+
+/**
+ * Package private snapshot of the values of the metrics at one time, which the {@link MetricsFileReporter} takes on
+ * its reporting thread, and then writes to its files on its writer thread.  The values of each {@link Kind} are kept
+ * in one flat array, in the order of their {@link MetricsLayout}, with doubles as their raw bits.
+ */
+final class MetricsReport {
+    private static final String SEPARATOR = ",";
+
+    /**
+     * The samples of one kind.
+     */
+    private static final class Section {
+        final Kind kind;
+        final int fields;
+        final String[] names;
+        final long[] values;
+        int size;
+
+        Section(Kind kind, int fields, int capacity) {
+            this.kind = kind;
+            this.fields = fields;
+            names = new String[capacity];
+            values = new long[capacity * fields];
+        }
+
+        // Return the offset of the fields of the new sample
+        int add(String name) {
+            names[size] = name;
+            return size++ * fields;
+        }
+    }
+
+    private final MetricsLayout layout;
+    private final long timeMillis;
+    private final Section counters;
+    private final Section histograms;
+    private final Section meters;
+    private final Section timers;
+    private final String[] gaugeNames;
+    private final @Nullable Object[] gaugeValues;
+    private int gaugeCount;
+
+    /**
+     * Constructor.
+     *
+     * @param layout the layout of the samples
+     * @param timeMillis the time of the report, in milliseconds since the epoch
+     * @param counters the maximum number of counters
+     * @param gauges the maximum number of gauges
+     * @param histograms the maximum number of histograms
+     * @param meters the maximum number of meters
+     * @param timers the maximum number of timers
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    MetricsReport(MetricsLayout layout, long timeMillis, int counters, int gauges, int histograms, int meters,
+            int timers) {
+        this.layout = layout;
+        this.timeMillis = timeMillis;
+        this.counters = new Section(Kind.COUNTER, layout.fields(Kind.COUNTER), counters);
+        this.histograms = new Section(Kind.HISTOGRAM, layout.fields(Kind.HISTOGRAM), histograms);
+        this.meters = new Section(Kind.METER, layout.fields(Kind.METER), meters);
+        this.timers = new Section(Kind.TIMER, layout.fields(Kind.TIMER), timers);
+        gaugeNames = new String[gauges];
+        gaugeValues = new Object[gauges];
+    }
+
+    long timeMillis() {
+        return timeMillis;
+    }
+
+    void counter(String name, long count, long diff) {
+        int offset = counters.add(name);
+        counters.values[offset] = count;
+        counters.values[offset + 1] = diff;
+    }
+
+    void gauge(String name, @Nullable Object value) {
+        gaugeNames[gaugeCount] = name;
+        gaugeValues[gaugeCount++] = value;
+    }
+
+    void histogram(String name, long count, long diff, Snapshot snapshot) {
+        int offset = histograms.add(name);
+        long[] values = histograms.values;
+        values[offset] = count;
+        values[offset + 1] = diff;
+        values[offset + 2] = snapshot.getMin();
+        values[offset + 3] = snapshot.getMax();
+        values[offset + 4] = Double.doubleToRawLongBits(snapshot.getMean());
+        putPercentiles(values, offset + Kind.HISTOGRAM.percentilesOffset, snapshot);
+    }
+
+    void meter(String name, long count, double oneMinuteRate, double fiveMinuteRate, double fifteenMinuteRate) {
+        int offset = meters.add(name);
+        long[] values = meters.values;
+        values[offset] = count;
+        values[offset + 1] = Double.doubleToRawLongBits(oneMinuteRate);
+        values[offset + 2] = Double.doubleToRawLongBits(fiveMinuteRate);
+        values[offset + 3] = Double.doubleToRawLongBits(fifteenMinuteRate);
+    }
+
+    void timer(String name, long count, long diff, Snapshot snapshot, Metered meter) {
+        int offset = timers.add(name);
+        long[] values = timers.values;
+        values[offset] = snapshot.getMin();
+        values[offset + 1] = snapshot.getMax();
+        values[offset + 2] = Double.doubleToRawLongBits(snapshot.getMean());
+        putPercentiles(values, offset + Kind.TIMER.percentilesOffset, snapshot);
+        int meterOffset = offset + Kind.TIMER.percentilesOffset + layout.percentileCount();
+        values[meterOffset] = count;
+        values[meterOffset + 1] = diff;
+        values[meterOffset + 2] = Double.doubleToRawLongBits(meter.getOneMinuteRate());
+        values[meterOffset + 3] = Double.doubleToRawLongBits(meter.getFiveMinuteRate());
+        values[meterOffset + 4] = Double.doubleToRawLongBits(meter.getFifteenMinuteRate());
+    }
+
+    /**
+     * Print this report in {@link FileReporterFormat#TEXT}.
+     *
+     * @param pw where to print to
+     */
+    void print(PrintWriter pw) {
+        pw.print("date,");
+        pw.print(new Date(timeMillis));
+        pw.println();
+
+        printSection(pw, counters);
+        pw.println(Kind.GAUGE.header);
+        for (int i = 0; i < gaugeCount; i++) {
+            printGauge(pw, gaugeNames[i], gaugeValues[i]);
+        }
+        printSection(pw, histograms);
+        printSection(pw, meters);
+        printSection(pw, timers);
+    }
+
+    /**
+     * Write this report to a segment of {@link FileReporterFormat#BINARY}.
+     *
+     * @param writer the writer of the segment
+     * @return false if the segment is full, and the report was thus dropped
+     */
+    boolean write(MetricsSegmentWriter writer) {
+        writer.beginReport(timeMillis);
+        writeSection(writer, counters);
+        for (int i = 0; i < gaugeCount; i++) {
+            writer.gauge(gaugeNames[i], gaugeValues[i]);
+        }
+        writeSection(writer, histograms);
+        writeSection(writer, meters);
+        writeSection(writer, timers);
+        return writer.endReport();
+    }
+
+    /**
+     * Print the line of a sample of a metric other than a gauge.
+     *
+     * @param pw where to print to
+     * @param layout the layout of the samples
+     * @param name the name of the metric
+     * @param kind the kind of the metric
+     * @param values the values of the fields of the kind, with doubles as their raw bits
+     * @param offset the offset of the first field in values
+     */
+    static void printSample(PrintWriter pw, MetricsLayout layout, String name, Kind kind, long[] values, int offset) {
+        pw.print(name);
+        for (int i = 0; i < layout.fields(kind); i++) {
+            pw.print(SEPARATOR);
+            pw.print(layout.fieldName(kind, i));
+            pw.print(SEPARATOR);
+            long value = values[offset + i];
+            if (layout.isDouble(kind, i)) {
+                pw.print(Double.longBitsToDouble(value));
+            } else {
+                pw.print(value);
+            }
+        }
+        pw.println();
+    }
+
+    /**
+     * Print the line of a sample of a gauge.  There is no separator between the name and the value, as there never
+     * was.
+     *
+     * @param pw where to print to
+     * @param name the name of the gauge
+     * @param value the value of the gauge
+     */
+    static void printGauge(PrintWriter pw, String name, @Nullable Object value) {
+        pw.print(name);
+        pw.println(value);
+    }
+
+    private void printSection(PrintWriter pw, Section section) {
+        pw.println(section.kind.header);
+        for (int i = 0; i < section.size; i++) {
+            printSample(pw, layout, section.names[i], section.kind, section.values, i * section.fields);
+        }
+    }
+
+    // Percentiles from the one snapshot of the metric
+    private void putPercentiles(long[] values, int offset, Snapshot snapshot) {
+        for (int i = 0; i < layout.percentileCount(); i++) {
+            values[offset + i] = Double.doubleToRawLongBits(snapshot.getValue(layout.percentile(i)));
+        }
+    }
+
+    private static void writeSection(MetricsSegmentWriter writer, Section section) {
+        for (int i = 0; i < section.size; i++) {
+            writer.sample(section.names[i], section.kind, section.values, i * section.fields);
+        }
+    }
+}
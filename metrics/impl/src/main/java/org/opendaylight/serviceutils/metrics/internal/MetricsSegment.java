@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+/**
+ * Package private definition of the segments of {@link FileReporterFormat#BINARY}, shared by the
+ * {@link MetricsSegmentWriter} and the {@link MetricsSegmentDecoder}.
+ *
+ * <p>A segment is a file of a fixed size, which holds the reports of one hour.  The segments of the hours of a week
+ * form a ring: each one is reset when its hour comes around again.  A segment starts with a header of
+ * {@value #HEADER_SIZE} bytes (the magic, the version, the offset of the end of the last complete record, and the
+ * start of the hour in milliseconds since the epoch), followed by records, each starting with its type:
+ * <ul>
+ *   <li>{@link #SESSION}: the start of a writer, with the time in milliseconds as a fixed 8 byte value, and the
+ *       number of percentiles of histograms and timers, followed by each one as a fixed 8 byte double, see
+ *       {@link MetricsLayout}.  It resets the dictionary and the previous values.</li>
+ *   <li>{@link #SERIES}: the next entry of the dictionary, i.e. the {@link Kind} and the name of a metric, which is
+ *       then referred to by its index in the dictionary.</li>
+ *   <li>{@link #REPORT}: the milliseconds since the previous report or session, the number of samples, and the
+ *       samples, ordered by {@link Kind}.  Each sample is the difference of its dictionary index to that of the
+ *       previous sample minus one, followed by the fields of its kind in the {@link MetricsLayout} of the session.
+ *       Integral fields are the difference to the previous value of the same field, zig-zag encoded; floating point
+ *       fields are their bits XORed with those of the previous value.  Gauges are a tag first, and strings their
+ *       length and UTF-8 bytes.</li>
+ * </ul>
+ * All variable length integers are unsigned LEB128 varints.
+ */
+final class MetricsSegment {
+    /**
+     * The kinds of metrics, in the order of the sections of the text format.
+     */
+    enum Kind {
+        COUNTER("Counters:", 0, -1, "count", "diff"),
+        GAUGE("Gauges:", 0, -1, "value"),
+        HISTOGRAM("Histograms:", 0b1_0000, 5, "count", "diff", "min", "max", "mean"),
+        METER("Meters:", 0b1110, -1, "count", "oneMinuteRate", "fiveMinuteRate", "fifteenMinuteRate"),
+        TIMER("Timers:", 0b1110_0100, 3, "min", "max", "mean", "count", "diff", "oneMinuteRate", "fiveMinuteRate",
+            "fifteenMinuteRate");
+
+        private static final Kind[] VALUES = values();
+
+        final String header;
+        // The names of the fields in the text, in the order of the samples, without the percentiles; the value of a
+        // gauge has none
+        final String[] fieldNames;
+        // Where the percentiles go between the fields, if the kind has them, or -1
+        final int percentilesOffset;
+        private final int doubleFields;
+
+        Kind(String header, int doubleFields, int percentilesOffset, String... fieldNames) {
+            this.header = header;
+            this.doubleFields = doubleFields;
+            this.percentilesOffset = percentilesOffset;
+            this.fieldNames = fieldNames;
+        }
+
+        boolean isDouble(int field) {
+            return (doubleFields & (1 << field)) != 0;
+        }
+
+        static Kind of(int ordinal) {
+            if (ordinal < 0 || ordinal >= VALUES.length) {
+                throw new IllegalArgumentException("Unknown kind " + ordinal);
+            }
+            return VALUES[ordinal];
+        }
+    }
+
+    // "ODLMSEG1"
+    static final long MAGIC = 0x4F44_4C4D_5345_4731L;
+    static final int VERSION = 2;
+    static final int VERSION_OFFSET = 8;
+    static final int END_OFFSET = 12;
+    static final int HOUR_OFFSET = 16;
+    static final int HEADER_SIZE = 24;
+
+    static final byte SESSION = 1;
+    static final byte SERIES = 2;
+    static final byte REPORT = 3;
+
+    static final byte GAUGE_NULL = 0;
+    static final byte GAUGE_LONG = 1;
+    static final byte GAUGE_DOUBLE = 2;
+    static final byte GAUGE_STRING = 3;
+
+    private MetricsSegment() {
+        // Hidden on purpose
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.opendaylight.serviceutils.metrics.internal.MetricsSegment.unZigZag;
+
+import com.google.errorprone.annotations.Var;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.serviceutils.metrics.internal.MetricsSegment.Kind;
+
+/**
+ * Decoder of the segments which the {@link MetricsFileReporter} writes in {@link FileReporterFormat#BINARY}, into the
+ * same text as it writes in {@link FileReporterFormat#TEXT}.  Only needs the JDK and this class's own package, so it
+ * can be run from the metrics-impl bundle alone:
+ * <pre>
+ *   java -cp system/org/opendaylight/serviceutils/metrics-impl/&lt;version&gt;/metrics-impl-&lt;version&gt;.jar \
+ *       org.opendaylight.serviceutils.metrics.internal.MetricsSegmentDecoder data/metrics/metrics.2.13.bin [out.txt]
+ * </pre>
+ * Without an output file, the text is written to the standard output.  Segments which are still being written to can
+ * be decoded as well; only complete reports are.  Segments which were compressed, i.e. whose name ends with
+ * <code>.gz</code>, are decompressed first.
+ */
+public final class MetricsSegmentDecoder {
+    /**
+     * An entry of the dictionary, with the previous values of its fields.
+     */
+    private static final class Series {
+        final String name;
+        final Kind kind;
+        final long[] previous;
+
+        Series(String name, Kind kind, int fields) {
+            this.name = name;
+            this.kind = kind;
+            previous = new long[fields];
+        }
+    }
+
+    private final List<Series> dictionary = new ArrayList<>();
+    private final ByteBuffer buffer;
+    private final PrintWriter pw;
+    private MetricsLayout layout = MetricsLayout.DEFAULT;
+    private long timeMillis;
+
+    private MetricsSegmentDecoder(ByteBuffer buffer, PrintWriter pw) {
+        this.buffer = buffer;
+        this.pw = pw;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            throw new IllegalArgumentException("Usage: MetricsSegmentDecoder <segment> [<output file>]");
+        }
+        Path segment = Path.of(args[0]);
+        if (args.length == 2) {
+            try (Writer out = Files.newBufferedWriter(Path.of(args[1]), UTF_8)) {
+                decode(segment, out);
+            }
+        } else {
+            // Not closed, so that the standard output stays open
+            Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), UTF_8));
+            decode(segment, out);
+        }
+    }
+
+    /**
+     * Decode a segment.
+     *
+     * @param segment the file of the segment
+     * @param out where to write the text to; it is flushed, but not closed
+     * @throws IOException if the segment cannot be read, is not a valid segment, or the text cannot be written
+     */
+    public static void decode(Path segment, Writer out) throws IOException {
+        ByteBuffer buffer;
+        if (segment.getFileName().toString().endsWith(MetricsFileHousekeeper.COMPRESSED_FILE_SUFFIX)) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(segment))) {
+                buffer = ByteBuffer.wrap(in.readAllBytes());
+            }
+        } else {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        if (buffer.limit() < MetricsSegment.HEADER_SIZE || buffer.getLong(0) != MetricsSegment.MAGIC) {
+            throw new IOException(segment + " is not a metrics segment");
+        }
+        int version = buffer.getInt(MetricsSegment.VERSION_OFFSET);
+        if (version != MetricsSegment.VERSION) {
+            throw new IOException(segment + " has unsupported version " + version);
+        }
+        int end = buffer.getInt(MetricsSegment.END_OFFSET);
+        if (end < MetricsSegment.HEADER_SIZE || end > buffer.limit()) {
+            throw new IOException(segment + " has an invalid end " + end);
+        }
+
+        PrintWriter pw = new PrintWriter(out);
+        try {
+            new MetricsSegmentDecoder(buffer.limit(end).position(MetricsSegment.HEADER_SIZE), pw).decodeRecords();
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                | ArithmeticException e) {
+            throw new IOException(segment + " is corrupt at " + buffer.position(), e);
+        } finally {
+            pw.flush();
+        }
+        if (pw.checkError()) {
+            throw new IOException("Failed to write the text of " + segment);
+        }
+    }
+
+    private void decodeRecords() {
+        while (buffer.hasRemaining()) {
+            byte type = buffer.get();
+            switch (type) {
+                case MetricsSegment.SESSION -> {
+                    dictionary.clear();
+                    timeMillis = buffer.getLong();
+                    layout = readLayout();
+                }
+                case MetricsSegment.SERIES -> {
+                    Kind kind = Kind.of(buffer.get());
+                    dictionary.add(new Series(readString(), kind, layout.fields(kind)));
+                }
+                case MetricsSegment.REPORT -> decodeReport();
+                default -> throw new IllegalArgumentException("Unknown record type " + type);
+            }
+        }
+    }
+
+    private void decodeReport() {
+        timeMillis += readVarint();
+        pw.print("date,");
+        pw.print(new Date(timeMillis));
+        pw.println();
+
+        @Var int nextSection = 0;
+        @Var int index = -1;
+        long sampleCount = readVarint();
+        for (long i = 0; i < sampleCount; i++) {
+            index = Math.addExact(index, Math.toIntExact(unZigZag(readVarint()) + 1));
+            Series series = dictionary.get(index);
+            while (nextSection <= series.kind.ordinal()) {
+                pw.println(Kind.of(nextSection++).header);
+            }
+            decodeSample(series);
+        }
+        while (nextSection < Kind.TIMER.ordinal() + 1) {
+            pw.println(Kind.of(nextSection++).header);
+        }
+    }
+
+    private void decodeSample(Series series) {
+        if (series.kind == Kind.GAUGE) {
+            MetricsReport.printGauge(pw, series.name, decodeGauge(series));
+            return;
+        }
+
+        long[] values = series.previous;
+        for (int i = 0; i < values.length; i++) {
+            long encoded = readVarint();
+            values[i] = layout.isDouble(series.kind, i) ? values[i] ^ encoded : values[i] + unZigZag(encoded);
+        }
+        MetricsReport.printSample(pw, layout, series.name, series.kind, values, 0);
+    }
+
+    private @Nullable Object decodeGauge(Series series) {
+        byte tag = buffer.get();
+        return switch (tag) {
+            case MetricsSegment.GAUGE_NULL -> null;
+            case MetricsSegment.GAUGE_LONG -> {
+                series.previous[0] += unZigZag(readVarint());
+                yield series.previous[0];
+            }
+            case MetricsSegment.GAUGE_DOUBLE -> {
+                series.previous[0] ^= readVarint();
+                yield Double.longBitsToDouble(series.previous[0]);
+            }
+            case MetricsSegment.GAUGE_STRING -> readString();
+            default -> throw new IllegalArgumentException("Unknown gauge tag " + tag);
+        };
+    }
+
+    private MetricsLayout readLayout() {
+        double[] percentiles = new double[Math.toIntExact(readVarint())];
+        for (int i = 0; i < percentiles.length; i++) {
+            percentiles[i] = buffer.getDouble();
+        }
+        return new MetricsLayout(percentiles);
+    }
+
+    private long readVarint() {
+        @Var long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte next = buffer.get();
+            value |= (next & 0x7FL) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private String readString() {
+        byte[] bytes = new byte[Math.toIntExact(readVarint())];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
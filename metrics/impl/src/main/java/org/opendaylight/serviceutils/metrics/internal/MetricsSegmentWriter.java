@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.opendaylight.serviceutils.metrics.internal.MetricsSegment.zigZag;
+
+import com.google.errorprone.annotations.Var;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.serviceutils.metrics.internal.MetricsSegment.Kind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Package private writer of one segment of {@link FileReporterFormat#BINARY}, see {@link MetricsSegment} for its
+ * format.  The segment is memory-mapped, so a report costs no system call at all.
+ *
+ * <p>A report is written with {@link #beginReport(long)}, one {@link #sample(String, Kind, long[], int)} or
+ * {@link #gauge(String, Object)} per metric, and {@link #endReport()}.  It is encoded into buffers on the heap first,
+ * and then copied into the segment as a whole, and only then made part of it by moving the end in the header; a
+ * reader (or a crash) thus never sees half a report.  Once a report does not fit into the segment any more, the
+ * segment is full, and all further reports into it are dropped.  When closed, the segment is truncated to its used
+ * end.
+ *
+ * <p>Instances are not thread safe.
+ */
+final class MetricsSegmentWriter implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsSegmentWriter.class);
+    // Type, time and sample count of the REPORT record
+    private static final int MAX_REPORT_HEADER_SIZE = 1 + 10 + 5;
+
+    /**
+     * A growable byte buffer on the heap.
+     */
+    private static final class Bytes {
+        byte[] array = new byte[64 * 1024];
+        int length;
+
+        void ensure(int extra) {
+            if (length + extra > array.length) {
+                array = Arrays.copyOf(array, Math.max(array.length * 2, length + extra));
+            }
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            array[length++] = (byte) value;
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            @Var long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                array[length++] = (byte) ((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            array[length++] = (byte) remaining;
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(UTF_8);
+            writeVarint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, array, length, bytes.length);
+            length += bytes.length;
+        }
+    }
+
+    /**
+     * An entry of the dictionary, with the previous values of its fields.
+     */
+    private static final class Series {
+        final int index;
+        final Kind kind;
+        final long[] previous;
+
+        Series(int index, Kind kind, int fields) {
+            this.index = index;
+            this.kind = kind;
+            previous = new long[fields];
+        }
+    }
+
+    private final Map<String, Series> dictionary = new HashMap<>();
+    private final Bytes definitions = new Bytes();
+    private final Bytes samples = new Bytes();
+    private final MetricsLayout layout;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long hourMillis;
+    private int end;
+    private boolean sessionStarted;
+    private boolean full;
+    private long previousMillis;
+    private long reportMillis;
+    private int seriesCount;
+    private int previousIndex;
+    private int sampleCount;
+
+    /**
+     * Open a segment, creating it if needed.  A segment of the same hour (e.g. of a previous run within the same
+     * hour) is appended to; any other one is reset.
+     *
+     * @param layout the layout of the samples
+     * @param path the file of the segment
+     * @param size the size of the segment, in bytes
+     * @param hourMillis the start of the hour of the segment, in milliseconds since the epoch
+     * @throws IOException if the segment cannot be opened
+     */
+    MetricsSegmentWriter(MetricsLayout layout, Path path, int size, long hourMillis) throws IOException {
+        this.layout = layout;
+        this.path = path;
+        this.hourMillis = hourMillis;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        int existingEnd = buffer.getInt(MetricsSegment.END_OFFSET);
+        if (buffer.getLong(0) == MetricsSegment.MAGIC
+                && buffer.getInt(MetricsSegment.VERSION_OFFSET) == MetricsSegment.VERSION
+                && buffer.getLong(MetricsSegment.HOUR_OFFSET) == hourMillis
+                && existingEnd >= MetricsSegment.HEADER_SIZE && existingEnd <= size) {
+            end = existingEnd;
+            LOG.debug("Appending to segment {} at {}", path, end);
+        } else {
+            buffer.putLong(0, MetricsSegment.MAGIC);
+            buffer.putInt(MetricsSegment.VERSION_OFFSET, MetricsSegment.VERSION);
+            buffer.putLong(MetricsSegment.HOUR_OFFSET, hourMillis);
+            end = MetricsSegment.HEADER_SIZE;
+            buffer.putInt(MetricsSegment.END_OFFSET, end);
+            LOG.debug("Reset segment {}", path);
+        }
+    }
+
+    /**
+     * Return the start of the hour of this segment, in milliseconds since the epoch.
+     */
+    long hourMillis() {
+        return hourMillis;
+    }
+
+    /**
+     * Start a report.
+     *
+     * @param timeMillis the time of the report, in milliseconds since the epoch
+     */
+    void beginReport(long timeMillis) {
+        definitions.length = 0;
+        samples.length = 0;
+        reportMillis = timeMillis;
+        previousIndex = -1;
+        sampleCount = 0;
+    }
+
+    void gauge(String name, @Nullable Object value) {
+        Series series = sampleHeader(name, Kind.GAUGE);
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            long longValue = ((Number) value).longValue();
+            samples.writeByte(MetricsSegment.GAUGE_LONG);
+            samples.writeVarint(zigZag(longValue - series.previous[0]));
+            series.previous[0] = longValue;
+        } else if (value instanceof Double doubleValue) {
+            long bits = Double.doubleToRawLongBits(doubleValue);
+            samples.writeByte(MetricsSegment.GAUGE_DOUBLE);
+            samples.writeVarint(bits ^ series.previous[0]);
+            series.previous[0] = bits;
+        } else if (value != null) {
+            // Including Floats, whose text differs from that of the same value as a double
+            samples.writeByte(MetricsSegment.GAUGE_STRING);
+            samples.writeString(value.toString());
+        } else {
+            samples.writeByte(MetricsSegment.GAUGE_NULL);
+        }
+    }
+
+    /**
+     * Add the sample of a metric other than a gauge to the report.
+     *
+     * @param name the name of the metric
+     * @param kind the kind of the metric
+     * @param values the values of the fields of the kind in the order of the layout, with doubles as their raw bits
+     * @param offset the offset of the first field in values
+     */
+    void sample(String name, Kind kind, long[] values, int offset) {
+        Series series = sampleHeader(name, kind);
+        long[] previous = series.previous;
+        for (int i = 0; i < previous.length; i++) {
+            long value = values[offset + i];
+            samples.writeVarint(layout.isDouble(kind, i) ? value ^ previous[i] : zigZag(value - previous[i]));
+            previous[i] = value;
+        }
+    }
+
+    /**
+     * Complete the report, and append it to the segment.
+     *
+     * @return false if the segment is full, and the report was thus dropped
+     */
+    boolean endReport() {
+        if (full) {
+            return false;
+        }
+        // The session record is the one thing still missing from the segment
+        Bytes session = sessionStarted ? null : session();
+        int needed = (session == null ? 0 : session.length) + definitions.length + MAX_REPORT_HEADER_SIZE
+            + samples.length;
+        if (needed > buffer.capacity() - end) {
+            // The dictionary and the previous values now differ from those in the segment, so nothing may follow
+            full = true;
+            LOG.warn("Metrics segment {} is full, dropping the reports of this hour", path);
+            return false;
+        }
+
+        @Var int position = end;
+        if (session != null) {
+            buffer.put(position, session.array, 0, session.length);
+            position += session.length;
+            previousMillis = reportMillis;
+            sessionStarted = true;
+        }
+        buffer.put(position, definitions.array, 0, definitions.length);
+        position += definitions.length;
+
+        // The definitions were copied already, so their buffer is reused
+        Bytes header = definitions;
+        header.length = 0;
+        header.writeByte(MetricsSegment.REPORT);
+        header.writeVarint(Math.max(0, reportMillis - previousMillis));
+        header.writeVarint(sampleCount);
+        buffer.put(position, header.array, 0, header.length);
+        position += header.length;
+        buffer.put(position, samples.array, 0, samples.length);
+        position += samples.length;
+        previousMillis = Math.max(previousMillis, reportMillis);
+
+        // Make the whole report visible before it becomes part of the segment
+        VarHandle.releaseFence();
+        buffer.putInt(MetricsSegment.END_OFFSET, position);
+        end = position;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            buffer.force();
+            // Only the used part takes disk space from now on; it grows back to the full size if reopened
+            channel.truncate(end);
+        } finally {
+            channel.close();
+        }
+    }
+
+    // Type, fixed 8 byte time and the percentiles of the layout
+    private Bytes session() {
+        Bytes session = new Bytes();
+        session.writeByte(MetricsSegment.SESSION);
+        writeLong(session, reportMillis);
+        session.writeVarint(layout.percentileCount());
+        for (int i = 0; i < layout.percentileCount(); i++) {
+            writeLong(session, Double.doubleToRawLongBits(layout.percentile(i)));
+        }
+        return session;
+    }
+
+    // Big endian, as the buffer
+    private static void writeLong(Bytes bytes, long value) {
+        for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            bytes.writeByte((int) (value >>> shift));
+        }
+    }
+
+    private Series sampleHeader(String name, Kind kind) {
+        @Var Series series = dictionary.get(name);
+        if (series == null || series.kind != kind) {
+            // A new metric, or one which was replaced by one of another kind
+            series = new Series(seriesCount++, kind, layout.fields(kind));
+            dictionary.put(name, series);
+            definitions.writeByte(MetricsSegment.SERIES);
+            definitions.writeByte(kind.ordinal());
+            definitions.writeString(name);
+        }
+        samples.writeVarint(zigZag(series.index - previousIndex - 1L));
+        previousIndex = series.index;
+        sampleCount++;
+        return series;
+    }
+}
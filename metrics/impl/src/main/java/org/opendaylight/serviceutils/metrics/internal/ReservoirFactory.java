@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import com.codahale.metrics.UniformReservoir;
+import java.time.Duration;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.serviceutils.metrics.ReservoirType;
+
+/**
+ * Creates the Dropwizard {@link Reservoir} of new Timers and Histograms, as per the {@link Configuration}.
+ */
+final class ReservoirFactory {
+    static final ReservoirFactory DEFAULT = new ReservoirFactory(ReservoirType.EXPONENTIALLY_DECAYING,
+        Duration.ofSeconds(60), 1028, Clock.defaultClock());
+
+    private final ReservoirType defaultType;
+    private final Duration window;
+    private final int uniformSize;
+    private final Clock clock;
+
+    ReservoirFactory(ReservoirType defaultType, Duration window, int uniformSize, Clock clock) {
+        this.defaultType = requireNonNull(defaultType);
+        this.window = requireNonNull(window);
+        this.uniformSize = uniformSize;
+        this.clock = requireNonNull(clock);
+    }
+
+    static ReservoirFactory of(Configuration configuration) {
+        return new ReservoirFactory(configuration.reservoir(),
+            Duration.ofSeconds(Math.max(0, configuration.reservoirWindowSecs())),
+            Math.max(1, configuration.uniformReservoirSize()), Clock.defaultClock());
+    }
+
+    /**
+     * Create a new Reservoir.
+     *
+     * @param type the type of Reservoir to create, or null for the configured default
+     * @return a new Reservoir
+     */
+    Reservoir newReservoir(@Nullable ReservoirType type) {
+        return switch (type != null ? type : defaultType) {
+            case HDR_HISTOGRAM -> new HdrHistogramReservoir(window, clock);
+            // A zero window makes no sense for a sliding window reservoir, so this uses a minimal one instead
+            case SLIDING_TIME_WINDOW -> new SlidingTimeWindowArrayReservoir(Math.max(1, window.toNanos()),
+                NANOSECONDS, clock);
+            case UNIFORM -> new UniformReservoir(uniformSize);
+            case EXPONENTIALLY_DECAYING -> new ExponentiallyDecayingReservoir();
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "ReservoirFactory{defaultType=" + defaultType + ", window=" + window + ", uniformSize=" + uniformSize
+            + "}";
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link AggregatedJmxReporter}.
+ */
+public class AggregatedJmxReporterTest {
+    private final MetricRegistry registry = new MetricRegistry();
+    private final MBeanServer server = MBeanServerFactory.newMBeanServer();
+    private final AggregatedJmxReporter reporter = new AggregatedJmxReporter(registry, server);
+
+    @Before
+    public void beforeEachTest() {
+        reporter.start();
+    }
+
+    @After
+    public void afterEachTest() {
+        reporter.close();
+    }
+
+    @Test
+    public void testOneMBeanForAllChildren() throws JMException {
+        registry.meter("odl.test.meter{port=1}").mark(3);
+        registry.meter("odl.test.meter{port=2}").mark(5);
+        registry.counter("odl.test.counter{port=1}").inc(7);
+
+        ObjectName meters = new ObjectName("metrics:name=\"odl.test.meter\",type=meters");
+        assertEquals(2, server.queryNames(new ObjectName("metrics:*"), null).size());
+
+        TabularData children = (TabularData) server.getAttribute(meters, "Children");
+        assertEquals(2, children.size());
+        assertEquals(3L, children.get(new Object[] { "port=1" }).get("count"));
+        CompositeData port2 = children.get(new Object[] { "port=2" });
+        assertEquals(5L, port2.get("count"));
+
+        // Values are read when the attribute is, not when the child was added
+        registry.meter("odl.test.meter{port=2}").mark();
+        TabularData updated = (TabularData) server.getAttribute(meters, "Children");
+        assertEquals(6L, updated.get(new Object[] { "port=2" }).get("count"));
+
+        TabularData counters = (TabularData) server.getAttribute(
+            new ObjectName("metrics:name=\"odl.test.counter\",type=counters"), "Children");
+        assertEquals(7L, counters.get(new Object[] { "port=1" }).get("count"));
+    }
+
+    @Test
+    public void testUnregisteredWithLastChild() throws JMException {
+        registry.timer("odl.test.timer{port=1}").time().stop();
+        registry.timer("odl.test.timer{port=2}");
+        ObjectName timers = new ObjectName("metrics:name=\"odl.test.timer\",type=timers");
+
+        registry.remove("odl.test.timer{port=1}");
+        assertTrue(server.isRegistered(timers));
+        assertEquals(1, ((TabularData) server.getAttribute(timers, "Children")).size());
+
+        registry.remove("odl.test.timer{port=2}");
+        assertFalse(server.isRegistered(timers));
+    }
+
+    @Test
+    public void testUnlabeledAndExisting() throws JMException {
+        registry.histogram("odl.test.histogram").update(42);
+        registry.gauge("odl.test.gauge", () -> () -> "up");
+
+        // Metrics which existed before are exposed by a reporter started later, too
+        MBeanServer otherServer = MBeanServerFactory.newMBeanServer();
+        try (AggregatedJmxReporter other = new AggregatedJmxReporter(registry, otherServer)) {
+            other.start();
+            assertEquals(2, otherServer.queryNames(new ObjectName("metrics:*"), null).size());
+        }
+
+        TabularData histogram = (TabularData) server.getAttribute(
+            new ObjectName("metrics:name=\"odl.test.histogram\",type=histograms"), "Children");
+        assertEquals(42.0, histogram.get(new Object[] { "" }).get("max"));
+        TabularData gauge = (TabularData) server.getAttribute(
+            new ObjectName("metrics:name=\"odl.test.gauge\",type=gauges"), "Children");
+        assertEquals("up", gauge.get(new Object[] { "" }).get("value"));
+
+        reporter.close();
+        assertTrue(server.queryNames(new ObjectName("metrics:*"), null).isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Snapshot;
+import java.time.Duration;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link HdrHistogramReservoir}.
+ */
+public class HdrHistogramReservoirTest {
+
+    private final ManualClock clock = new ManualClock();
+
+    @Test
+    public void testWindowRotation() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(Duration.ofSeconds(60), clock);
+        reservoir.update(1000);
+        assertEquals(1, reservoir.getSnapshot().size());
+
+        // The previous window is still included
+        clock.tick += Duration.ofSeconds(60).toNanos();
+        reservoir.update(10);
+        assertEquals(2, reservoir.getSnapshot().size());
+        assertEquals(1000, reservoir.getSnapshot().getMax(), 1);
+
+        // ... but not the one before that
+        clock.tick += Duration.ofSeconds(60).toNanos();
+        assertEquals(1, reservoir.getSnapshot().size());
+        assertEquals(10, reservoir.getSnapshot().getMax());
+    }
+
+    @Test
+    public void testZeroWindowIsCumulative() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(Duration.ZERO, clock);
+        reservoir.update(1000);
+        clock.tick += Duration.ofDays(1).toNanos();
+        reservoir.update(10);
+        assertEquals(2, reservoir.getSnapshot().size());
+        assertEquals(10, reservoir.getSnapshot().getMin());
+        assertEquals(2, reservoir.getSnapshot().getValues().length);
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(Duration.ofSeconds(60), clock);
+        assertEquals(0, reservoir.getSnapshot().getMin());
+        assertEquals(0, reservoir.getSnapshot().getMax());
+        assertEquals(0, reservoir.getSnapshot().getMean(), 0);
+    }
+
+    @Test
+    public void testPercentilesOfHistogram() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(Duration.ofSeconds(60), clock);
+        Histogram histogram = new Histogram(3);
+        for (int i = 1; i <= 10_000; i++) {
+            long value = i * 997L;
+            reservoir.update(value);
+            histogram.recordValue(value);
+        }
+        Snapshot snapshot = reservoir.getSnapshot();
+        for (double quantile : new double[] { 0.001, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1 }) {
+            assertEquals(histogram.getValueAtPercentile(quantile * 100), snapshot.getValue(quantile), 0);
+        }
+        assertEquals(histogram.getMinValue(), snapshot.getMin());
+        assertEquals(histogram.getMaxValue(), snapshot.getMax());
+        assertEquals(histogram.getMean(), snapshot.getMean(), 0);
+        assertEquals(10_000, snapshot.getValues().length);
+    }
+
+    @Test
+    public void testSnapshotIsImmutable() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(Duration.ofSeconds(60), clock);
+        reservoir.update(1000);
+        Snapshot snapshot = reservoir.getSnapshot();
+        reservoir.update(2000);
+        assertEquals(2, reservoir.getSnapshot().size());
+        assertEquals(1, snapshot.size());
+        assertEquals(1000, snapshot.getMax(), 1);
+        assertEquals(1000, snapshot.getValue(0.99), 1);
+    }
+
+    @Test
+    public void testValuesOutOfRangeAreCapped() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(Duration.ofSeconds(60), clock);
+        reservoir.update(-1);
+        reservoir.update(Long.MAX_VALUE);
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertEquals(0, snapshot.getMin());
+        assertEquals(HdrHistogramReservoir.HIGHEST_TRACKABLE_VALUE, snapshot.getMax(),
+            HdrHistogramReservoir.HIGHEST_TRACKABLE_VALUE / 1000);
+    }
+
+    private static final class ManualClock extends Clock {
+        long tick;
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import org.junit.After;
+import org.junit.Test;
+import org.opendaylight.serviceutils.metrics.Labeled;
+import org.opendaylight.serviceutils.metrics.Meter;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+
+/**
+ * Unit test for the idle eviction of labeled children in {@link AbstractMetricProvider}.
+ */
+public class IdleEvictionTest {
+    private static final long TIMEOUT = Duration.ofMinutes(5).toNanos();
+
+    private final MetricProviderImpl metrics = new MetricProviderImpl();
+
+    @After
+    public void afterEachTest() {
+        metrics.close();
+    }
+
+    @Test
+    public void testIdleChildIsEvicted() {
+        Labeled<Meter> meter = metrics.newMeter(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_meter").build(), "port");
+        Meter active = meter.label("1");
+        active.mark();
+        Meter idle = meter.label("2");
+        long start = System.nanoTime();
+        metrics.evictIdle(TIMEOUT, start + TIMEOUT);
+        idle.mark();
+        assertFalse(isRegistered("infrautils.metrics.test_meter{port=2}"));
+        assertTrue(isRegistered("infrautils.metrics.test_meter{port=1}"));
+
+        // Not updated since the last sweep, but only idle for half the timeout yet
+        metrics.evictIdle(TIMEOUT, start + TIMEOUT + TIMEOUT / 2);
+        assertTrue(isRegistered("infrautils.metrics.test_meter{port=1}"));
+        metrics.evictIdle(TIMEOUT, start + 2 * TIMEOUT);
+        assertFalse(isRegistered("infrautils.metrics.test_meter{port=1}"));
+
+        // Evicted children are re-created, from zero
+        Meter recreated = meter.label("1");
+        assertNotSame(active, recreated);
+        assertEquals(0, recreated.get());
+        assertTrue(isRegistered("infrautils.metrics.test_meter{port=1}"));
+    }
+
+    @Test
+    public void testEvictedBetweenLabelAndMark() {
+        Labeled<Meter> meter = metrics.newMeter(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_meter").build(), "port");
+        meter.label("1");
+        Meter evicted = meter.label("1");
+        metrics.evictIdle(TIMEOUT, System.nanoTime() + TIMEOUT);
+
+        // The update of the evicted child is dropped, rather than failing
+        evicted.mark();
+        assertFalse(isRegistered("infrautils.metrics.test_meter{port=1}"));
+        meter.label("1").mark();
+        assertEquals(1, metrics.getRegistry().getMeters().get("infrautils.metrics.test_meter{port=1}").getCount());
+
+        // Only explicitly closed children reject updates
+        Meter closed = meter.label("1");
+        closed.close();
+        assertThrows(IllegalStateException.class, closed::mark);
+    }
+
+    @Test
+    public void testUnlabeledIsNotEvicted() {
+        metrics.newMeter(MetricDescriptor.builder().anchor(this).project("infrautils").module("metrics")
+                .id("test_meter").build());
+        metrics.evictIdle(TIMEOUT, System.nanoTime() + 2 * TIMEOUT);
+        assertTrue(isRegistered("infrautils.metrics.test_meter"));
+    }
+
+    private boolean isRegistered(String id) {
+        return metrics.getRegistry().getMeters().containsKey(id);
+    }
+}
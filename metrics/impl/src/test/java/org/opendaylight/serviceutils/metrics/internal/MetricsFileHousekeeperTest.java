@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opendaylight.serviceutils.metrics.internal.MetricsSegment.Kind;
+
+/**
+ * Unit test for {@link MetricsFileHousekeeper}.
+ */
+public class MetricsFileHousekeeperTest {
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCompressesFinishedAndDeletesOldFiles() throws IOException {
+        file("metrics.3.9", "finished\n", HOUR);
+        file("metrics.2.9.gz", "old\n", Duration.ofDays(8).toMillis());
+        file("metrics.3.8.gz.tmp", "stale\n", HOUR);
+        File current = file("metrics.3.10", "current\n", 0);
+
+        long diskUsage = housekeep(current, new FileReporterRetention(0, Duration.ofDays(7), true));
+        assertEquals(Set.of("metrics.3.10", "metrics.3.9.gz"), Set.of(folder.getRoot().list()));
+        File compressed = new File(folder.getRoot(), "metrics.3.9.gz");
+        assertEquals(current.length() + compressed.length(), diskUsage);
+        // Compressed, keeping its time
+        assertEquals("finished\n", gunzip(compressed.toPath()));
+        assertTrue(compressed.lastModified() < System.currentTimeMillis() - HOUR / 2);
+    }
+
+    @Test
+    public void testKeepsFilesOfTheCurrentHour() throws IOException {
+        // The file of a new hour, which the reporter created while the housekeeper still knew of the previous one
+        file("metrics.3.11", "next\n", 0);
+        File current = file("metrics.3.10", "current\n", 0);
+
+        housekeep(current, new FileReporterRetention(0, Duration.ofDays(7), true));
+        assertEquals(Set.of("metrics.3.10", "metrics.3.11"), Set.of(folder.getRoot().list()));
+    }
+
+    @Test
+    public void testDeletesOldestFilesBeyondMaxSize() throws IOException {
+        String hundredBytes = "x".repeat(99) + "\n";
+        file("metrics.3.8", hundredBytes, 2 * HOUR);
+        file("metrics.3.9", hundredBytes, HOUR);
+        File current = file("metrics.3.10", hundredBytes, 0);
+
+        assertEquals(200, housekeep(current, new FileReporterRetention(250, Duration.ofDays(7), false)));
+        assertEquals(Set.of("metrics.3.10", "metrics.3.9"), Set.of(folder.getRoot().list()));
+    }
+
+    @Test
+    public void testCompressedSegmentDecodes() throws IOException {
+        Path segment = folder.getRoot().toPath().resolve("metrics.3.9.bin");
+        try (MetricsSegmentWriter writer = new MetricsSegmentWriter(MetricsLayout.DEFAULT, segment,
+                1024 * 1024, 0)) {
+            writer.beginReport(System.currentTimeMillis());
+            writer.sample("test.counter", Kind.COUNTER, new long[] { 3, 3 }, 0);
+            assertTrue(writer.endReport());
+        }
+        // Truncated to its used part when closed
+        assertTrue(Files.size(segment) < 1024);
+        assertTrue(segment.toFile().setLastModified(System.currentTimeMillis() - HOUR));
+
+        housekeep(file("metrics.3.10.bin", "", 0), new FileReporterRetention(0, Duration.ofDays(7), true));
+
+        // Only the used part of the segment is compressed
+        Path compressed = folder.getRoot().toPath().resolve("metrics.3.9.bin.gz");
+        assertFalse(Files.exists(segment));
+        assertTrue(Files.size(compressed) < 1024);
+        StringWriter decoded = new StringWriter();
+        MetricsSegmentDecoder.decode(compressed, decoded);
+        assertTrue(decoded.toString(), decoded.toString().contains("test.counter,count,3,diff,3"));
+    }
+
+    private File file(String name, String content, long ageMillis) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        Files.writeString(file.toPath(), content, UTF_8);
+        assertTrue(file.setLastModified(System.currentTimeMillis() - ageMillis));
+        return file;
+    }
+
+    // Housekeep once, and wait for it to be done
+    private long housekeep(File current, FileReporterRetention retention) {
+        MetricsFileHousekeeper housekeeper = new MetricsFileHousekeeper(folder.getRoot(), "metrics.", retention);
+        housekeeper.schedule(current.getName(), Instant.now().truncatedTo(ChronoUnit.HOURS).toEpochMilli());
+        housekeeper.close();
+        return housekeeper.diskUsage();
+    }
+
+    private static String gunzip(Path path) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+            return new String(in.readAllBytes(), UTF_8);
+        }
+    }
+}
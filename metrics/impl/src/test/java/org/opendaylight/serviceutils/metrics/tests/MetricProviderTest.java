@@ -7,21 +7,32 @@
  */
 package org.opendaylight.serviceutils.metrics.tests;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
+import com.codahale.metrics.UniformSnapshot;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.errorprone.annotations.Var;
 import java.io.FileNotFoundException;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.After;
 import org.junit.Rule;
 import org.junit.Test;
 import org.opendaylight.infrautils.testutils.LogCaptureRule;
 import org.opendaylight.infrautils.testutils.LogRule;
 import org.opendaylight.serviceutils.metrics.Counter;
+import org.opendaylight.serviceutils.metrics.Gauge;
+import org.opendaylight.serviceutils.metrics.Histogram;
 import org.opendaylight.serviceutils.metrics.Labeled;
 import org.opendaylight.serviceutils.metrics.Meter;
 import org.opendaylight.serviceutils.metrics.MetricDescriptor;
 import org.opendaylight.serviceutils.metrics.MetricProvider;
+import org.opendaylight.serviceutils.metrics.ReservoirType;
 import org.opendaylight.serviceutils.metrics.Timer;
 import org.opendaylight.serviceutils.metrics.function.CheckedRunnable;
 import org.opendaylight.serviceutils.metrics.internal.MetricProviderImpl;
@@ -111,6 +122,22 @@ public class MetricProviderTest {
         assertEquals(5, againMeterA.get());
     }
 
+    @Test
+    public void testMeterWith2LabelsIsCached() {
+        Labeled<Labeled<Meter>> meterWithTwoLabels = metrics.newMeter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_meter_cached").build(),
+                "port", "mac");
+        Meter meterA = meterWithTwoLabels.label("456").label("1A:0B:F2:25:1C:68");
+        assertSame(meterA, meterWithTwoLabels.label("456").label("1A:0B:F2:25:1C:68"));
+        assertSame(meterWithTwoLabels.label("456"), meterWithTwoLabels.label("456"));
+
+        meterA.close();
+        Meter againMeterA = meterWithTwoLabels.label("456").label("1A:0B:F2:25:1C:68");
+        assertNotSame(meterA, againMeterA);
+        againMeterA.mark();
+        assertEquals(1, againMeterA.get());
+    }
+
     @Test
     public void testCounterWith2Labels() {
         Labeled<Labeled<Counter>> counterWithTwoLabels = metrics.newCounter(MetricDescriptor.builder().anchor(this)
@@ -276,6 +303,46 @@ public class MetricProviderTest {
         }));
     }
 
+    @Test
+    public void testTimerStartStop() {
+        Timer timer = metrics.newTimer(this, "test.timer");
+        long startTime = timer.start();
+        assertTrue(timer.stop(startTime) >= 0);
+        timer.record(MILLISECONDS.toNanos(5));
+        com.codahale.metrics.Timer codahaleTimer = ((MetricProviderImpl) metrics).getRegistry().timer("test.timer");
+        assertEquals(2, codahaleTimer.getCount());
+        assertEquals(MILLISECONDS.toNanos(5), codahaleTimer.getSnapshot().getMax());
+    }
+
+    @Test
+    public void testTimeFuture() {
+        Timer timer = metrics.newTimer(this, "test.timer");
+        SettableFuture<String> future = SettableFuture.create();
+        assertSame(future, timer.time(future));
+        com.codahale.metrics.Timer codahaleTimer = ((MetricProviderImpl) metrics).getRegistry().timer("test.timer");
+        assertEquals(0, codahaleTimer.getCount());
+        future.set("done");
+        assertEquals(1, codahaleTimer.getCount());
+    }
+
+    @Test
+    public void testTimerReservoirOverride() {
+        Timer timer = metrics.newTimer(MetricDescriptor.builder().anchor(this).project("infrautils").module("metrics")
+                .id("test_timer").reservoir(ReservoirType.UNIFORM).build());
+        timer.record(MILLISECONDS.toNanos(5));
+        com.codahale.metrics.Snapshot snapshot = ((MetricProviderImpl) metrics).getRegistry()
+                .timer("infrautils.metrics.test_timer").getSnapshot();
+        assertTrue(snapshot instanceof UniformSnapshot);
+        assertEquals(MILLISECONDS.toNanos(5), snapshot.getMax());
+    }
+
+    @Test
+    public void testUseClosedTimer() {
+        Timer timer = metrics.newTimer(this, "test.timer");
+        timer.close();
+        assertThrows(IllegalStateException.class, timer::start);
+    }
+
     @Test
     public void testTimeCheckedCallableNOK() {
         assertThrows(FileNotFoundException.class, () -> metrics.newTimer(this, "test.timer").time(() -> {
@@ -323,12 +390,147 @@ public class MetricProviderTest {
             }));
     }
 
+    @Test
+    public void testHistogram() {
+        Histogram histogram = metrics.newHistogram(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_histogram").build());
+        histogram.update(10);
+        histogram.update(1000);
+        histogram.update(-1);
+        assertEquals(2, histogram.count());
+        com.codahale.metrics.Snapshot snapshot = ((MetricProviderImpl) metrics).getRegistry()
+                .histogram("infrautils.metrics.test_histogram").getSnapshot();
+        assertEquals(10, snapshot.getMin());
+        // HdrHistogram keeps 3 significant digits
+        assertEquals(1000, snapshot.getMax(), 1);
+    }
+
+    @Test
+    public void testHistogramWith2Labels() {
+        Labeled<Labeled<Histogram>> histogram = metrics.newHistogram(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_histogram").build(), "port", "mac");
+        histogram.label("456").label("1A:0B:F2:25:1C:68").update(64);
+        histogram.label("456").label("1A:0B:F2:25:1C:68").update(1500);
+        assertEquals(2, histogram.label("456").label("1A:0B:F2:25:1C:68").count());
+        assertEquals(0, histogram.label("789").label("1A:0B:F2:25:1C:68").count());
+    }
+
+    @Test
+    public void testUseClosedHistogram() {
+        Histogram histogram = metrics.newHistogram(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_histogram").build());
+        histogram.close();
+        assertThrows(IllegalStateException.class, () -> histogram.update(1));
+    }
+
+    @Test
+    public void testGauge() {
+        AtomicLong queueDepth = new AtomicLong(3);
+        Gauge gauge = metrics.newGauge(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_gauge").build(), queueDepth::get);
+        assertEquals(3, gauge.get());
+        queueDepth.set(7);
+        assertEquals(7, gauge.get());
+        assertEquals(7L, ((MetricProviderImpl) metrics).getRegistry().getGauges()
+                .get("infrautils.metrics.test_gauge").getValue());
+        gauge.close();
+        assertFalse(((MetricProviderImpl) metrics).getRegistry().getGauges()
+                .containsKey("infrautils.metrics.test_gauge"));
+    }
+
+    @Test
+    public void testGaugeWith2Labels() {
+        Labeled<Labeled<Gauge>> gauge = metrics.newGauge(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_gauge").build(),
+            (port, mac) -> Long.parseLong(port) + mac.length(), "port", "mac");
+        assertEquals(456 + 17, gauge.label("456").label("1A:0B:F2:25:1C:68").get());
+        assertEquals(789 + 3, gauge.label("789").label("MAC").get());
+    }
+
+    @Test
+    public void testLabelCardinalityOverflow() {
+        Labeled<Labeled<Counter>> counter = metrics.newCounter(MetricDescriptor.builder().anchor(this)
+                .project("infrautils").module("metrics").id("test_counter").maxCardinality(2).build(), "port", "mac");
+        counter.label("1").label("A").increment();
+        counter.label("1").label("B").increment();
+        // These exceed the limit of 2, and so all go into the child whose label values are all __overflow__
+        Counter overflow = counter.label("1").label("C");
+        assertSame(overflow, counter.label("1").label("D"));
+        overflow.increment();
+        counter.label("1").label("D").increment();
+        counter.label("2").label("E").increment();
+        assertSame(overflow, counter.label("2").label("E"));
+        assertEquals(3, overflow.get());
+        assertEquals(1, counter.label("1").label("A").get());
+
+        com.codahale.metrics.MetricRegistry registry = ((MetricProviderImpl) metrics).getRegistry();
+        assertEquals(3, registry.getCounters()
+            .get("infrautils.metrics.test_counter{port=__overflow__,mac=__overflow__}").getCount());
+        assertFalse(registry.getCounters().containsKey("infrautils.metrics.test_counter{port=1,mac=__overflow__}"));
+        assertEquals(5, registry.meter("infrautils.metrics.test_counter_label_overflow").getCount());
+        assertFalse(registry.getCounters().containsKey("infrautils.metrics.test_counter{port=1,mac=C}"));
+    }
+
+    @Test
+    public void testLabelCardinalityReleasedOnClose() {
+        Labeled<Meter> meter = metrics.newMeter(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_meter").maxCardinality(1).build(), "port");
+        meter.label("1").close();
+        Meter meter2 = meter.label("2");
+        meter2.mark();
+        assertEquals(1, ((MetricProviderImpl) metrics).getRegistry().getMeters()
+            .get("infrautils.metrics.test_meter{port=2}").getCount());
+        assertSame(meter2, meter.label("2"));
+    }
+
+    @Test
+    public void testLabelCardinalityReleasedOnFailure() {
+        com.codahale.metrics.MetricRegistry registry = ((MetricProviderImpl) metrics).getRegistry();
+        // A metric of another kind with the same ID, so that the child cannot be created
+        registry.counter("infrautils.metrics.test_meter{port=1}");
+        Labeled<Meter> meter = metrics.newMeter(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_meter").maxCardinality(1).build(), "port");
+        assertThrows(IllegalArgumentException.class, () -> meter.label("1"));
+        meter.label("2").mark();
+        assertEquals(1, registry.getMeters().get("infrautils.metrics.test_meter{port=2}").getCount());
+    }
+
+    @Test
+    public void testBatchedMeter() {
+        Labeled<Meter> meter = metrics.newMeter(MetricDescriptor.builder().anchor(this).project("infrautils")
+                .module("metrics").id("test_batched").batched(true).build(), "port");
+        meter.label("456").mark();
+        meter.label("456").mark(2);
+        assertEquals(3, meter.label("456").get());
+        meter.label("456").mark(4);
+        // Reporters read the registered Dropwizard Meter directly, which folds in pending marks
+        assertEquals(7, ((MetricProviderImpl) metrics).getRegistry().getMeters()
+            .get("infrautils.metrics.test_batched{port=456}").getCount());
+    }
+
+    @Test
+    public void testDupeGaugeID() {
+        MetricDescriptor descriptor = MetricDescriptor.builder().anchor(this).project("infrautils").module("metrics")
+                .id("test_gauge").build();
+        metrics.newGauge(descriptor, () -> 1);
+        assertThrows(IllegalArgumentException.class, () -> metrics.newGauge(descriptor, () -> 2));
+    }
+
     @Test
     public void testDupeMeterID() {
         metrics.newMeter(this, "test.meter1");
         assertThrows(IllegalArgumentException.class, () -> metrics.newMeter(this, "test.meter1"));
     }
 
+    @Test
+    public void testDupeIDNamesAnchor() {
+        metrics.newMeter(this, "test.meter1");
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+            () -> metrics.newCounter(new Object(), "test.meter1"));
+        assertEquals("Metric ID already used: test.meter1 (registered by " + getClass().getName() + ")",
+            ex.getMessage());
+    }
+
     @Test
     public void testDupeAnyID() {
         metrics.newMeter(this, "test.meter1");
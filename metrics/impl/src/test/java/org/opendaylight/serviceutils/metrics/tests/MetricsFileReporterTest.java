@@ -7,21 +7,43 @@
  */
 package org.opendaylight.serviceutils.metrics.tests;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import com.codahale.metrics.Clock;
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.UniformReservoir;
 import com.google.common.io.Files;
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Calendar;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opendaylight.serviceutils.metrics.internal.FileReporterFormat;
+import org.opendaylight.serviceutils.metrics.internal.FileReporterRetention;
 import org.opendaylight.serviceutils.metrics.internal.MetricsFileReporter;
+import org.opendaylight.serviceutils.metrics.internal.MetricsSegmentDecoder;
 
 public class MetricsFileReporterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void testReporter() throws IOException {
         MetricRegistry registry = new MetricRegistry();
@@ -32,6 +54,7 @@ public class MetricsFileReporterTest {
         int hourOfTheDayBeforeReport = calendar.get(Calendar.HOUR_OF_DAY);
         fileReporter.report(registry.getGauges(), registry.getCounters(),
                 registry.getHistograms(), registry.getMeters(), registry.getTimers());
+        fileReporter.flush();
         Calendar calendar2 = Calendar.getInstance();
         int hourOfTheDayAfterReport = calendar2.get(Calendar.HOUR_OF_DAY);
         int dayOfTheWeek = calendar2.get(Calendar.DAY_OF_WEEK);
@@ -44,4 +67,149 @@ public class MetricsFileReporterTest {
         }
         fileReporter.close();
     }
+
+    @Test
+    public void testReporterReplacesFileOfLastWeek() throws IOException {
+        MetricRegistry registry = new MetricRegistry();
+        Counter counter = registry.counter("test.counter");
+        MetricsFileReporter fileReporter = new MetricsFileReporter(registry, Duration.ofMinutes(2),
+            folder.newFolder(), FileReporterFormat.TEXT, MetricsFileReporter.DEFAULT_SEGMENT_SIZE);
+        Calendar calendar = Calendar.getInstance();
+        int hourOfTheDay = calendar.get(Calendar.HOUR_OF_DAY);
+        File file = fileReporter.createFile(calendar.get(Calendar.DAY_OF_WEEK), hourOfTheDay);
+        Files.asCharSink(file, StandardCharsets.UTF_8).write("last week\n");
+        assertTrue(file.setLastModified(calendar.getTimeInMillis() - TimeUnit.DAYS.toMillis(7)));
+
+        for (int i = 0; i < 2; i++) {
+            counter.inc();
+            fileReporter.report(registry.getGauges(), registry.getCounters(), registry.getHistograms(),
+                registry.getMeters(), registry.getTimers());
+            fileReporter.flush();
+        }
+        if (Calendar.getInstance().get(Calendar.HOUR_OF_DAY) == hourOfTheDay) {
+            // The file of last week is replaced, and then appended to during this hour
+            List<String> fileLines = Files.readLines(file, StandardCharsets.UTF_8);
+            assertFalse(fileLines.contains("last week"));
+            assertTrue(fileLines.contains("test.counter,count,1,diff,1"));
+            assertTrue(fileLines.contains("test.counter,count,2,diff,1"));
+        }
+        fileReporter.close();
+    }
+
+    @Test
+    public void testReporterOnlyReportsChanges() {
+        MetricRegistry registry = new MetricRegistry();
+        registry.counter("test.counter").inc();
+        Meter meter = registry.meter("test.meter");
+        meter.mark();
+        registry.histogram("test.histogram").update(1);
+        registry.timer("test.timer").update(Duration.ofMillis(1));
+        AtomicLong gauge = new AtomicLong();
+        registry.register("test.gauge", (Gauge<Long>) gauge::get);
+        MetricsFileReporter fileReporter = new MetricsFileReporter(registry, Duration.ofMinutes(2));
+
+        int hourOfTheDay = Calendar.getInstance().get(Calendar.HOUR_OF_DAY);
+        List<String> first = metricLines(fileReporter);
+        List<String> idle = metricLines(fileReporter);
+        meter.mark();
+        gauge.set(3);
+        List<String> changed = metricLines(fileReporter);
+        if (Calendar.getInstance().get(Calendar.HOUR_OF_DAY) == hourOfTheDay) {
+            // The first report of an hour is a full one
+            assertEquals(5, first.size());
+            assertEquals(List.of(), idle);
+            assertEquals(2, changed.size());
+            assertEquals("test.gauge3", changed.get(0));
+            assertTrue(changed.get(1), changed.get(1).startsWith("test.meter,count,2,"));
+        }
+        fileReporter.close();
+    }
+
+    @Test
+    public void testReporterReportsPercentilesAndDiffs() throws IOException {
+        MetricRegistry registry = new MetricRegistry();
+        Histogram histogram = registry.register("test.histogram", new Histogram(new UniformReservoir()));
+        for (int i = 1; i <= 100; i++) {
+            histogram.update(i);
+        }
+        MetricsFileReporter fileReporter = new MetricsFileReporter(registry, Duration.ofMinutes(2),
+            folder.newFolder(), FileReporterFormat.TEXT, MetricsFileReporter.DEFAULT_SEGMENT_SIZE,
+            FileReporterRetention.DEFAULT, new double[] { 0.5, 0.999 });
+
+        List<String> first = metricLines(fileReporter);
+        histogram.update(200);
+        List<String> second = metricLines(fileReporter);
+        assertEquals(List.of("test.histogram,count,100,diff,100,min,1,max,100,mean,50.5,p50,50.5,p999,100.0"),
+            first);
+        assertEquals(List.of("test.histogram,count,101,diff,1,min,1,max,200,mean,51.98019801980198,p50,51.0,"
+            + "p999,200.0"), second);
+        fileReporter.close();
+    }
+
+    @Test
+    public void testBinaryReporterDecodesToText() throws IOException {
+        // Meters and Timers on a clock of our own, so that both reporters see the same rates
+        AtomicLong tick = new AtomicLong();
+        Clock clock = new Clock() {
+            @Override
+            public long getTick() {
+                return tick.get();
+            }
+        };
+        MetricRegistry registry = new MetricRegistry();
+        Counter counter = registry.counter("test.counter");
+        Meter meter = registry.register("test.meter", new Meter(clock));
+        Timer timer = registry.register("test.timer", new Timer(new UniformReservoir(), clock));
+        registry.histogram("test.histogram").update(42);
+        registry.register("test.gauge.long", (Gauge<Long>) () -> 7L);
+        registry.register("test.gauge.double", (Gauge<Double>) () -> 0.25);
+        registry.register("test.gauge.string", (Gauge<String>) () -> "up");
+        registry.register("test.gauge.null", (Gauge<Object>) () -> null);
+
+        File directory = folder.newFolder();
+        MetricsFileReporter textReporter = new MetricsFileReporter(registry, Duration.ofMinutes(2));
+        MetricsFileReporter binaryReporter = new MetricsFileReporter(registry, Duration.ofMinutes(2), directory,
+            FileReporterFormat.BINARY, 1024 * 1024);
+        StringWriter text = new StringWriter();
+        try (PrintWriter pw = new PrintWriter(text)) {
+            for (int i = 1; i <= 3; i++) {
+                if (i != 2) {
+                    // Unchanged counters are not reported
+                    counter.inc(i);
+                }
+                meter.mark(i * 10);
+                timer.update(i, TimeUnit.MILLISECONDS);
+                tick.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+                textReporter.report(pw);
+                binaryReporter.report(registry.getGauges(), registry.getCounters(), registry.getHistograms(),
+                    registry.getMeters(), registry.getTimers());
+                // Reports are minutes apart, so the writer never falls behind, which would drop them
+                binaryReporter.flush();
+            }
+        }
+
+        // Segments are decoded while they are being written to; closing would write another report
+        File[] segments = directory.listFiles((dir, name) -> name.endsWith(".bin"));
+        assertEquals(1, segments.length);
+        StringWriter decoded = new StringWriter();
+        MetricsSegmentDecoder.decode(segments[0].toPath(), decoded);
+        binaryReporter.close();
+
+        assertTrue(text.toString(), text.toString().contains("test.counter,count,4,diff,3"));
+        assertEquals(withoutDates(text.toString()), withoutDates(decoded.toString()));
+    }
+
+    // The lines of the next report, without the date and the section headers
+    private static List<String> metricLines(MetricsFileReporter fileReporter) {
+        StringWriter text = new StringWriter();
+        try (PrintWriter pw = new PrintWriter(text)) {
+            fileReporter.report(pw);
+        }
+        return text.toString().lines().filter(line -> line.startsWith("test.")).collect(Collectors.toList());
+    }
+
+    private static String withoutDates(String report) {
+        return report.lines().filter(line -> !line.startsWith("date,")).collect(Collectors.joining("\n"));
+    }
 }
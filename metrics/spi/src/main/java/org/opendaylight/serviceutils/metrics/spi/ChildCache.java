@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.spi;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.errorprone.annotations.Var;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.serviceutils.metrics.Labeled;
+
+/**
+ * Cache of the children of one metric, keyed by their {@link LabelValues}, which is the engine shared by the
+ * {@link org.opendaylight.serviceutils.metrics.MetricProvider} implementations: they only provide the children, i.e.
+ * the storage of the values, as {@link MetricChild}ren, and hand out what this resolves.
+ *
+ * <p>The {@link Labeled} returned by {@link #labeled(Function)} resolves children level by level: each level maps a
+ * label value either to the next level, or (for the last label) to the interned {@link LabelValues} of the child.
+ * Resolving a child which already exists thus is a {@link ConcurrentHashMap#get(Object)} per level, plus one in the
+ * children, and does not allocate anything.  The children map is the only source of truth; the levels only cache
+ * their keys, and removed children are re-created on the next lookup.
+ *
+ * <p>The number of children is limited to a maximum cardinality; once that is reached, new label values all resolve
+ * to a child whose label values are all {@value #OVERFLOW}, and are not cached.  Children are counted atomically when
+ * they are created and removed, so concurrent misses never exceed the limit; only the overflow child is created
+ * beyond it.
+ *
+ * <p>Closed and evicted children remove themselves from this, see {@link #remove(LabelValues, MetricChild)}; looking
+ * their label values up again then creates a new child.
+ *
+ * @param <C> type of the children
+ */
+public final class ChildCache<C extends MetricChild> {
+    /**
+     * Label value of the child which all new label values go into, once a metric reached its maximum cardinality.
+     */
+    public static final String OVERFLOW = "__overflow__";
+
+    private final ConcurrentMap<LabelValues, C> children = new ConcurrentHashMap<>();
+    // Number of children, including those being created
+    private final AtomicInteger count = new AtomicInteger();
+    private final int labelCount;
+    private final LabelValues overflowLabelValues;
+    private final int maxCardinality;
+    private final Runnable onOverflow;
+    private volatile @Nullable Level<C> root;
+
+    /**
+     * Constructor.
+     *
+     * @param labelCount number of labels of the metric
+     * @param maxCardinality maximum number of children, or 0 for no limit
+     * @param onOverflow invoked whenever new label values resolve to the overflow child
+     */
+    public ChildCache(int labelCount, int maxCardinality, Runnable onOverflow) {
+        this.labelCount = labelCount;
+        overflowLabelValues = LabelValues.of(Collections.nCopies(labelCount, OVERFLOW));
+        this.maxCardinality = maxCardinality;
+        this.onOverflow = onOverflow;
+    }
+
+    /**
+     * Return the first level {@link Labeled} of the children.  The factory of the first invocation is used for all
+     * children created through it.
+     *
+     * @param factory creates new children
+     * @return the first level {@link Labeled}, whose type is the matching nesting of {@link Labeled}
+     */
+    public Object labeled(Function<LabelValues, C> factory) {
+        if (labelCount == 0) {
+            throw new IllegalStateException("Metric has no labels");
+        }
+        Level<C> level = root;
+        if (level != null) {
+            return level;
+        }
+        synchronized (this) {
+            Level<C> existing = root;
+            if (existing != null) {
+                return existing;
+            }
+            Level<C> created = new Level<>(this, LabelValues.EMPTY, factory);
+            root = created;
+            return created;
+        }
+    }
+
+    /**
+     * Return the child with the given label values, creating it if needed, or the overflow child.
+     *
+     * @param labelValues the values of all labels of the metric
+     * @param factory creates a new child
+     * @return the existing or new child, or the overflow child
+     * @throws IllegalArgumentException if the number of label values does not match the number of labels
+     * @throws RuntimeException if the factory throws, in which case the child does not count towards the maximum
+     */
+    public C child(LabelValues labelValues, Function<LabelValues, C> factory) {
+        if (labelValues.size() != labelCount) {
+            throw new IllegalArgumentException("Got " + labelCount + " label names but " + labelValues.size()
+                + " label values");
+        }
+        C child = children.get(labelValues);
+        if (child != null) {
+            return child;
+        }
+        C created = children.computeIfAbsent(labelValues, newLabelValues -> newChild(newLabelValues, factory, false));
+        if (created != null) {
+            return created;
+        }
+        onOverflow.run();
+        return children.computeIfAbsent(overflowLabelValues, newLabelValues -> newChild(newLabelValues, factory, true));
+    }
+
+    // Invoked by computeIfAbsent(), returns null to not add a child beyond the maximum cardinality
+    private @Nullable C newChild(LabelValues labelValues, Function<LabelValues, C> factory, boolean overflow) {
+        if (count.incrementAndGet() > maxCardinality && maxCardinality > 0 && labelCount > 0 && !overflow) {
+            count.decrementAndGet();
+            return null;
+        }
+        @Var boolean created = false;
+        try {
+            C child = factory.apply(labelValues);
+            created = true;
+            return child;
+        } finally {
+            if (!created) {
+                count.decrementAndGet();
+            }
+        }
+    }
+
+    private boolean hasCapacity() {
+        return maxCardinality <= 0 || count.get() < maxCardinality;
+    }
+
+    /**
+     * Remove a child.
+     *
+     * @param labelValues the label values of the child
+     * @param child the child, which is only removed if it is still the one with these label values
+     * @return true if it was removed, false if it was already removed before
+     */
+    public boolean remove(LabelValues labelValues, C child) {
+        if (!children.remove(labelValues, child)) {
+            return false;
+        }
+        count.decrementAndGet();
+        Level<C> level = root;
+        if (level != null) {
+            level.forget(labelValues, 0);
+        }
+        return true;
+    }
+
+    /**
+     * Return the number of children, including the overflow child.
+     *
+     * @return the number of children
+     */
+    public int size() {
+        return children.size();
+    }
+
+    /**
+     * Perform an action for each child.
+     *
+     * @param action the action, which is passed the label values and the child
+     */
+    public void forEach(BiConsumer<LabelValues, C> action) {
+        children.forEach(action);
+    }
+
+    /**
+     * Evict the children which were not updated for the given time, see {@link MetricChild#isIdle(long, long)}.
+     * Evicted children are closed, but updates of them are dropped rather than rejected, see {@link MetricChild}.
+     * This must only be invoked by a single thread at a time.
+     *
+     * @param timeoutNanos idle time after which children are closed
+     * @param nowNanos current {@link System#nanoTime()}
+     */
+    public void evictIdle(long timeoutNanos, long nowNanos) {
+        if (labelCount > 0) {
+            children.values().forEach(child -> {
+                if (child.isIdle(timeoutNanos, nowNanos)) {
+                    child.evict();
+                }
+            });
+        }
+    }
+
+    private static final class Level<C extends MetricChild> implements Labeled<Object> {
+        // Label value to the next Level, or to the interned LabelValues of the child
+        private final ConcurrentMap<String, Object> next = new ConcurrentHashMap<>();
+        private final ChildCache<C> cache;
+        private final LabelValues parentValues;
+        private final Function<LabelValues, C> factory;
+
+        Level(ChildCache<C> cache, LabelValues parentValues, Function<LabelValues, C> factory) {
+            this.cache = cache;
+            this.parentValues = parentValues;
+            this.factory = factory;
+        }
+
+        @Override
+        public Object label(String labelValue) {
+            requireNonNull(labelValue, "labelValue == null");
+            Object cached = next.get(labelValue);
+            if (cached instanceof LabelValues labelValues) {
+                C child = cache.children.get(labelValues);
+                if (child != null) {
+                    return child;
+                }
+            } else if (cached != null) {
+                return cached;
+            }
+            return resolve(labelValue);
+        }
+
+        private Object resolve(String labelValue) {
+            LabelValues labelValues = parentValues.append(labelValue);
+            if (labelValues.size() < cache.labelCount) {
+                Level<C> level = new Level<>(cache, labelValues, factory);
+                if (!cache.hasCapacity()) {
+                    // Do not grow the levels with values which will only resolve to the overflow child anyway
+                    return level;
+                }
+                Object existing = next.putIfAbsent(labelValue, level);
+                return existing != null ? existing : level;
+            }
+
+            C child = cache.child(labelValues, factory);
+            if (cache.children.get(labelValues) == child) {
+                // Not the overflow child (for other label values)
+                next.put(labelValue, labelValues);
+            }
+            return child;
+        }
+
+        void forget(LabelValues labelValues, int depth) {
+            String labelValue = labelValues.get(depth);
+            Object cached = next.get(labelValue);
+            if (cached instanceof Level<?> level) {
+                level.forget(labelValues, depth + 1);
+                // This may race with a concurrent resolve() below; that only costs it another lookup later
+                if (level.next.isEmpty()) {
+                    next.remove(labelValue, level);
+                }
+            } else if (cached != null) {
+                next.remove(labelValue, labelValues);
+            }
+        }
+    }
+}
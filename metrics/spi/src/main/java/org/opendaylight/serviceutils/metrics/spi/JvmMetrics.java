@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.spi;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.jvm.BufferPoolMetricSet;
+import com.codahale.metrics.jvm.CachedThreadStatesGaugeSet;
+import com.codahale.metrics.jvm.ClassLoadingGaugeSet;
+import com.codahale.metrics.jvm.FileDescriptorRatioGauge;
+import com.codahale.metrics.jvm.GarbageCollectorMetricSet;
+import com.codahale.metrics.jvm.MemoryUsageGaugeSet;
+import com.codahale.metrics.jvm.ThreadDeadlockDetector;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JVM metrics of the {@link org.opendaylight.serviceutils.metrics.MetricProvider} implementations which expose
+ * them through a Dropwizard {@link MetricRegistry}, so that they all expose the same ones.  Only those implementations
+ * use this, and thus need Dropwizard Metrics; this bundle only imports it optionally.
+ */
+public final class JvmMetrics {
+    private static final String FILE_DESCRIPTOR_RATIO = "odl.infrautils.FileDescriptorRatio";
+
+    // How long the thread states are cached, as computing them takes a dump of all threads
+    private static final long THREAD_STATES_CACHE_SECS = 13;
+
+    private JvmMetrics() {
+        // Hidden on purpose
+    }
+
+    /**
+     * Register the JVM metrics in a registry: garbage collections, buffer pools, thread states (including deadlocked
+     * threads), memory usage, class loading, and the ratio of used file descriptors.
+     *
+     * @param registry the registry
+     * @throws IllegalArgumentException if any of them is already registered
+     */
+    public static void registerAll(MetricRegistry registry) {
+        FileDescriptorRatioGauge fileDescriptorRatioGauge = new FileDescriptorRatioGauge();
+
+        registry.registerAll(new GarbageCollectorMetricSet());
+        registry.registerAll(new BufferPoolMetricSet(ManagementFactory.getPlatformMBeanServer()));
+        registry.registerAll(new CachedThreadStatesGaugeSet(ManagementFactory.getThreadMXBean(),
+            new ThreadDeadlockDetector(), THREAD_STATES_CACHE_SECS, TimeUnit.SECONDS));
+        registry.registerAll(new MemoryUsageGaugeSet());
+        registry.registerAll(new ClassLoadingGaugeSet());
+        registry.gauge(FILE_DESCRIPTOR_RATIO, () -> fileDescriptorRatioGauge);
+    }
+}
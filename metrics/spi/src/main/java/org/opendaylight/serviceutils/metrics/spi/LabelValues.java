@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.spi;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable tuple of the label values of one child of a labeled metric, with a cached hash code.  These are the keys
+ * of a {@link ChildCache}, which interns them, so that looking a child up again does not allocate.
+ */
+public final class LabelValues {
+    /**
+     * The label values of the child of a metric without labels.
+     */
+    public static final LabelValues EMPTY = new LabelValues(new String[0]);
+
+    private final String[] values;
+    private final List<String> list;
+    private final int hash;
+
+    private LabelValues(String[] values) {
+        this.values = values;
+        list = List.of(values);
+        hash = Arrays.hashCode(values);
+    }
+
+    /**
+     * Return the label values of the given list.
+     *
+     * @param values the values of the labels, in order
+     * @return the label values
+     */
+    public static LabelValues of(List<String> values) {
+        return values.isEmpty() ? EMPTY : new LabelValues(values.toArray(new String[0]));
+    }
+
+    /**
+     * Return new label values, with the given value added at the end.
+     *
+     * @param value the value of the next label
+     * @return the new label values
+     */
+    public LabelValues append(String value) {
+        String[] newValues = Arrays.copyOf(values, values.length + 1);
+        newValues[values.length] = value;
+        return new LabelValues(newValues);
+    }
+
+    /**
+     * Return the value of the label at the given position.
+     *
+     * @param index the position of the label
+     * @return the value of the label
+     */
+    public String get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Return the number of label values.
+     *
+     * @return the number of label values
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Return the label values as a list.
+     *
+     * @return an unmodifiable list of the label values
+     */
+    public List<String> asList() {
+        return list;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || obj instanceof LabelValues other && hash == other.hash
+            && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public String toString() {
+        return list.toString();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.spi;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import org.opendaylight.yangtools.concepts.AbstractRegistration;
+
+/**
+ * Base class of the children of the metrics in a {@link ChildCache}, i.e. of the storage of their values, which each
+ * implementation provides.  Closing a child is idempotent, and invokes {@link #removeRegistration()} exactly once,
+ * which must remove it from its {@link ChildCache}.  Children which were closed explicitly must not be updated any
+ * more: updates invoke {@link #touch()}, which then throws.
+ *
+ * <p>Children also track whether they were updated, so that labeled children which were not updated for some idle
+ * time can be evicted.  Updates only set a flag, with an opaque (i.e. not volatile) write, and only if it is not
+ * already set; after the first update since the last idle sweep, hot children thus only read it.  The sweeper resets
+ * the flag, and considers a child idle once it found it not set for long enough.  Evicted children are closed as
+ * well, but as the sweeper may evict a child between a caller resolving it and updating it, their updates do not
+ * throw; they go into the evicted child, which is no longer exported, and are thus dropped.
+ */
+public abstract class MetricChild extends AbstractRegistration {
+    private static final VarHandle TOUCHED;
+
+    static {
+        try {
+            TOUCHED = MethodHandles.lookup().findVarHandle(MetricChild.class, "touched", boolean.class);
+        } catch (NoSuchFieldException | IllegalAccessException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private final LabelValues labelValues;
+    @SuppressFBWarnings(value = "UUF_UNUSED_FIELD", justification = "Accessed through TOUCHED")
+    @SuppressWarnings("UnusedVariable")
+    private boolean touched;
+    // Set before close() by evict(), and thus visible to whoever sees this closed
+    private boolean evicted;
+    // Only accessed by the idle sweeper
+    private long idleSinceNanos = System.nanoTime();
+
+    /**
+     * Constructor.
+     *
+     * @param labelValues the label values of this child
+     */
+    protected MetricChild(LabelValues labelValues) {
+        this.labelValues = labelValues;
+    }
+
+    /**
+     * Return the label values of this child, i.e. its key in its {@link ChildCache}.
+     *
+     * @return the label values
+     */
+    public final LabelValues labelValues() {
+        return labelValues;
+    }
+
+    /**
+     * Check that this child was not closed explicitly.  Children which were evicted as idle pass this check.
+     *
+     * @throws IllegalStateException if this child was closed explicitly
+     */
+    protected final void checkNotClosed() {
+        if (isClosed() && !evicted) {
+            throw new IllegalStateException("Metric closed: " + labelValues);
+        }
+    }
+
+    /**
+     * Record that this child was updated.
+     *
+     * @throws IllegalStateException if this child was closed explicitly
+     */
+    protected final void touch() {
+        checkNotClosed();
+        if (!(boolean) TOUCHED.getOpaque(this)) {
+            TOUCHED.setOpaque(this, true);
+        }
+    }
+
+    /**
+     * Check whether this child was not updated for the given time.  This must only be invoked by a single thread at
+     * a time.  Children which are never updated (such as those of pull based gauges) override this to never be idle.
+     *
+     * @param timeoutNanos idle time after which children are evicted
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return true if this child should be evicted
+     */
+    protected boolean isIdle(long timeoutNanos, long nowNanos) {
+        if ((boolean) TOUCHED.getOpaque(this)) {
+            TOUCHED.setOpaque(this, false);
+            idleSinceNanos = nowNanos;
+            return false;
+        }
+        return nowNanos - idleSinceNanos >= timeoutNanos;
+    }
+
+    /**
+     * Close this child as idle, see {@link ChildCache#evictIdle(long, long)}.  Unlike after an explicit
+     * {@link #close()}, updates of it are then dropped rather than rejected.
+     */
+    final void evict() {
+        if (!isClosed()) {
+            evicted = true;
+            close();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.spi;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+
+/**
+ * The metrics of one kind (e.g. all Meters) of a {@link org.opendaylight.serviceutils.metrics.MetricProvider}
+ * implementation, keyed by their {@link MetricId}.  Each metric, or family, is whatever the implementation keeps per
+ * metric; it usually holds a {@link ChildCache} of its children.
+ *
+ * <p>A family is only created, and its {@link MetricId} validated, on the first lookup of its ID; further lookups of
+ * the same descriptor and label names are a {@link ConcurrentHashMap#get(Object)} only.
+ *
+ * @param <F> type of the families
+ */
+public final class MetricFamilies<F> {
+    /**
+     * The default maximum number of children of each labeled metric, the same as the default of the
+     * <code>maxLabelCardinality</code> of the Dropwizard based implementation.
+     */
+    public static final int DEFAULT_MAX_CARDINALITY = 10000;
+
+    private static final String OVERFLOW_SUFFIX = "_label_overflow";
+    // The <project>.<module>.<id> of the Dropwizard name of a MetricDescriptor
+    private static final Pattern LEGACY_ID = Pattern.compile("([a-z][a-z0-9]*)\\.([a-z][a-z0-9]*)\\.(.+)");
+    private static final Pattern INVALID_ID_CHARACTERS = Pattern.compile("[^a-zA-Z0-9_]");
+    private static final String LEGACY_PROJECT = "legacy";
+    private static final String LEGACY_MODULE = "metrics";
+
+    private final ConcurrentMap<MetricId, F> families = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor of an empty set of families.
+     */
+    public MetricFamilies() {
+        // Nothing else to do
+    }
+
+    /**
+     * Return the family of the given descriptor and label names, creating it if needed.
+     *
+     * @param descriptor the descriptor of the metric
+     * @param labelNames the names of the labels of the metric, in order
+     * @param factory creates the family of a new, valid ID
+     * @return the existing or new family
+     * @throws IllegalArgumentException if the label names are not valid
+     */
+    public F get(MetricDescriptor descriptor, List<String> labelNames, Function<MetricId, F> factory) {
+        MetricId metricId = MetricId.of(descriptor, labelNames);
+        F existing = families.get(metricId);
+        return existing != null ? existing : families.computeIfAbsent(metricId, newId -> {
+            newId.validate();
+            return factory.apply(newId);
+        });
+    }
+
+    /**
+     * Return an unmodifiable live view of all families.
+     *
+     * @return the families
+     */
+    public Collection<F> values() {
+        return Collections.unmodifiableCollection(families.values());
+    }
+
+    /**
+     * Return the maximum number of children of the metric of a descriptor.
+     *
+     * @param descriptor the descriptor of the metric
+     * @param defaultMaxCardinality the maximum of metrics whose descriptor does not set one, usually the configured
+     *                              <code>maxLabelCardinality</code>, or 0 for no limit
+     * @return the maximum number of children, or 0 for no limit
+     */
+    public static int maxCardinality(MetricDescriptor descriptor, int defaultMaxCardinality) {
+        return descriptor.maxCardinality().orElse(defaultMaxCardinality);
+    }
+
+    /**
+     * Return the descriptor of a metric created by one of the deprecated methods which take a free-form ID rather
+     * than a {@link MetricDescriptor}.  An ID of the form <code>project.module.id</code>, i.e. the name the Dropwizard
+     * based implementation gives to a descriptor, maps to that descriptor; any other one to the project
+     * {@value #LEGACY_PROJECT} and module {@value #LEGACY_MODULE}.  Characters which are not valid in the id of a
+     * descriptor, such as further dots, are replaced by underscores.
+     *
+     * @param anchor the anchor of the metric
+     * @param id the free-form ID of the metric
+     * @return the descriptor of the metric
+     */
+    public static MetricDescriptor legacyDescriptor(Object anchor, String id) {
+        Matcher matcher = LEGACY_ID.matcher(id);
+        boolean qualified = matcher.matches();
+        String localId = INVALID_ID_CHARACTERS.matcher(qualified ? matcher.group(3) : id).replaceAll("_");
+        return MetricDescriptor.builder().anchor(anchor)
+            .project(qualified ? matcher.group(1) : LEGACY_PROJECT)
+            .module(qualified ? matcher.group(2) : LEGACY_MODULE)
+            // The id must start with a letter
+            .id(!localId.isEmpty() && Character.isLetter(localId.charAt(0)) ? localId : "id_" + localId)
+            .build();
+    }
+
+    /**
+     * Return the descriptor of the Meter which counts how many times new label values of the metric of a descriptor
+     * went into its {@value ChildCache#OVERFLOW} child.
+     *
+     * @param descriptor the descriptor of the labeled metric
+     * @return the descriptor of its overflow Meter
+     */
+    public static MetricDescriptor overflowDescriptor(MetricDescriptor descriptor) {
+        return MetricDescriptor.builder().anchor(descriptor.anchor()).project(descriptor.project())
+            .module(descriptor.module()).id(descriptor.id() + OVERFLOW_SUFFIX)
+            .description("Number of new label values of " + descriptor.id() + " which exceeded its maximum cardinality")
+            .build();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.spi;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+
+/**
+ * Structured identifier of a metric: the project, module and id of its {@link MetricDescriptor}, and the names of
+ * its labels, but not their values.  This is the key of the metric in its {@link MetricFamilies}, with a cached hash
+ * code; it is only validated when a metric is created.
+ */
+public final class MetricId {
+    // Valid in the Prometheus exposition format, in OTLP attributes and in Dropwizard names alike
+    private static final Pattern LABEL_NAME = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+    // Reserved for internal use by Prometheus
+    private static final String RESERVED_LABEL_PREFIX = "__";
+
+    private final String project;
+    private final String module;
+    private final String id;
+    private final List<String> labelNames;
+    private final int hash;
+
+    private MetricId(String project, String module, String id, List<String> labelNames) {
+        this.project = project;
+        this.module = module;
+        this.id = id;
+        this.labelNames = labelNames;
+        hash = 31 * (31 * (31 * project.hashCode() + module.hashCode()) + id.hashCode()) + labelNames.hashCode();
+    }
+
+    /**
+     * Return the ID of the metric of a descriptor with the given label names.
+     *
+     * @param descriptor the descriptor of the metric
+     * @param labelNames the names of the labels of the metric, in order
+     * @return the ID
+     */
+    public static MetricId of(MetricDescriptor descriptor, List<String> labelNames) {
+        return new MetricId(descriptor.project(), descriptor.module(), descriptor.id(), List.copyOf(labelNames));
+    }
+
+    /**
+     * Return the project of the metric.
+     *
+     * @return the project
+     */
+    public String project() {
+        return project;
+    }
+
+    /**
+     * Return the module of the metric.
+     *
+     * @return the module
+     */
+    public String module() {
+        return module;
+    }
+
+    /**
+     * Return the id of the metric, within its module.
+     *
+     * @return the id
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Return the names of the labels of the metric.
+     *
+     * @return an unmodifiable list of the label names, in order
+     */
+    public List<String> labelNames() {
+        return labelNames;
+    }
+
+    /**
+     * Return the name of the metric, i.e. its prefix, project, module and id, joined by the separator.
+     *
+     * @param prefix first element of the name, e.g. <code>opendaylight</code>, or empty for none
+     * @param separator separator of the elements of the name, e.g. <code>_</code> or <code>.</code>
+     * @return the name
+     */
+    public String name(String prefix, String separator) {
+        String name = project + separator + module + separator + id;
+        return prefix.isEmpty() ? name : prefix + separator + name;
+    }
+
+    /**
+     * Check that the label names are valid and distinct.  The project, module and id were already validated by the
+     * {@link MetricDescriptor}.
+     *
+     * @throws IllegalArgumentException if they are not
+     */
+    void validate() {
+        Set<String> seen = new HashSet<>();
+        for (String labelName : labelNames) {
+            requireNonNull(labelName, "labelName == null");
+            if (!LABEL_NAME.matcher(labelName).matches() || labelName.startsWith(RESERVED_LABEL_PREFIX)) {
+                throw new IllegalArgumentException("Invalid label name of " + this + ": " + labelName);
+            }
+            if (!seen.add(labelName)) {
+                throw new IllegalArgumentException("Duplicate label name of " + this + ": " + labelName);
+            }
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || obj instanceof MetricId other && hash == other.hash && project.equals(other.project)
+            && module.equals(other.module) && id.equals(other.id) && labelNames.equals(other.labelNames);
+    }
+
+    @Override
+    public String toString() {
+        return name("", ".") + labelNames;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.opendaylight.serviceutils.metrics.Labeled;
+
+/**
+ * Unit test for {@link ChildCache}.
+ */
+public class ChildCacheTest {
+    private final AtomicInteger overflows = new AtomicInteger();
+
+    private final class TestChild extends MetricChild {
+        private final ChildCache<TestChild> cache;
+
+        TestChild(ChildCache<TestChild> cache, LabelValues labelValues) {
+            super(labelValues);
+            this.cache = cache;
+        }
+
+        void update() {
+            touch();
+        }
+
+        @Override
+        protected void removeRegistration() {
+            cache.remove(labelValues(), this);
+        }
+    }
+
+    @Test
+    public void testLabeledResolvesSameChild() {
+        ChildCache<TestChild> cache = new ChildCache<>(2, 0, overflows::incrementAndGet);
+        Labeled<Labeled<TestChild>> labeled = labeled(cache);
+
+        TestChild child = labeled.label("a").label("b");
+        assertSame(child, labeled.label("a").label("b"));
+        assertSame(child, cache.child(LabelValues.of(List.of("a", "b")), values -> new TestChild(cache, values)));
+        assertEquals(List.of("a", "b"), child.labelValues().asList());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testClosedChildIsRecreated() {
+        ChildCache<TestChild> cache = new ChildCache<>(1, 0, overflows::incrementAndGet);
+        Labeled<TestChild> labeled = labeled(cache);
+
+        TestChild child = labeled.label("a");
+        child.close();
+        // Closing is idempotent
+        child.close();
+        assertEquals(0, cache.size());
+
+        TestChild recreated = labeled.label("a");
+        assertNotSame(child, recreated);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testOverflow() {
+        ChildCache<TestChild> cache = new ChildCache<>(1, 2, overflows::incrementAndGet);
+        Labeled<TestChild> labeled = labeled(cache);
+
+        labeled.label("a");
+        labeled.label("b");
+        TestChild overflow = labeled.label("c");
+        assertEquals(List.of(ChildCache.OVERFLOW), overflow.labelValues().asList());
+        assertSame(overflow, labeled.label("d"));
+        assertEquals(2, overflows.get());
+        assertEquals(3, cache.size());
+
+        // Existing children are still resolved
+        assertEquals(List.of("a"), labeled.label("a").labelValues().asList());
+    }
+
+    @Test
+    public void testCardinalityIsReleased() {
+        ChildCache<TestChild> cache = new ChildCache<>(1, 1, overflows::incrementAndGet);
+        assertThrows(IllegalStateException.class, () -> cache.child(LabelValues.of(List.of("a")), values -> {
+            throw new IllegalStateException("Failed");
+        }));
+        Labeled<TestChild> labeled = labeled(cache);
+
+        // Neither the failed nor the closed child still count towards the maximum
+        labeled.label("b").close();
+        assertEquals(List.of("c"), labeled.label("c").labelValues().asList());
+        assertEquals(0, overflows.get());
+        assertEquals(List.of(ChildCache.OVERFLOW), labeled.label("d").labelValues().asList());
+        assertEquals(1, overflows.get());
+    }
+
+    @Test
+    public void testEvictIdle() {
+        ChildCache<TestChild> cache = new ChildCache<>(1, 0, overflows::incrementAndGet);
+        Labeled<TestChild> labeled = labeled(cache);
+        TestChild hot = labeled.label("hot");
+        TestChild cold = labeled.label("cold");
+        assertEquals(List.of("cold"), cold.labelValues().asList());
+        long timeout = TimeUnit.MINUTES.toNanos(1);
+        long start = System.nanoTime();
+
+        hot.update();
+        cache.evictIdle(timeout, start);
+        assertEquals(2, cache.size());
+
+        hot.update();
+        cache.evictIdle(timeout, start + timeout * 2);
+        assertEquals(1, cache.size());
+        assertSame(hot, labeled.label("hot"));
+        assertNotSame(cold, labeled.label("cold"));
+    }
+
+    @Test
+    public void testUpdateOfEvictedChildIsDropped() {
+        ChildCache<TestChild> cache = new ChildCache<>(1, 0, overflows::incrementAndGet);
+        Labeled<TestChild> labeled = labeled(cache);
+        TestChild evicted = labeled.label("a");
+        long timeout = TimeUnit.MINUTES.toNanos(1);
+        cache.evictIdle(timeout, System.nanoTime() + timeout);
+        assertTrue(evicted.isClosed());
+
+        // The sweeper may evict a child between its resolution and its update, which must not fail
+        evicted.update();
+        assertEquals(0, cache.size());
+        // Closing it explicitly afterwards changes nothing
+        evicted.close();
+        evicted.update();
+
+        TestChild closed = labeled.label("a");
+        assertNotSame(evicted, closed);
+        closed.close();
+        assertThrows(IllegalStateException.class, closed::update);
+    }
+
+    @Test
+    public void testLabelCountMismatch() {
+        ChildCache<TestChild> cache = new ChildCache<>(2, 0, overflows::incrementAndGet);
+        assertThrows(IllegalArgumentException.class,
+            () -> cache.child(LabelValues.of(List.of("a")), values -> new TestChild(cache, values)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <L> L labeled(ChildCache<TestChild> cache) {
+        return (L) cache.labeled(values -> new TestChild(cache, values));
+    }
+}
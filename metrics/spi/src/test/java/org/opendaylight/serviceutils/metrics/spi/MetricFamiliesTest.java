@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.serviceutils.metrics.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.opendaylight.serviceutils.metrics.MetricDescriptor;
+
+/**
+ * Unit test for {@link MetricFamilies} and {@link MetricId}.
+ */
+public class MetricFamiliesTest {
+    private final MetricDescriptor descriptor = MetricDescriptor.builder().anchor(this).project("infrautils")
+        .module("metrics").id("test_family").build();
+    private final MetricFamilies<MetricId> families = new MetricFamilies<>();
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Test
+    public void testFamilyCreatedOnce() {
+        MetricId metricId = get(List.of("port", "mac"));
+        assertSame(metricId, get(List.of("port", "mac")));
+        assertEquals(1, created.get());
+        assertEquals("opendaylight_infrautils_metrics_test_family", metricId.name("opendaylight", "_"));
+
+        // Other label names are another family
+        assertNotSame(metricId, get(List.of("port")));
+        assertEquals(2, created.get());
+        assertEquals(2, families.values().size());
+    }
+
+    @Test
+    public void testInvalidLabelNames() {
+        assertThrows(IllegalArgumentException.class, () -> get(List.of("not-valid")));
+        assertThrows(IllegalArgumentException.class, () -> get(List.of("__reserved")));
+        assertThrows(IllegalArgumentException.class, () -> get(List.of("port", "port")));
+        assertEquals(0, created.get());
+        assertEquals(0, families.values().size());
+    }
+
+    @Test
+    public void testOverflowDescriptor() {
+        MetricDescriptor overflow = MetricFamilies.overflowDescriptor(descriptor);
+        assertEquals("test_family_label_overflow", overflow.id());
+    }
+
+    @Test
+    public void testMaxCardinality() {
+        assertEquals(5, MetricFamilies.maxCardinality(descriptor, 5));
+        assertEquals(2, MetricFamilies.maxCardinality(MetricDescriptor.builder().anchor(this).project("infrautils")
+            .module("metrics").id("test_capped").maxCardinality(2).build(), 5));
+    }
+
+    @Test
+    public void testLegacyDescriptor() {
+        MetricDescriptor qualified = MetricFamilies.legacyDescriptor(this, "infrautils.metrics.test.meter");
+        assertEquals("infrautils", qualified.project());
+        assertEquals("metrics", qualified.module());
+        assertEquals("test_meter", qualified.id());
+
+        MetricDescriptor unqualified = MetricFamilies.legacyDescriptor(this, "1-meter");
+        assertEquals("legacy", unqualified.project());
+        assertEquals("metrics", unqualified.module());
+        assertEquals("id_1_meter", unqualified.id());
+    }
+
+    private MetricId get(List<String> labelNames) {
+        return families.get(descriptor, labelNames, metricId -> {
+            created.incrementAndGet();
+            return metricId;
+        });
+    }
+}